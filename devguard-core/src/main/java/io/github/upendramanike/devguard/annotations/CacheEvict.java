@@ -0,0 +1,45 @@
+package io.github.upendramanike.devguard.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Removes {@link CacheResult} entries once the annotated method completes, so changed data is reloaded
+ * instead of being served until its TTL expires. Entries are removed by key from one cache, by tag
+ * from every cache, or both.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * @CacheResult(ttl = 3600, key = "#id", tags = "'customer:' + #id")
+ * public CustomerView view(Long id) { ... }
+ *
+ * @CacheEvict(tags = "'customer:' + #customer.id")
+ * public void update(Customer customer) { ... }
+ * }</pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheEvict {
+
+    /** Cache holding the entry removed by {@link #key()}; required when a key is given. */
+    String cacheName() default "";
+
+    /** SpEL expression for the key of the entry to remove, as in {@link CacheResult#key()}. */
+    String key() default "";
+
+    /**
+     * SpEL expressions for tags, each yielding one tag or a collection of tags. Every entry stored with
+     * one of them, in any cache, is removed.
+     */
+    String[] tags() default {};
+
+    /**
+     * When {@code true}, entries are removed before the method runs, even if it then fails. By default
+     * they are removed only after it returns normally (or its {@code CompletableFuture} completes normally).
+     */
+    boolean beforeInvocation() default false;
+}
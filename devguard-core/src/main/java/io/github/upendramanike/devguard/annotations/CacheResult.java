@@ -15,6 +15,10 @@ import java.lang.annotation.Target;
  * @CacheResult(ttl = 300, key = "#id")
  * public Product findById(Long id) { ... }
  * }</pre>
+ *
+ * <p>Methods returning {@code CompletableFuture} or {@code CompletionStage} cache the value the future
+ * completes with. Concurrent misses always share the pending future, whatever {@link #coalesce()}
+ * says, and futures that complete exceptionally are not cached.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -32,4 +36,49 @@ public @interface CacheResult {
      * from the argument values.
      */
     String key() default "";
+
+    /**
+     * SpEL expressions for tags stored with each entry, each yielding one tag or a collection of tags,
+     * e.g. {@code "'customer:' + #id"}. {@link CacheEvict#tags()} removes every entry with a tag.
+     */
+    String[] tags() default {};
+
+    /**
+     * When {@code true}, a {@code null} result is cached for {@link #nullTtl()} seconds instead of being
+     * reloaded on every call, e.g. for lookups of entities that do not exist.
+     */
+    boolean cacheNull() default false;
+
+    /** Time-to-live for cached {@code null} results, in seconds; usually shorter than {@link #ttl()}. */
+    long nullTtl() default 10;
+
+    /**
+     * When {@code true}, concurrent misses for the same cache name and key share a single invocation:
+     * one caller loads the value while the others wait for its result (or failure).
+     */
+    boolean coalesce() default false;
+
+    /**
+     * How long a coalesced caller waits for the in-flight load, in milliseconds, before invoking the
+     * method itself (0 = wait indefinitely).
+     */
+    long coalesceWaitMillis() default 5000;
+
+    /**
+     * Refresh-ahead window, in seconds. A hit on an entry expiring within this window returns the
+     * cached value immediately and reloads it on a background thread, so hot keys never see a
+     * synchronous miss (0 = disabled). Background reloads run without the caller's thread-local state.
+     */
+    long refreshAheadSeconds() default 0;
+
+    /**
+     * Caches a bulk lookup per element instead of per call. The method must take a {@code Collection},
+     * {@code List} or {@code Set} parameter (the first one is used) and return a {@code Map} keyed by its
+     * elements, like {@code Map<Long, User> findByIds(List<Long> ids)}. Each element is looked up on its
+     * own, the method is invoked with only the missing elements, and the result merges hits and loaded
+     * values in request order. {@link #key()} is evaluated with the collection parameter bound to a
+     * single element; elements absent from the returned map are cached as {@code null} when
+     * {@link #cacheNull()} is set. {@link #coalesce()} and {@link #refreshAheadSeconds()} do not apply.
+     */
+    boolean batch() default false;
 }
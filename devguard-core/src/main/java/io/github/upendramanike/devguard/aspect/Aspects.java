@@ -1,6 +1,14 @@
 package io.github.upendramanike.devguard.aspect;
 
+import io.github.upendramanike.devguard.core.MethodInvocationContext;
+import io.github.upendramanike.devguard.core.SpelKeyResolver;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
 
 /** Small shared helpers for the DevGuard aspects. */
 final class Aspects {
@@ -12,6 +20,34 @@ final class Aspects {
         return method.getDeclaringClass().getName() + "#" + method.getName();
     }
 
+    /**
+     * Returns the per-method value held in {@code cache}, deriving it with {@code factory} on the first
+     * call of {@code method} on the target class of {@code pjp}. Aspects keep what never changes for a
+     * method (resolved annotations, names, registry entries) this way, so steady-state calls only do
+     * one map lookup. As in {@link GuardPipeline}, values are kept per target class and derived from
+     * its most specific method: behind a JDK proxy {@code method} is the interface method, which every
+     * implementation shares.
+     */
+    static <T> T describe(ConcurrentHashMap<MethodClassKey, T> cache, ProceedingJoinPoint pjp, Method method,
+            Function<Method, T> factory) {
+        Class<?> targetClass = pjp.getTarget() == null ? null : AopProxyUtils.ultimateTargetClass(pjp.getTarget());
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        T value = cache.get(key);
+        return value != null ? value
+                : cache.computeIfAbsent(key, k -> factory.apply(AopUtils.getMostSpecificMethod(method, targetClass)));
+    }
+
+    /**
+     * The SpEL invocation context of a call; within a {@link GuardPipeline}, guards share one context
+     * for as long as the arguments stay the same.
+     */
+    static MethodInvocationContext context(ProceedingJoinPoint pjp, Method method, SpelKeyResolver spel) {
+        if (pjp instanceof GuardChain chain) {
+            return chain.context(method, spel);
+        }
+        return new MethodInvocationContext(method, pjp.getArgs(), spel.parameterNames());
+    }
+
     /** Returns a safe default value for the given return type (for skipped invocations). */
     static Object defaultValue(Class<?> returnType) {
         if (!returnType.isPrimitive() || returnType == void.class) {
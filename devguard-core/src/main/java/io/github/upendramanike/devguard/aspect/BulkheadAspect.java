@@ -3,12 +3,15 @@ package io.github.upendramanike.devguard.aspect;
 import io.github.upendramanike.devguard.annotations.Bulkhead;
 import io.github.upendramanike.devguard.core.BulkheadFullException;
 import io.github.upendramanike.devguard.core.BulkheadRegistry;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.util.StringUtils;
@@ -19,6 +22,7 @@ import org.springframework.util.StringUtils;
 public class BulkheadAspect {
 
     private final BulkheadRegistry registry;
+    private final ConcurrentHashMap<MethodClassKey, Target> targets = new ConcurrentHashMap<>();
 
     public BulkheadAspect(BulkheadRegistry registry) {
         this.registry = registry;
@@ -26,11 +30,10 @@ public class BulkheadAspect {
 
     @Around("@annotation(bulkhead)")
     public Object around(ProceedingJoinPoint pjp, Bulkhead bulkhead) throws Throwable {
-        MethodSignature sig = (MethodSignature) pjp.getSignature();
-        String name = StringUtils.hasText(bulkhead.name())
-                ? bulkhead.name()
-                : Aspects.signature(sig.getMethod());
-        Semaphore semaphore = registry.get(name, bulkhead.maxConcurrent());
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Target target = Aspects.describe(targets, pjp, method, m -> target(m, bulkhead));
+        String name = target.name();
+        Semaphore semaphore = target.semaphore();
 
         boolean acquired;
         try {
@@ -48,4 +51,12 @@ public class BulkheadAspect {
             semaphore.release();
         }
     }
+
+    private Target target(Method method, Bulkhead bulkhead) {
+        String name = StringUtils.hasText(bulkhead.name()) ? bulkhead.name() : Aspects.signature(method);
+        return new Target(name, registry.get(name, bulkhead.maxConcurrent()));
+    }
+
+    /** The semaphore a method is bound to, looked up in the registry on its first call. */
+    private record Target(String name, Semaphore semaphore) {}
 }
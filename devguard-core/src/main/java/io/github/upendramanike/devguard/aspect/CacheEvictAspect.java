@@ -0,0 +1,92 @@
+package io.github.upendramanike.devguard.aspect;
+
+import io.github.upendramanike.devguard.annotations.CacheEvict;
+import io.github.upendramanike.devguard.core.ResultCache;
+import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Implements {@link CacheEvict}: removes the entry of a key and every entry labelled with one of the
+ * tags from the {@link ResultCache}. Keys and tags are evaluated before the method runs, so they see
+ * the arguments as passed in. For methods returning a {@link CompletionStage}, entries are removed
+ * once it completes normally. It runs outside {@code CacheResultAspect}, so a method carrying both
+ * evicts even when its own result is served from the cache. A cache that keeps the no-op defaults
+ * of {@link ResultCache#evict} or {@link ResultCache#evictByTag} is reported once, when the aspect
+ * is created.
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE - 16)
+public class CacheEvictAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheEvictAspect.class);
+
+    private final ResultCache cache;
+    private final SpelKeyResolver spel;
+
+    public CacheEvictAspect(ResultCache cache, SpelKeyResolver spel) {
+        this.cache = cache;
+        this.spel = spel;
+        if (!overrides(cache, "evict", String.class, Object.class)) {
+            log.warn("{} does not implement evict; @CacheEvict keys leave entries to expire",
+                    cache.getClass().getName());
+        }
+        if (!overrides(cache, "evictByTag", String.class)) {
+            log.warn("{} does not implement evictByTag; @CacheEvict tags leave entries to expire",
+                    cache.getClass().getName());
+        }
+    }
+
+    @Around("@annotation(cacheEvict)")
+    public Object around(ProceedingJoinPoint pjp, CacheEvict cacheEvict) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        var ctx = Aspects.context(pjp, method, spel);
+        Object key = null;
+        if (StringUtils.hasText(cacheEvict.key())) {
+            if (!StringUtils.hasText(cacheEvict.cacheName())) {
+                throw new IllegalStateException("@CacheEvict with a key requires a cacheName: "
+                        + Aspects.signature(method));
+            }
+            key = spel.keyValue(cacheEvict.key(), ctx);
+        }
+        List<String> tags = spel.tags(cacheEvict.tags(), ctx);
+
+        if (cacheEvict.beforeInvocation()) {
+            evict(cacheEvict.cacheName(), key, tags);
+            return pjp.proceed();
+        }
+        Object result = pjp.proceed();
+        if (result instanceof CompletionStage<?> stage) {
+            Object evictedKey = key;
+            return stage.thenApply(value -> {
+                evict(cacheEvict.cacheName(), evictedKey, tags);
+                return value;
+            });
+        }
+        evict(cacheEvict.cacheName(), key, tags);
+        return result;
+    }
+
+    private void evict(String cacheName, Object key, List<String> tags) {
+        if (key != null) {
+            cache.evict(cacheName, key);
+        }
+        tags.forEach(cache::evictByTag);
+    }
+
+    private static boolean overrides(ResultCache cache, String name, Class<?>... parameterTypes) {
+        Method method = ReflectionUtils.findMethod(cache.getClass(), name, parameterTypes);
+        return method != null && method.getDeclaringClass() != ResultCache.class;
+    }
+}
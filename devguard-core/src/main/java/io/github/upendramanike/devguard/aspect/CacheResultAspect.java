@@ -1,45 +1,442 @@
 package io.github.upendramanike.devguard.aspect;
 
 import io.github.upendramanike.devguard.annotations.CacheResult;
+import io.github.upendramanike.devguard.core.CacheNameListener;
 import io.github.upendramanike.devguard.core.MethodInvocationContext;
+import io.github.upendramanike.devguard.core.NullValue;
 import io.github.upendramanike.devguard.core.ResultCache;
+import io.github.upendramanike.devguard.core.SingleFlight;
 import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import io.github.upendramanike.devguard.core.TtlJitter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.util.StringUtils;
 
-/** Implements {@link CacheResult}: caches return values for a fixed TTL. */
+/**
+ * Implements {@link CacheResult}: caches return values for their TTL, optionally coalescing
+ * concurrent misses into a single invocation and refreshing entries ahead of expiry. The duration
+ * and outcome of every invocation made on a miss is recorded with {@link ResultCache#recordLoad}.
+ * Each TTL goes through a {@link TtlJitter}, which may shorten it to spread expiry.
+ *
+ * <p>Methods returning {@link CompletableFuture} or {@link CompletionStage} are cached by completed
+ * value: the pending future of a miss is shared with every caller of the same key until it completes,
+ * its value is then cached like a synchronous result, and a failed future is never cached. Callers
+ * receive copies of the shared future, so cancelling one does not affect the others.
+ *
+ * <p>{@linkplain CacheResult#batch() Batch} methods are cached per element of their collection
+ * parameter with {@link ResultCache#getAll} and {@link ResultCache#putAll}, and invoked only for the
+ * elements that missed.
+ */
 @Aspect
 @Order(Ordered.LOWEST_PRECEDENCE - 15)
-public class CacheResultAspect {
+public class CacheResultAspect implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheResultAspect.class);
 
     private final ResultCache cache;
     private final SpelKeyResolver spel;
+    private final ExecutorService refreshExecutor;
+    private final CacheNameListener listener;
+    private final TtlJitter ttlJitter;
+    private final SingleFlight loads = new SingleFlight();
+    private final Set<InFlightKey> refreshing = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<InFlightKey, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MethodClassKey, Target> targets = new ConcurrentHashMap<>();
 
     public CacheResultAspect(ResultCache cache, SpelKeyResolver spel) {
+        this(cache, spel, newRefreshExecutor(2, 256));
+    }
+
+    /**
+     * @param refreshExecutor runs refresh-ahead reloads; it should be bounded, as reloads rejected by
+     *     it are skipped and the entry simply expires
+     */
+    public CacheResultAspect(ResultCache cache, SpelKeyResolver spel, ExecutorService refreshExecutor) {
+        this(cache, spel, refreshExecutor, cacheName -> { });
+    }
+
+    /** @param listener told about the cache name of each annotated method when it is first invoked */
+    public CacheResultAspect(ResultCache cache, SpelKeyResolver spel, ExecutorService refreshExecutor,
+            CacheNameListener listener) {
+        this(cache, spel, refreshExecutor, listener, TtlJitter.NONE);
+    }
+
+    /** @param ttlJitter spreads the expiry of entries stored together */
+    public CacheResultAspect(ResultCache cache, SpelKeyResolver spel, ExecutorService refreshExecutor,
+            CacheNameListener listener, TtlJitter ttlJitter) {
         this.cache = cache;
         this.spel = spel;
+        this.refreshExecutor = refreshExecutor;
+        this.listener = listener;
+        this.ttlJitter = ttlJitter;
+    }
+
+    /** Creates a daemon thread pool with a bounded queue, suitable for refresh-ahead reloads. */
+    public static ExecutorService newRefreshExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "devguard-cache-refresh-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Around("@annotation(cacheResult)")
     public Object around(ProceedingJoinPoint pjp, CacheResult cacheResult) throws Throwable {
-        MethodSignature sig = (MethodSignature) pjp.getSignature();
-        String cacheName = StringUtils.hasText(cacheResult.cacheName())
-                ? cacheResult.cacheName()
-                : Aspects.signature(sig.getMethod());
-        var ctx = new MethodInvocationContext(sig.getMethod(), pjp.getArgs(), spel.parameterNames());
-        String key = spel.key(cacheResult.key(), ctx);
-
-        Object cached = cache.get(cacheName, key);
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Target target = Aspects.describe(targets, pjp, method, m -> target(m, cacheResult));
+        if (target.batchIndex() >= 0) {
+            return batch(pjp, method, cacheResult, target);
+        }
+        String cacheName = target.cacheName();
+        Object key;
+        if (StringUtils.hasText(cacheResult.key())) {
+            key = spel.keyValue(cacheResult.key(), Aspects.context(pjp, method, spel));
+        } else {
+            key = spel.cacheKey(target.signature(), pjp.getArgs());
+        }
+
+        Object cached = lookup(pjp, cacheResult, target, key);
+        if (target.async()) {
+            if (cached != null) {
+                return CompletableFuture.completedFuture(unwrap(cached));
+            }
+            CompletableFuture<Object> loading = loadAsync(pjp, cacheResult, cacheName, key);
+            return loading != null ? loading.copy() : null;
+        }
         if (cached != null) {
-            return cached;
+            return unwrap(cached);
+        }
+        if (!cacheResult.coalesce()) {
+            return load(pjp, cacheResult, cacheName, key);
+        }
+        return loads.execute(new InFlightKey(cacheName, key), cacheResult.coalesceWaitMillis(), () -> {
+            Object loaded = cache.get(cacheName, key);
+            return loaded != null ? unwrap(loaded) : load(pjp, cacheResult, cacheName, key);
+        });
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private Object lookup(ProceedingJoinPoint pjp, CacheResult cacheResult, Target target, Object key) {
+        String cacheName = target.cacheName();
+        if (cacheResult.refreshAheadSeconds() <= 0) {
+            return cache.get(cacheName, key);
+        }
+        ResultCache.Entry entry = cache.getEntry(cacheName, key);
+        if (entry == null) {
+            return null;
+        }
+        long remainingMillis = entry.expiresAtMillis() - System.currentTimeMillis();
+        if (remainingMillis <= cacheResult.refreshAheadSeconds() * 1000L) {
+            if (target.async()) {
+                refreshAsync(pjp, cacheResult, cacheName, key);
+            } else {
+                refreshInBackground(pjp, cacheResult, cacheName, key);
+            }
+        }
+        return entry.value();
+    }
+
+    private void refreshInBackground(ProceedingJoinPoint pjp, CacheResult cacheResult, String cacheName, Object key) {
+        InFlightKey flightKey = new InFlightKey(cacheName, key);
+        if (!refreshing.add(flightKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loads.execute(flightKey, 0, () -> load(pjp, cacheResult, cacheName, key));
+                } catch (Throwable ex) {
+                    log.warn("Background refresh of {} [{}] failed: {}", cacheName, key, ex.toString());
+                } finally {
+                    refreshing.remove(flightKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(flightKey);
+        }
+    }
+
+    private void refreshAsync(ProceedingJoinPoint pjp, CacheResult cacheResult, String cacheName, Object key) {
+        InFlightKey flightKey = new InFlightKey(cacheName, key);
+        if (pending.containsKey(flightKey) || !refreshing.add(flightKey)) {
+            return;
+        }
+        try {
+            // the method may do blocking work before returning its stage, so not on the caller's thread
+            refreshExecutor.execute(() -> {
+                try {
+                    CompletableFuture<Object> loading = loadAsync(pjp, cacheResult, cacheName, key);
+                    if (loading != null) {
+                        loading.whenComplete((value, ex) -> {
+                            if (ex != null) {
+                                log.warn("Background refresh of {} [{}] failed: {}", cacheName, key, ex.toString());
+                            }
+                        });
+                    }
+                } catch (Throwable ex) {
+                    log.warn("Background refresh of {} [{}] failed: {}", cacheName, key, ex.toString());
+                } finally {
+                    refreshing.remove(flightKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(flightKey);
+        }
+    }
+
+    /**
+     * Returns the pending load of {@code key}, starting one if none is in flight. The value is cached
+     * before the shared future completes, so later callers find it in the cache. Returns {@code null}
+     * if the method itself returned {@code null} instead of a stage.
+     */
+    private CompletableFuture<Object> loadAsync(ProceedingJoinPoint pjp, CacheResult cacheResult, String cacheName,
+            Object key) throws Throwable {
+        InFlightKey flightKey = new InFlightKey(cacheName, key);
+        CompletableFuture<Object> shared = new CompletableFuture<>();
+        CompletableFuture<Object> existing = pending.putIfAbsent(flightKey, shared);
+        if (existing != null) {
+            return existing;
+        }
+        long start = System.nanoTime();
+        CompletionStage<?> stage;
+        try {
+            stage = (CompletionStage<?>) pjp.proceed();
+        } catch (Throwable ex) {
+            cache.recordLoad(cacheName, System.nanoTime() - start, false);
+            pending.remove(flightKey, shared);
+            shared.completeExceptionally(ex);
+            throw ex;
+        }
+        if (stage == null) {
+            pending.remove(flightKey, shared);
+            shared.complete(null);
+            return null;
+        }
+        stage.whenComplete((result, ex) -> {
+            cache.recordLoad(cacheName, System.nanoTime() - start, ex == null);
+            try {
+                if (ex == null) {
+                    store(cacheResult, cacheName, key, result, tags(pjp, cacheResult));
+                }
+            } finally {
+                pending.remove(flightKey, shared);
+                if (ex == null) {
+                    shared.complete(result);
+                } else {
+                    shared.completeExceptionally(ex);
+                }
+            }
+        });
+        return shared;
+    }
+
+    private Object batch(ProceedingJoinPoint pjp, Method method, CacheResult cacheResult, Target target)
+            throws Throwable {
+        Object[] args = pjp.getArgs();
+        if (!(args[target.batchIndex()] instanceof Collection<?> elements)) {
+            return pjp.proceed();
+        }
+        String cacheName = target.cacheName();
+        Map<Object, Object> keys = new LinkedHashMap<>();
+        for (Object element : elements) {
+            keys.computeIfAbsent(element, e -> elementKey(method, cacheResult, target, args, e));
+        }
+        Map<Object, Object> cached = cache.getAll(cacheName, keys.values());
+        Collection<Object> missing = target.batchAsSet() ? new LinkedHashSet<>() : new ArrayList<>();
+        keys.forEach((element, key) -> {
+            if (!cached.containsKey(key)) {
+                missing.add(element);
+            }
+        });
+
+        Map<?, ?> loaded = Map.of();
+        if (!missing.isEmpty()) {
+            Object[] missingArgs = args.clone();
+            missingArgs[target.batchIndex()] = missing;
+            long start = System.nanoTime();
+            try {
+                loaded = (Map<?, ?>) pjp.proceed(missingArgs);
+            } catch (Throwable ex) {
+                cache.recordLoad(cacheName, System.nanoTime() - start, false);
+                throw ex;
+            }
+            cache.recordLoad(cacheName, System.nanoTime() - start, true);
+            if (loaded == null) {
+                loaded = Map.of();
+            }
+            // Tags and jittered TTLs differ per element, so such entries are stored one by one
+            if (cacheResult.tags().length > 0 || ttlJitter != TtlJitter.NONE) {
+                for (Object element : missing) {
+                    List<String> tags = tags(method, cacheResult, elementArgs(args, target, element));
+                    store(cacheResult, cacheName, keys.get(element), loaded.get(element), tags);
+                }
+            } else {
+                storeAll(cacheResult, cacheName, keys, missing, loaded);
+            }
+        }
+        return merge(keys, cached, loaded);
+    }
+
+    private void storeAll(CacheResult cacheResult, String cacheName, Map<Object, Object> keys,
+            Collection<Object> missing, Map<?, ?> loaded) {
+        Map<Object, Object> values = new HashMap<>();
+        Map<Object, Object> nulls = new HashMap<>();
+        for (Object element : missing) {
+            Object value = loaded.get(element);
+            if (value != null) {
+                values.put(keys.get(element), value);
+            } else if (cacheResult.cacheNull()) {
+                nulls.put(keys.get(element), NullValue.INSTANCE);
+            }
+        }
+        cache.putAll(cacheName, values, cacheResult.ttl());
+        cache.putAll(cacheName, nulls, cacheResult.nullTtl());
+    }
+
+    /** Hits and loaded values of the requested elements, in request order. */
+    private static Map<Object, Object> merge(Map<Object, Object> keys, Map<Object, Object> cached, Map<?, ?> loaded) {
+        Map<Object, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> entry : keys.entrySet()) {
+            Object value = cached.get(entry.getValue());
+            value = value != null ? unwrap(value) : loaded.get(entry.getKey());
+            if (value != null) {
+                result.put(entry.getKey(), value);
+            }
+        }
+        return result;
+    }
+
+    private Object elementKey(Method method, CacheResult cacheResult, Target target, Object[] args, Object element) {
+        Object[] elementArgs = elementArgs(args, target, element);
+        if (StringUtils.hasText(cacheResult.key())) {
+            var ctx = new MethodInvocationContext(method, elementArgs, spel.parameterNames());
+            return spel.keyValue(cacheResult.key(), ctx);
+        }
+        return spel.cacheKey(target.signature(), elementArgs);
+    }
+
+    /** The arguments of a batch call with the collection parameter replaced by one element. */
+    private static Object[] elementArgs(Object[] args, Target target, Object element) {
+        Object[] elementArgs = args.clone();
+        elementArgs[target.batchIndex()] = element;
+        return elementArgs;
+    }
+
+    private List<String> tags(Method method, CacheResult cacheResult, Object[] args) {
+        if (cacheResult.tags().length == 0) {
+            return List.of();
         }
-        Object result = pjp.proceed();
-        cache.put(cacheName, key, result, cacheResult.ttl());
+        return spel.tags(cacheResult.tags(), new MethodInvocationContext(method, args, spel.parameterNames()));
+    }
+
+    private List<String> tags(ProceedingJoinPoint pjp, CacheResult cacheResult) {
+        if (cacheResult.tags().length == 0) {
+            return List.of();
+        }
+        return spel.tags(cacheResult.tags(),
+                Aspects.context(pjp, ((MethodSignature) pjp.getSignature()).getMethod(), spel));
+    }
+
+    private Object load(ProceedingJoinPoint pjp, CacheResult cacheResult, String cacheName, Object key)
+            throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable ex) {
+            cache.recordLoad(cacheName, System.nanoTime() - start, false);
+            throw ex;
+        }
+        cache.recordLoad(cacheName, System.nanoTime() - start, true);
+        store(cacheResult, cacheName, key, result, tags(pjp, cacheResult));
         return result;
     }
+
+    private void store(CacheResult cacheResult, String cacheName, Object key, Object result, List<String> tags) {
+        Object value = result != null ? result : cacheResult.cacheNull() ? NullValue.INSTANCE : null;
+        if (value == null) {
+            return;
+        }
+        long ttl = ttlJitter.apply(result != null ? cacheResult.ttl() : cacheResult.nullTtl());
+        if (tags.isEmpty()) {
+            cache.put(cacheName, key, value, ttl);
+        } else {
+            cache.put(cacheName, key, value, ttl, tags);
+        }
+    }
+
+    private Target target(Method method, CacheResult cacheResult) {
+        String signature = Aspects.signature(method);
+        String cacheName = StringUtils.hasText(cacheResult.cacheName()) ? cacheResult.cacheName() : signature;
+        listener.cacheNameUsed(cacheName);
+        Class<?> returnType = method.getReturnType();
+        boolean async = returnType == CompletableFuture.class || returnType == CompletionStage.class;
+        int batchIndex = -1;
+        boolean batchAsSet = false;
+        if (cacheResult.batch()) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length && batchIndex < 0; i++) {
+                if (!Collection.class.isAssignableFrom(parameterTypes[i])) {
+                    continue;
+                }
+                if (parameterTypes[i].isAssignableFrom(ArrayList.class)) {
+                    batchIndex = i;
+                } else if (parameterTypes[i].isAssignableFrom(LinkedHashSet.class)) {
+                    batchIndex = i;
+                    batchAsSet = true;
+                }
+            }
+            if (batchIndex < 0 || !returnType.isAssignableFrom(LinkedHashMap.class)) {
+                throw new IllegalStateException("@CacheResult(batch = true) requires a Collection, List or Set"
+                        + " parameter and a Map return type: " + signature);
+            }
+        }
+        return new Target(signature, cacheName, async, batchIndex, batchAsSet);
+    }
+
+    private static Object unwrap(Object cached) {
+        return cached == NullValue.INSTANCE ? null : cached;
+    }
+
+    /**
+     * Per-method invocation details; {@code batchIndex} is the position of the collection parameter of
+     * a batch method, or -1.
+     */
+    private record Target(String signature, String cacheName, boolean async, int batchIndex,
+            boolean batchAsSet) {}
+
+    private record InFlightKey(String cacheName, Object key) {}
 }
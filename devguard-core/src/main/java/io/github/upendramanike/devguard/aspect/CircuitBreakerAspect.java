@@ -3,10 +3,13 @@ package io.github.upendramanike.devguard.aspect;
 import io.github.upendramanike.devguard.annotations.CircuitBreaker;
 import io.github.upendramanike.devguard.core.CircuitBreakerRegistry;
 import io.github.upendramanike.devguard.core.CircuitOpenException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.util.StringUtils;
@@ -17,6 +20,7 @@ import org.springframework.util.StringUtils;
 public class CircuitBreakerAspect {
 
     private final CircuitBreakerRegistry registry;
+    private final ConcurrentHashMap<MethodClassKey, Target> targets = new ConcurrentHashMap<>();
 
     public CircuitBreakerAspect(CircuitBreakerRegistry registry) {
         this.registry = registry;
@@ -24,18 +28,12 @@ public class CircuitBreakerAspect {
 
     @Around("@annotation(circuitBreaker)")
     public Object around(ProceedingJoinPoint pjp, CircuitBreaker circuitBreaker) throws Throwable {
-        MethodSignature sig = (MethodSignature) pjp.getSignature();
-        String name = StringUtils.hasText(circuitBreaker.name())
-                ? circuitBreaker.name()
-                : Aspects.signature(sig.getMethod());
-        CircuitBreakerRegistry.Breaker breaker = registry.get(
-                name,
-                circuitBreaker.failureThreshold(),
-                circuitBreaker.openMillis(),
-                circuitBreaker.halfOpenSuccesses());
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Target target = Aspects.describe(targets, pjp, method, m -> target(m, circuitBreaker));
+        CircuitBreakerRegistry.Breaker breaker = target.breaker();
 
         if (!breaker.allowRequest()) {
-            throw new CircuitOpenException("Circuit breaker OPEN for " + name);
+            throw new CircuitOpenException("Circuit breaker OPEN for " + target.name());
         }
         try {
             Object result = pjp.proceed();
@@ -46,4 +44,18 @@ public class CircuitBreakerAspect {
             throw ex;
         }
     }
+
+    private Target target(Method method, CircuitBreaker circuitBreaker) {
+        String name = StringUtils.hasText(circuitBreaker.name())
+                ? circuitBreaker.name()
+                : Aspects.signature(method);
+        return new Target(name, registry.get(
+                name,
+                circuitBreaker.failureThreshold(),
+                circuitBreaker.openMillis(),
+                circuitBreaker.halfOpenSuccesses()));
+    }
+
+    /** The breaker a method is bound to, looked up in the registry on its first call. */
+    private record Target(String name, CircuitBreakerRegistry.Breaker breaker) {}
 }
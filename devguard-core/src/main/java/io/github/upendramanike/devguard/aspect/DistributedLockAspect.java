@@ -3,7 +3,6 @@ package io.github.upendramanike.devguard.aspect;
 import io.github.upendramanike.devguard.annotations.DistributedLock;
 import io.github.upendramanike.devguard.core.DistributedLockException;
 import io.github.upendramanike.devguard.core.LockProvider;
-import io.github.upendramanike.devguard.core.MethodInvocationContext;
 import io.github.upendramanike.devguard.core.SpelKeyResolver;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -28,8 +27,8 @@ public class DistributedLockAspect {
     @Around("@annotation(distributedLock)")
     public Object around(ProceedingJoinPoint pjp, DistributedLock distributedLock) throws Throwable {
         MethodSignature sig = (MethodSignature) pjp.getSignature();
-        var ctx = new MethodInvocationContext(sig.getMethod(), pjp.getArgs(), spel.parameterNames());
-        String key = distributedLock.prefix() + spel.key(distributedLock.key(), ctx);
+        String key = distributedLock.prefix()
+                + spel.key(distributedLock.key(), Aspects.context(pjp, sig.getMethod(), spel));
 
         LockProvider.LockHandle handle =
                 lockProvider.tryAcquire(key, distributedLock.waitMillis(), distributedLock.leaseMillis());
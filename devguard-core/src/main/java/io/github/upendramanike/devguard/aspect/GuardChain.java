@@ -0,0 +1,113 @@
+package io.github.upendramanike.devguard.aspect;
+
+import io.github.upendramanike.devguard.core.MethodInvocationContext;
+import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import java.lang.reflect.Method;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+
+/**
+ * The join point a {@link GuardPipeline} hands to each of its guards: {@link #proceed()} runs the next
+ * guard, and the last one proceeds with the intercepted invocation. Guards further down the chain
+ * reuse the {@link MethodInvocationContext} of the guards before them as long as the arguments stay
+ * the same.
+ */
+final class GuardChain implements ProceedingJoinPoint {
+
+    private final MethodInvocationProceedingJoinPoint invocation;
+    private final GuardPipeline.Stage[] stages;
+    private final int next;
+    private final Object[] args;
+    private MethodInvocationContext context;
+
+    GuardChain(MethodInvocationProceedingJoinPoint invocation, GuardPipeline.Stage[] stages, int next, Object[] args,
+            MethodInvocationContext context) {
+        this.invocation = invocation;
+        this.stages = stages;
+        this.next = next;
+        this.args = args;
+        this.context = context;
+    }
+
+    /** The invocation context of the current arguments, built by the first guard that needs one. */
+    MethodInvocationContext context(Method method, SpelKeyResolver spel) {
+        MethodInvocationContext ctx = context;
+        if (ctx == null || ctx.method() != method || ctx.discoverer() != spel.parameterNames()) {
+            ctx = new MethodInvocationContext(method, args, spel.parameterNames());
+            context = ctx;
+        }
+        return ctx;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        return proceed(args);
+    }
+
+    @Override
+    public Object proceed(Object[] arguments) throws Throwable {
+        if (next == stages.length) {
+            return invocation.proceed(arguments);
+        }
+        GuardChain chain = new GuardChain(invocation, stages, next + 1, arguments, arguments == args ? context : null);
+        return stages[next].invoke(chain);
+    }
+
+    @Override
+    public Object[] getArgs() {
+        return args.clone();
+    }
+
+    @Override
+    public Signature getSignature() {
+        return invocation.getSignature();
+    }
+
+    @Override
+    public Object getThis() {
+        return invocation.getThis();
+    }
+
+    @Override
+    public Object getTarget() {
+        return invocation.getTarget();
+    }
+
+    @Override
+    public SourceLocation getSourceLocation() {
+        return invocation.getSourceLocation();
+    }
+
+    @Override
+    public String getKind() {
+        return invocation.getKind();
+    }
+
+    @Override
+    public StaticPart getStaticPart() {
+        return invocation.getStaticPart();
+    }
+
+    @Override
+    public void set$AroundClosure(AroundClosure aroundClosure) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toShortString() {
+        return invocation.toShortString();
+    }
+
+    @Override
+    public String toLongString() {
+        return invocation.toLongString();
+    }
+
+    @Override
+    public String toString() {
+        return invocation.toString();
+    }
+}
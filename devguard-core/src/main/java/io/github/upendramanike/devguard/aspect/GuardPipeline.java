@@ -0,0 +1,197 @@
+package io.github.upendramanike.devguard.aspect;
+
+import io.github.upendramanike.devguard.annotations.Audit;
+import io.github.upendramanike.devguard.annotations.Bulkhead;
+import io.github.upendramanike.devguard.annotations.CacheEvict;
+import io.github.upendramanike.devguard.annotations.CacheResult;
+import io.github.upendramanike.devguard.annotations.CircuitBreaker;
+import io.github.upendramanike.devguard.annotations.DistributedLock;
+import io.github.upendramanike.devguard.annotations.FeatureFlag;
+import io.github.upendramanike.devguard.annotations.Idempotent;
+import io.github.upendramanike.devguard.annotations.LogExecution;
+import io.github.upendramanike.devguard.annotations.MeasurePerformance;
+import io.github.upendramanike.devguard.annotations.RateLimit;
+import io.github.upendramanike.devguard.annotations.Retry;
+import io.github.upendramanike.devguard.annotations.Secure;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.OrderUtils;
+
+/**
+ * Runs the DevGuard aspects as one interceptor instead of one advice each. For every advised method
+ * and target class (implementations of one interface share its methods but not their annotations),
+ * the guards implied by its annotations are resolved once, on its first call, into an array ordered
+ * like the aspects' {@link org.springframework.core.annotation.Order @Order}; a call then walks that
+ * array through a single chained join point, sharing one invocation context (and so the argument
+ * names and key variables) between the guards instead of letting the proxy rebuild a join point and
+ * re-match bound annotations for every aspect.
+ *
+ * <p>The guards are the given aspect instances, so behaviour is the same as with the aspects
+ * registered separately, except that the pipeline as a whole takes the order of its outermost aspect
+ * relative to other advisors (such as {@code @Transactional}). The aspects must not also be registered
+ * as beans, or they would run twice.
+ */
+public class GuardPipeline extends StaticMethodMatcherPointcutAdvisor implements MethodInterceptor, AutoCloseable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger log = LoggerFactory.getLogger(GuardPipeline.class);
+    private static final Stage[] NONE = new Stage[0];
+
+    private final List<Binding> bindings;
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+    private final ConcurrentHashMap<MethodClassKey, Stage[]> stages = new ConcurrentHashMap<>();
+
+    /** @param aspects the DevGuard aspects to run; other objects are rejected */
+    public GuardPipeline(Collection<?> aspects) {
+        List<Binding> list = new ArrayList<>();
+        for (Object aspect : aspects) {
+            list.add(binding(aspect));
+            if (aspect instanceof AutoCloseable closeable) {
+                closeables.add(closeable);
+            }
+        }
+        list.sort(Comparator.comparingInt(Binding::order));
+        this.bindings = List.copyOf(list);
+        setAdvice(this);
+        setOrder(bindings.isEmpty() ? Ordered.LOWEST_PRECEDENCE : bindings.get(0).order());
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return stages(AopUtils.getMostSpecificMethod(method, targetClass)).length > 0;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // an interface method is shared by every implementation proxied through it
+        Class<?> targetClass = invocation.getThis() == null
+                ? null : AopProxyUtils.ultimateTargetClass(invocation.getThis());
+        MethodClassKey cacheKey = new MethodClassKey(invocation.getMethod(), targetClass);
+        Stage[] chain = stages.get(cacheKey);
+        if (chain == null) {
+            chain = stages.computeIfAbsent(cacheKey,
+                    key -> stages(AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass)));
+        }
+        if (chain.length == 0 || !(invocation instanceof ProxyMethodInvocation proxied)) {
+            return invocation.proceed();
+        }
+        var joinPoint = new MethodInvocationProceedingJoinPoint(proxied);
+        return chain[0].invoke(new GuardChain(joinPoint, chain, 1, proxied.getArguments(), null));
+    }
+
+    /** Closes the aspects holding resources, such as the refresh executor of {@link CacheResultAspect}. */
+    @Override
+    public void close() {
+        for (AutoCloseable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Could not close {}: {}", closeable.getClass().getSimpleName(), e.toString());
+            }
+        }
+    }
+
+    private Stage[] stages(Method method) {
+        List<Stage> list = new ArrayList<>();
+        for (Binding binding : bindings) {
+            Annotation annotation = method.getAnnotation(binding.type());
+            if (annotation == null && binding.typeLevel()) {
+                annotation = method.getDeclaringClass().getAnnotation(binding.type());
+            }
+            if (annotation != null) {
+                list.add(new Stage(binding.guard(), annotation));
+            }
+        }
+        return list.isEmpty() ? NONE : list.toArray(Stage[]::new);
+    }
+
+    private static Binding binding(Object aspect) {
+        int order = OrderUtils.getOrder(aspect.getClass(), Ordered.LOWEST_PRECEDENCE);
+        if (aspect instanceof SecureAspect a) {
+            return new Binding(Secure.class, true, order, (pjp, annotation) -> a.around(pjp));
+        }
+        if (aspect instanceof FeatureFlagAspect a) {
+            return new Binding(FeatureFlag.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (FeatureFlag) annotation));
+        }
+        if (aspect instanceof DistributedLockAspect a) {
+            return new Binding(DistributedLock.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (DistributedLock) annotation));
+        }
+        if (aspect instanceof RateLimitAspect a) {
+            return new Binding(RateLimit.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (RateLimit) annotation));
+        }
+        if (aspect instanceof IdempotentAspect a) {
+            return new Binding(Idempotent.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (Idempotent) annotation));
+        }
+        if (aspect instanceof BulkheadAspect a) {
+            return new Binding(Bulkhead.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (Bulkhead) annotation));
+        }
+        if (aspect instanceof CircuitBreakerAspect a) {
+            return new Binding(CircuitBreaker.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (CircuitBreaker) annotation));
+        }
+        if (aspect instanceof CacheResultAspect a) {
+            return new Binding(CacheResult.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (CacheResult) annotation));
+        }
+        if (aspect instanceof CacheEvictAspect a) {
+            return new Binding(CacheEvict.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (CacheEvict) annotation));
+        }
+        if (aspect instanceof RetryAspect a) {
+            return new Binding(Retry.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (Retry) annotation));
+        }
+        if (aspect instanceof MeasurePerformanceAspect a) {
+            return new Binding(MeasurePerformance.class, true, order, (pjp, annotation) -> a.around(pjp));
+        }
+        if (aspect instanceof LogExecutionAspect a) {
+            return new Binding(LogExecution.class, true, order, (pjp, annotation) -> a.around(pjp));
+        }
+        if (aspect instanceof AuditAspect a) {
+            return new Binding(Audit.class, false, order,
+                    (pjp, annotation) -> a.around(pjp, (Audit) annotation));
+        }
+        throw new IllegalArgumentException("Not a DevGuard aspect: " + aspect.getClass().getName());
+    }
+
+    /** Calls an aspect's advice with the annotation that selected it. */
+    @FunctionalInterface
+    interface Guard {
+        Object invoke(GuardChain chain, Annotation annotation) throws Throwable;
+    }
+
+    /**
+     * The annotation an aspect implements; {@code typeLevel} aspects also apply to every method of an
+     * annotated class.
+     */
+    private record Binding(Class<? extends Annotation> type, boolean typeLevel, int order, Guard guard) {}
+
+    /** One guard of a method, bound to the annotation found on it. */
+    record Stage(Guard guard, Annotation annotation) {
+
+        Object invoke(GuardChain chain) throws Throwable {
+            return guard.invoke(chain, annotation);
+        }
+    }
+}
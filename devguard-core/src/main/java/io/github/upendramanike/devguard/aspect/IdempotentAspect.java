@@ -3,13 +3,16 @@ package io.github.upendramanike.devguard.aspect;
 import io.github.upendramanike.devguard.annotations.Idempotent;
 import io.github.upendramanike.devguard.core.DuplicateRequestException;
 import io.github.upendramanike.devguard.core.IdempotencyStore;
-import io.github.upendramanike.devguard.core.MethodInvocationContext;
 import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import io.github.upendramanike.devguard.core.TtlJitter;
+import java.lang.reflect.Method;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 
@@ -20,17 +23,25 @@ public class IdempotentAspect {
 
     private final IdempotencyStore store;
     private final SpelKeyResolver spel;
+    private final TtlJitter ttlJitter;
+    private final ConcurrentHashMap<MethodClassKey, String> keyPrefixes = new ConcurrentHashMap<>();
 
     public IdempotentAspect(IdempotencyStore store, SpelKeyResolver spel) {
+        this(store, spel, TtlJitter.NONE);
+    }
+
+    /** @param ttlJitter spreads the expiry of stored results */
+    public IdempotentAspect(IdempotencyStore store, SpelKeyResolver spel, TtlJitter ttlJitter) {
         this.store = store;
         this.spel = spel;
+        this.ttlJitter = ttlJitter;
     }
 
     @Around("@annotation(idempotent)")
     public Object around(ProceedingJoinPoint pjp, Idempotent idempotent) throws Throwable {
-        MethodSignature sig = (MethodSignature) pjp.getSignature();
-        var ctx = new MethodInvocationContext(sig.getMethod(), pjp.getArgs(), spel.parameterNames());
-        String key = Aspects.signature(sig.getMethod()) + ":" + spel.key(idempotent.key(), ctx);
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        String key = Aspects.describe(keyPrefixes, pjp, method, m -> Aspects.signature(m) + ":")
+                + spel.key(idempotent.key(), Aspects.context(pjp, method, spel));
 
         Optional<IdempotencyStore.StoredResult> existing = store.find(key);
         if (existing.isPresent()) {
@@ -40,7 +51,7 @@ public class IdempotentAspect {
             return existing.get().value();
         }
         Object result = pjp.proceed();
-        store.store(key, result, idempotent.ttlSeconds());
+        store.store(key, result, ttlJitter.apply(idempotent.ttlSeconds()));
         return result;
     }
 }
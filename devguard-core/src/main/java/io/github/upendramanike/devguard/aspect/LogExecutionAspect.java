@@ -3,6 +3,7 @@ package io.github.upendramanike.devguard.aspect;
 import io.github.upendramanike.devguard.annotations.LogExecution;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -10,6 +11,7 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 
@@ -18,16 +20,19 @@ import org.springframework.core.annotation.Order;
 @Order(Ordered.LOWEST_PRECEDENCE - 5)
 public class LogExecutionAspect {
 
-    @Around("execution(* *(..)) && (@annotation(io.github.upendramanike.devguard.annotations.LogExecution)"
-            + " || @within(io.github.upendramanike.devguard.annotations.LogExecution))")
+    private final ConcurrentHashMap<MethodClassKey, Target> targets = new ConcurrentHashMap<>();
+
+    @Around("@within(io.github.upendramanike.devguard.annotations.LogExecution)"
+            + " || @annotation(io.github.upendramanike.devguard.annotations.LogExecution)")
     public Object around(ProceedingJoinPoint pjp) throws Throwable {
         Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        LogExecution config = resolve(method);
+        Target target = Aspects.describe(targets, pjp, method, LogExecutionAspect::target);
+        LogExecution config = target.config();
         if (config == null) {
             return pjp.proceed();
         }
-        Logger log = LoggerFactory.getLogger(method.getDeclaringClass());
-        Level level = parseLevel(config.level());
+        Logger log = target.log();
+        Level level = target.level();
         String name = method.getName();
         String args = config.logArgs() ? Arrays.deepToString(pjp.getArgs()) : "";
 
@@ -49,16 +54,24 @@ public class LogExecutionAspect {
         }
     }
 
-    private LogExecution resolve(Method method) {
+    private static Target target(Method method) {
         LogExecution config = method.getAnnotation(LogExecution.class);
-        return config != null ? config : method.getDeclaringClass().getAnnotation(LogExecution.class);
+        if (config == null) {
+            config = method.getDeclaringClass().getAnnotation(LogExecution.class);
+        }
+        return config == null
+                ? new Target(null, null, null)
+                : new Target(config, LoggerFactory.getLogger(method.getDeclaringClass()), parseLevel(config.level()));
     }
 
-    private Level parseLevel(String level) {
+    private static Level parseLevel(String level) {
         try {
             return Level.valueOf(level.toUpperCase());
         } catch (IllegalArgumentException e) {
             return Level.INFO;
         }
     }
+
+    /** The resolved annotation of a method ({@code null} if neither it nor its class has one) and its logger. */
+    private record Target(LogExecution config, Logger log, Level level) {}
 }
@@ -2,12 +2,14 @@ package io.github.upendramanike.devguard.aspect;
 
 import io.github.upendramanike.devguard.annotations.MeasurePerformance;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 
@@ -18,15 +20,18 @@ public class MeasurePerformanceAspect {
 
     private static final Logger log = LoggerFactory.getLogger("devguard.performance");
 
-    @Around("execution(* *(..)) && (@annotation(io.github.upendramanike.devguard.annotations.MeasurePerformance)"
-            + " || @within(io.github.upendramanike.devguard.annotations.MeasurePerformance))")
+    private final ConcurrentHashMap<MethodClassKey, Target> targets = new ConcurrentHashMap<>();
+
+    @Around("@within(io.github.upendramanike.devguard.annotations.MeasurePerformance)"
+            + " || @annotation(io.github.upendramanike.devguard.annotations.MeasurePerformance)")
     public Object around(ProceedingJoinPoint pjp) throws Throwable {
         Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        MeasurePerformance config = resolve(method);
+        Target target = Aspects.describe(targets, pjp, method, MeasurePerformanceAspect::target);
+        MeasurePerformance config = target.config();
         if (config == null) {
             return pjp.proceed();
         }
-        String name = Aspects.signature(method);
+        String name = target.name();
         long usedBefore = config.trackMemory() ? usedHeap() : 0;
         long start = System.nanoTime();
         try {
@@ -44,13 +49,19 @@ public class MeasurePerformanceAspect {
         }
     }
 
-    private MeasurePerformance resolve(Method method) {
+    private static Target target(Method method) {
         MeasurePerformance config = method.getAnnotation(MeasurePerformance.class);
-        return config != null ? config : method.getDeclaringClass().getAnnotation(MeasurePerformance.class);
+        if (config == null) {
+            config = method.getDeclaringClass().getAnnotation(MeasurePerformance.class);
+        }
+        return new Target(config, Aspects.signature(method));
     }
 
     private long usedHeap() {
         Runtime runtime = Runtime.getRuntime();
         return runtime.totalMemory() - runtime.freeMemory();
     }
+
+    /** The resolved annotation of a method ({@code null} if neither it nor its class has one) and its name. */
+    private record Target(MeasurePerformance config, String name) {}
 }
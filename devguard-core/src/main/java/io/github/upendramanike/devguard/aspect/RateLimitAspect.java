@@ -1,14 +1,16 @@
 package io.github.upendramanike.devguard.aspect;
 
 import io.github.upendramanike.devguard.annotations.RateLimit;
-import io.github.upendramanike.devguard.core.MethodInvocationContext;
 import io.github.upendramanike.devguard.core.RateLimitExceededException;
 import io.github.upendramanike.devguard.core.RateLimiterRegistry;
 import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.util.StringUtils;
@@ -20,6 +22,7 @@ public class RateLimitAspect {
 
     private final RateLimiterRegistry registry;
     private final SpelKeyResolver spel;
+    private final ConcurrentHashMap<MethodClassKey, Target> targets = new ConcurrentHashMap<>();
 
     public RateLimitAspect(RateLimiterRegistry registry, SpelKeyResolver spel) {
         this.registry = registry;
@@ -28,17 +31,34 @@ public class RateLimitAspect {
 
     @Around("@annotation(rateLimit)")
     public Object around(ProceedingJoinPoint pjp, RateLimit rateLimit) throws Throwable {
-        MethodSignature sig = (MethodSignature) pjp.getSignature();
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Target target = Aspects.describe(targets, pjp, method, m -> target(m, rateLimit));
         String sub = "*";
-        if (StringUtils.hasText(rateLimit.key())) {
-            var ctx = new MethodInvocationContext(sig.getMethod(), pjp.getArgs(), spel.parameterNames());
-            sub = spel.key(rateLimit.key(), ctx);
+        boolean acquired;
+        if (target.shared() != null) {
+            acquired = target.shared().tryConsume();
+        } else {
+            sub = spel.key(rateLimit.key(), Aspects.context(pjp, method, spel));
+            acquired = registry.tryAcquire(target.bucketPrefix() + sub, rateLimit.requests(), rateLimit.duration());
         }
-        String bucketKey = Aspects.signature(sig.getMethod()) + ":" + sub;
-        if (!registry.tryAcquire(bucketKey, rateLimit.requests(), rateLimit.duration())) {
+        if (!acquired) {
             throw new RateLimitExceededException(
-                    "Rate limit exceeded for " + sig.getMethod().getName() + " [" + sub + "]");
+                    "Rate limit exceeded for " + method.getName() + " [" + sub + "]");
         }
         return pjp.proceed();
     }
+
+    private Target target(Method method, RateLimit rateLimit) {
+        String bucketPrefix = Aspects.signature(method) + ":";
+        RateLimiterRegistry.TokenBucket shared = StringUtils.hasText(rateLimit.key())
+                ? null
+                : registry.bucket(bucketPrefix + "*", rateLimit.requests(), rateLimit.duration());
+        return new Target(bucketPrefix, shared);
+    }
+
+    /**
+     * Bucket names of a method; without a key expression, all its calls share one bucket, bound on the
+     * first call.
+     */
+    private record Target(String bucketPrefix, RateLimiterRegistry.TokenBucket shared) {}
 }
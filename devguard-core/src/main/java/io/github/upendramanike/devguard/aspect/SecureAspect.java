@@ -4,10 +4,13 @@ import io.github.upendramanike.devguard.annotations.Secure;
 import io.github.upendramanike.devguard.core.AccessDeniedException;
 import io.github.upendramanike.devguard.core.SecurityContextProvider;
 import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 
@@ -17,16 +20,17 @@ import org.springframework.core.annotation.Order;
 public class SecureAspect {
 
     private final SecurityContextProvider provider;
+    private final ConcurrentHashMap<MethodClassKey, Optional<Secure>> annotations = new ConcurrentHashMap<>();
 
     public SecureAspect(SecurityContextProvider provider) {
         this.provider = provider;
     }
 
-    @Around("execution(* *(..)) && (@annotation(io.github.upendramanike.devguard.annotations.Secure)"
-            + " || @within(io.github.upendramanike.devguard.annotations.Secure))")
+    @Around("@within(io.github.upendramanike.devguard.annotations.Secure)"
+            + " || @annotation(io.github.upendramanike.devguard.annotations.Secure)")
     public Object around(ProceedingJoinPoint pjp) throws Throwable {
         Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        Secure secure = resolve(method);
+        Secure secure = Aspects.describe(annotations, pjp, method, SecureAspect::resolve).orElse(null);
         if (secure == null) {
             return pjp.proceed();
         }
@@ -44,8 +48,8 @@ public class SecureAspect {
         return pjp.proceed();
     }
 
-    private Secure resolve(Method method) {
+    private static Optional<Secure> resolve(Method method) {
         Secure secure = method.getAnnotation(Secure.class);
-        return secure != null ? secure : method.getDeclaringClass().getAnnotation(Secure.class);
+        return Optional.ofNullable(secure != null ? secure : method.getDeclaringClass().getAnnotation(Secure.class));
     }
 }
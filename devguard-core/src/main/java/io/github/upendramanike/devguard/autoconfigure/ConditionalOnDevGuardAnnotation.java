@@ -0,0 +1,23 @@
+package io.github.upendramanike.devguard.autoconfigure;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Registers an aspect only if the application uses its annotation, as recorded by the
+ * {@link DevGuardAnnotationIndex}. Always matches unless {@code devguard.pipeline.only-used=true}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnDevGuardAnnotationCondition.class)
+@interface ConditionalOnDevGuardAnnotation {
+
+    /** The annotation implemented by the aspect. */
+    Class<? extends Annotation> value();
+}
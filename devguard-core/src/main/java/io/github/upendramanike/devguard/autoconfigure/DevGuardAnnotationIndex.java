@@ -0,0 +1,160 @@
+package io.github.upendramanike.devguard.autoconfigure;
+
+import io.github.upendramanike.devguard.annotations.Audit;
+import io.github.upendramanike.devguard.annotations.Bulkhead;
+import io.github.upendramanike.devguard.annotations.CacheEvict;
+import io.github.upendramanike.devguard.annotations.CacheResult;
+import io.github.upendramanike.devguard.annotations.CircuitBreaker;
+import io.github.upendramanike.devguard.annotations.DistributedLock;
+import io.github.upendramanike.devguard.annotations.FeatureFlag;
+import io.github.upendramanike.devguard.annotations.Idempotent;
+import io.github.upendramanike.devguard.annotations.LogExecution;
+import io.github.upendramanike.devguard.annotations.MeasurePerformance;
+import io.github.upendramanike.devguard.annotations.RateLimit;
+import io.github.upendramanike.devguard.annotations.Retry;
+import io.github.upendramanike.devguard.annotations.Secure;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Which DevGuard annotations an application uses, and on which classes. Built once per bean factory,
+ * when first needed, from the class files under the auto-configuration packages (read without loading
+ * them) and from the classes of the bean definitions registered so far. With
+ * {@code devguard.pipeline.only-used=true} it decides which aspects are registered and which beans the
+ * {@link io.github.upendramanike.devguard.aspect.GuardPipeline} is matched against.
+ *
+ * <p>Beans created through a factory method declaring only an interface, whose implementation lies
+ * outside the scanned packages, are not seen; the index is opt-in for that reason.
+ */
+final class DevGuardAnnotationIndex {
+
+    static final String BEAN_NAME = "devGuardAnnotationIndex";
+
+    private static final Logger log = LoggerFactory.getLogger(DevGuardAnnotationIndex.class);
+    private static final Set<Class<? extends Annotation>> ANNOTATIONS = Set.of(
+            Audit.class, Bulkhead.class, CacheEvict.class, CacheResult.class, CircuitBreaker.class,
+            DistributedLock.class, FeatureFlag.class, Idempotent.class, LogExecution.class,
+            MeasurePerformance.class, RateLimit.class, Retry.class, Secure.class);
+    /** Annotations whose aspects also apply to every method of an annotated class. */
+    private static final Set<Class<? extends Annotation>> TYPE_LEVEL =
+            Set.of(LogExecution.class, MeasurePerformance.class, Secure.class);
+
+    private final Set<String> annotations = new HashSet<>();
+    private final Set<String> types = new HashSet<>();
+
+    private DevGuardAnnotationIndex() {}
+
+    /** Returns the index of {@code beanFactory}, building it on the first call. */
+    static synchronized DevGuardAnnotationIndex of(ConfigurableListableBeanFactory beanFactory,
+            ResourceLoader resourceLoader) {
+        if (beanFactory.containsSingleton(BEAN_NAME)) {
+            return (DevGuardAnnotationIndex) beanFactory.getSingleton(BEAN_NAME);
+        }
+        long start = System.nanoTime();
+        DevGuardAnnotationIndex index = new DevGuardAnnotationIndex();
+        if (AutoConfigurationPackages.has(beanFactory)) {
+            index.scan(AutoConfigurationPackages.get(beanFactory), resourceLoader);
+        }
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type;
+            try {
+                type = beanFactory.getType(name, false);
+            } catch (RuntimeException | LinkageError e) {
+                continue;
+            }
+            if (type != null) {
+                index.inspect(ClassUtils.getUserClass(type));
+            }
+        }
+        beanFactory.registerSingleton(BEAN_NAME, index);
+        log.debug("Indexed DevGuard annotations {} on {} types in {} ms", index.annotations, index.types.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    /** Whether any indexed class uses {@code annotation}. */
+    boolean uses(String annotation) {
+        return annotations.contains(annotation);
+    }
+
+    /** Whether {@code type} or one of its superclasses declares a DevGuard annotation. */
+    boolean covers(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (types.contains(c.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scan(List<String> packages, ResourceLoader resourceLoader) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(resourceLoader);
+        MetadataReaderFactory readers = new CachingMetadataReaderFactory(resourceLoader);
+        for (String basePackage : packages) {
+            String pattern = PathMatchingResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+                    + ClassUtils.convertClassNameToResourcePath(basePackage) + "/**/*.class";
+            try {
+                for (Resource resource : resolver.getResources(pattern)) {
+                    inspect(readers.getMetadataReader(resource).getAnnotationMetadata());
+                }
+            } catch (IOException e) {
+                log.warn("Could not scan {} for DevGuard annotations: {}", basePackage, e.toString());
+            }
+        }
+    }
+
+    private void inspect(AnnotationMetadata metadata) {
+        for (Class<? extends Annotation> annotation : ANNOTATIONS) {
+            String name = annotation.getName();
+            if (metadata.hasAnnotatedMethods(name)
+                    || (TYPE_LEVEL.contains(annotation) && metadata.hasAnnotation(name))) {
+                annotations.add(name);
+                types.add(metadata.getClassName());
+            }
+        }
+    }
+
+    private void inspect(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (types.contains(c.getName())) {
+                continue;
+            }
+            try {
+                for (Annotation annotation : c.getDeclaredAnnotations()) {
+                    if (TYPE_LEVEL.contains(annotation.annotationType())) {
+                        add(c, annotation);
+                    }
+                }
+                for (Method method : c.getDeclaredMethods()) {
+                    for (Annotation annotation : method.getDeclaredAnnotations()) {
+                        if (ANNOTATIONS.contains(annotation.annotationType())) {
+                            add(c, annotation);
+                        }
+                    }
+                }
+            } catch (LinkageError e) {
+                log.debug("Could not inspect {} for DevGuard annotations: {}", c.getName(), e.toString());
+            }
+        }
+    }
+
+    private void add(Class<?> type, Annotation annotation) {
+        annotations.add(annotation.annotationType().getName());
+        types.add(type.getName());
+    }
+}
@@ -1,19 +1,42 @@
 package io.github.upendramanike.devguard.autoconfigure;
 
+import io.github.upendramanike.codec.BinaryCodec;
+import io.github.upendramanike.codec.CompressingCodec;
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import io.github.upendramanike.devguard.annotations.Audit;
+import io.github.upendramanike.devguard.annotations.Bulkhead;
+import io.github.upendramanike.devguard.annotations.CacheEvict;
+import io.github.upendramanike.devguard.annotations.CacheResult;
+import io.github.upendramanike.devguard.annotations.CircuitBreaker;
+import io.github.upendramanike.devguard.annotations.DistributedLock;
+import io.github.upendramanike.devguard.annotations.FeatureFlag;
+import io.github.upendramanike.devguard.annotations.Idempotent;
+import io.github.upendramanike.devguard.annotations.LogExecution;
+import io.github.upendramanike.devguard.annotations.MeasurePerformance;
+import io.github.upendramanike.devguard.annotations.RateLimit;
+import io.github.upendramanike.devguard.annotations.Retry;
+import io.github.upendramanike.devguard.annotations.Secure;
 import io.github.upendramanike.devguard.aspect.AuditAspect;
 import io.github.upendramanike.devguard.aspect.BulkheadAspect;
+import io.github.upendramanike.devguard.aspect.CacheEvictAspect;
 import io.github.upendramanike.devguard.aspect.CacheResultAspect;
 import io.github.upendramanike.devguard.aspect.CircuitBreakerAspect;
 import io.github.upendramanike.devguard.aspect.DistributedLockAspect;
 import io.github.upendramanike.devguard.aspect.FeatureFlagAspect;
+import io.github.upendramanike.devguard.aspect.GuardPipeline;
 import io.github.upendramanike.devguard.aspect.IdempotentAspect;
 import io.github.upendramanike.devguard.aspect.LogExecutionAspect;
 import io.github.upendramanike.devguard.aspect.MeasurePerformanceAspect;
 import io.github.upendramanike.devguard.aspect.RateLimitAspect;
 import io.github.upendramanike.devguard.aspect.RetryAspect;
 import io.github.upendramanike.devguard.aspect.SecureAspect;
+import io.github.upendramanike.devguard.core.ArgumentHasher;
 import io.github.upendramanike.devguard.core.AuditSink;
 import io.github.upendramanike.devguard.core.BulkheadRegistry;
+import io.github.upendramanike.devguard.core.CacheNameListener;
+import io.github.upendramanike.devguard.core.CacheWarmer;
+import io.github.upendramanike.devguard.core.CacheWeigher;
 import io.github.upendramanike.devguard.core.CircuitBreakerRegistry;
 import io.github.upendramanike.devguard.core.FeatureFlagProvider;
 import io.github.upendramanike.devguard.core.IdempotencyStore;
@@ -22,19 +45,35 @@ import io.github.upendramanike.devguard.core.InMemoryLockProvider;
 import io.github.upendramanike.devguard.core.InMemoryResultCache;
 import io.github.upendramanike.devguard.core.LockProvider;
 import io.github.upendramanike.devguard.core.LoggingAuditSink;
+import io.github.upendramanike.devguard.core.MappedFileResultCache;
 import io.github.upendramanike.devguard.core.MaskingService;
 import io.github.upendramanike.devguard.core.NoOpSecurityContextProvider;
+import io.github.upendramanike.devguard.core.OffHeapResultCache;
 import io.github.upendramanike.devguard.core.PropertiesFeatureFlagProvider;
 import io.github.upendramanike.devguard.core.RateLimiterRegistry;
 import io.github.upendramanike.devguard.core.ResultCache;
+import io.github.upendramanike.devguard.core.ResultCacheMetrics;
 import io.github.upendramanike.devguard.core.SecurityContextProvider;
 import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import io.github.upendramanike.devguard.core.TieredResultCache;
+import io.github.upendramanike.devguard.core.TimingWheel;
+import io.github.upendramanike.devguard.core.TtlJitter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
 
 /** Auto-configuration wiring the DevGuard SPI defaults and AOP aspects. */
 @AutoConfiguration
@@ -47,8 +86,17 @@ public class DevGuardAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    SpelKeyResolver devGuardSpelKeyResolver() {
-        return new SpelKeyResolver();
+    ArgumentHasher devGuardArgumentHasher(DevGuardProperties properties) {
+        String secret = properties.getKeys().getSecret();
+        return StringUtils.hasText(secret)
+                ? ArgumentHasher.keyed(secret.getBytes(StandardCharsets.UTF_8))
+                : new ArgumentHasher();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    SpelKeyResolver devGuardSpelKeyResolver(ArgumentHasher argumentHasher) {
+        return new SpelKeyResolver(argumentHasher);
     }
 
     @Bean
@@ -57,10 +105,16 @@ public class DevGuardAutoConfiguration {
         return new InMemoryLockProvider();
     }
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    TimingWheel devGuardTimingWheel() {
+        return new TimingWheel();
+    }
+
     @Bean
     @ConditionalOnMissingBean
-    IdempotencyStore devGuardIdempotencyStore() {
-        return new InMemoryIdempotencyStore();
+    IdempotencyStore devGuardIdempotencyStore(TimingWheel timingWheel) {
+        return new InMemoryIdempotencyStore(timingWheel);
     }
 
     @Bean
@@ -78,8 +132,44 @@ public class DevGuardAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    ResultCache devGuardResultCache() {
-        return new InMemoryResultCache();
+    ResultCache devGuardResultCache(DevGuardProperties properties, ObjectProvider<CacheWeigher> weigher,
+            ObjectProvider<ValueCodec> codec, TimingWheel timingWheel) {
+        DevGuardProperties.Cache cfg = properties.getCache();
+        ResultCache onHeap = new InMemoryResultCache(
+                cfg::limitsFor,
+                weigher.getIfAvailable(() -> CacheWeigher.SINGLETON),
+                timingWheel);
+        ValueCodec valueCodec = codec.getIfAvailable(() -> valueCodec(cfg.getCodec()));
+        ResultCache lower = null;
+        DevGuardProperties.Persistent persistent = cfg.getPersistent();
+        if (persistent.isEnabled()) {
+            lower = new MappedFileResultCache(
+                    persistent.getDirectory(), persistent.getCapacity().toBytes(), valueCodec, timingWheel);
+        }
+        DevGuardProperties.OffHeap offHeap = cfg.getOffHeap();
+        if (offHeap.isEnabled()) {
+            ResultCache offHeapCache = new OffHeapResultCache(
+                    offHeap.getCapacity().toBytes(),
+                    Math.toIntExact(offHeap.getSlabSize().toBytes()),
+                    valueCodec,
+                    timingWheel);
+            lower = lower == null ? offHeapCache : new TieredResultCache(offHeapCache, lower);
+        }
+        return lower == null ? onHeap : new TieredResultCache(onHeap, lower);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "devguard.cache.warm-up", name = "enabled", havingValue = "true")
+    CacheWarmer devGuardCacheWarmer(ResultCache cache, DevGuardProperties properties,
+            ObjectProvider<ValueCodec> codec, ObjectProvider<CacheWarmer.Loader> loader) {
+        DevGuardProperties.Cache cfg = properties.getCache();
+        DevGuardProperties.WarmUp warmUp = cfg.getWarmUp();
+        return new CacheWarmer(cache,
+                codec.getIfAvailable(() -> valueCodec(cfg.getCodec())),
+                new CacheWarmer.Settings(warmUp.getFile(), warmUp.getHottestPerCache(),
+                        warmUp.getSnapshotInterval(), warmUp.getParallelism(), warmUp.getTimeout()),
+                loader.getIfAvailable(() -> CacheWarmer.Loader.NONE));
     }
 
     @Bean
@@ -114,75 +204,186 @@ public class DevGuardAutoConfiguration {
 
     // ---- Aspects ----
 
-    @Bean
-    @ConditionalOnMissingBean
-    RetryAspect devGuardRetryAspect() {
-        return new RetryAspect();
-    }
+    /**
+     * One advisor per aspect, the default; with {@code devguard.pipeline.only-used=true}, only for the
+     * annotations the application uses.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "devguard.pipeline", name = "fused", havingValue = "false", matchIfMissing = true)
+    static class SeparateAspectsConfiguration {
 
-    @Bean
-    @ConditionalOnMissingBean
-    RateLimitAspect devGuardRateLimitAspect(RateLimiterRegistry registry, SpelKeyResolver spel) {
-        return new RateLimitAspect(registry, spel);
-    }
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(Retry.class)
+        RetryAspect devGuardRetryAspect() {
+            return new RetryAspect();
+        }
 
-    @Bean
-    @ConditionalOnMissingBean
-    IdempotentAspect devGuardIdempotentAspect(IdempotencyStore store, SpelKeyResolver spel) {
-        return new IdempotentAspect(store, spel);
-    }
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(RateLimit.class)
+        RateLimitAspect devGuardRateLimitAspect(RateLimiterRegistry registry, SpelKeyResolver spel) {
+            return new RateLimitAspect(registry, spel);
+        }
 
-    @Bean
-    @ConditionalOnMissingBean
-    DistributedLockAspect devGuardDistributedLockAspect(LockProvider lockProvider, SpelKeyResolver spel) {
-        return new DistributedLockAspect(lockProvider, spel);
-    }
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(Idempotent.class)
+        IdempotentAspect devGuardIdempotentAspect(IdempotencyStore store, SpelKeyResolver spel,
+                DevGuardProperties properties, ObjectProvider<TtlJitter> jitter) {
+            return idempotentAspect(store, spel, properties, jitter);
+        }
 
-    @Bean
-    @ConditionalOnMissingBean
-    AuditAspect devGuardAuditAspect(AuditSink auditSink, SecurityContextProvider securityContextProvider) {
-        return new AuditAspect(auditSink, securityContextProvider);
-    }
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(DistributedLock.class)
+        DistributedLockAspect devGuardDistributedLockAspect(LockProvider lockProvider, SpelKeyResolver spel) {
+            return new DistributedLockAspect(lockProvider, spel);
+        }
 
-    @Bean
-    @ConditionalOnMissingBean
-    LogExecutionAspect devGuardLogExecutionAspect() {
-        return new LogExecutionAspect();
-    }
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(Audit.class)
+        AuditAspect devGuardAuditAspect(AuditSink auditSink, SecurityContextProvider securityContextProvider) {
+            return new AuditAspect(auditSink, securityContextProvider);
+        }
 
-    @Bean
-    @ConditionalOnMissingBean
-    MeasurePerformanceAspect devGuardMeasurePerformanceAspect() {
-        return new MeasurePerformanceAspect();
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(LogExecution.class)
+        LogExecutionAspect devGuardLogExecutionAspect() {
+            return new LogExecutionAspect();
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(MeasurePerformance.class)
+        MeasurePerformanceAspect devGuardMeasurePerformanceAspect() {
+            return new MeasurePerformanceAspect();
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(CircuitBreaker.class)
+        CircuitBreakerAspect devGuardCircuitBreakerAspect(CircuitBreakerRegistry registry) {
+            return new CircuitBreakerAspect(registry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(FeatureFlag.class)
+        FeatureFlagAspect devGuardFeatureFlagAspect(FeatureFlagProvider provider) {
+            return new FeatureFlagAspect(provider);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(CacheResult.class)
+        CacheResultAspect devGuardCacheResultAspect(ResultCache cache, SpelKeyResolver spel,
+                DevGuardProperties properties, ObjectProvider<CacheNameListener> listeners,
+                ObjectProvider<TtlJitter> jitter) {
+            return cacheResultAspect(cache, spel, properties, listeners, jitter);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(CacheEvict.class)
+        CacheEvictAspect devGuardCacheEvictAspect(ResultCache cache, SpelKeyResolver spel) {
+            return new CacheEvictAspect(cache, spel);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(Secure.class)
+        SecureAspect devGuardSecureAspect(SecurityContextProvider provider) {
+            return new SecureAspect(provider);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnDevGuardAnnotation(Bulkhead.class)
+        BulkheadAspect devGuardBulkheadAspect(BulkheadRegistry registry) {
+            return new BulkheadAspect(registry);
+        }
     }
 
-    @Bean
-    @ConditionalOnMissingBean
-    CircuitBreakerAspect devGuardCircuitBreakerAspect(CircuitBreakerRegistry registry) {
-        return new CircuitBreakerAspect(registry);
+    /**
+     * All aspects behind a single {@link GuardPipeline} advisor ({@code devguard.pipeline.fused=true}).
+     * The aspects are not beans here, as each would otherwise also be applied on its own. With
+     * {@code devguard.pipeline.only-used=true} the pipeline is only matched against classes that use a
+     * DevGuard annotation.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "devguard.pipeline", name = "fused", havingValue = "true")
+    static class FusedPipelineConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        GuardPipeline devGuardGuardPipeline(SpelKeyResolver spel, SecurityContextProvider securityContextProvider,
+                FeatureFlagProvider featureFlagProvider, LockProvider lockProvider,
+                RateLimiterRegistry rateLimiterRegistry, IdempotencyStore idempotencyStore,
+                BulkheadRegistry bulkheadRegistry, ResultCache cache, CircuitBreakerRegistry circuitBreakerRegistry,
+                AuditSink auditSink, DevGuardProperties properties, ObjectProvider<CacheNameListener> listeners,
+                ObjectProvider<TtlJitter> jitter, ConfigurableListableBeanFactory beanFactory,
+                ResourceLoader resourceLoader) {
+            GuardPipeline pipeline = new GuardPipeline(List.of(
+                    new SecureAspect(securityContextProvider),
+                    new FeatureFlagAspect(featureFlagProvider),
+                    new DistributedLockAspect(lockProvider, spel),
+                    new RateLimitAspect(rateLimiterRegistry, spel),
+                    idempotentAspect(idempotencyStore, spel, properties, jitter),
+                    new BulkheadAspect(bulkheadRegistry),
+                    cacheResultAspect(cache, spel, properties, listeners, jitter),
+                    new CacheEvictAspect(cache, spel),
+                    new CircuitBreakerAspect(circuitBreakerRegistry),
+                    new RetryAspect(),
+                    new MeasurePerformanceAspect(),
+                    new LogExecutionAspect(),
+                    new AuditAspect(auditSink, securityContextProvider)));
+            if (properties.getPipeline().isOnlyUsed()) {
+                pipeline.setClassFilter(DevGuardAnnotationIndex.of(beanFactory, resourceLoader)::covers);
+            }
+            return pipeline;
+        }
     }
 
-    @Bean
-    @ConditionalOnMissingBean
-    FeatureFlagAspect devGuardFeatureFlagAspect(FeatureFlagProvider provider) {
-        return new FeatureFlagAspect(provider);
+    /** Micrometer meters for every {@code @CacheResult} cache, when Micrometer is on the classpath. */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ResultCacheMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        ResultCacheMetrics devGuardResultCacheMetrics(ResultCache cache, ObjectProvider<MeterRegistry> registry) {
+            return new ResultCacheMetrics(cache, registry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
     }
 
-    @Bean
-    @ConditionalOnMissingBean
-    CacheResultAspect devGuardCacheResultAspect(ResultCache cache, SpelKeyResolver spel) {
-        return new CacheResultAspect(cache, spel);
+    /** A {@link TtlJitter} bean replaces the uniform jitter of {@code devguard.idempotency.ttl-jitter}. */
+    private static IdempotentAspect idempotentAspect(IdempotencyStore store, SpelKeyResolver spel,
+            DevGuardProperties properties, ObjectProvider<TtlJitter> jitter) {
+        return new IdempotentAspect(store, spel,
+                jitter.getIfAvailable(() -> TtlJitter.uniform(properties.getIdempotency().getTtlJitter())));
     }
 
-    @Bean
-    @ConditionalOnMissingBean
-    SecureAspect devGuardSecureAspect(SecurityContextProvider provider) {
-        return new SecureAspect(provider);
+    /** A {@link TtlJitter} bean replaces the uniform jitter of {@code devguard.cache.ttl-jitter}. */
+    private static CacheResultAspect cacheResultAspect(ResultCache cache, SpelKeyResolver spel,
+            DevGuardProperties properties, ObjectProvider<CacheNameListener> listeners,
+            ObjectProvider<TtlJitter> jitter) {
+        DevGuardProperties.Cache cfg = properties.getCache();
+        List<CacheNameListener> cacheNameListeners = listeners.orderedStream().toList();
+        return new CacheResultAspect(cache, spel,
+                CacheResultAspect.newRefreshExecutor(cfg.getRefreshThreads(), cfg.getRefreshQueueCapacity()),
+                cacheName -> cacheNameListeners.forEach(listener -> listener.cacheNameUsed(cacheName)),
+                jitter.getIfAvailable(() -> TtlJitter.uniform(cfg.getTtlJitter())));
     }
 
-    @Bean
-    @ConditionalOnMissingBean
-    BulkheadAspect devGuardBulkheadAspect(BulkheadRegistry registry) {
-        return new BulkheadAspect(registry);
+    private static ValueCodec valueCodec(DevGuardProperties.Codec cfg) {
+        ValueCodec codec = cfg.getFormat() == DevGuardProperties.Format.JAVA
+                ? new JavaSerializationCodec()
+                : new BinaryCodec();
+        return cfg.isCompression()
+                ? new CompressingCodec(codec, Math.toIntExact(cfg.getCompressionThreshold().toBytes()))
+                : codec;
     }
 }
@@ -1,8 +1,15 @@
 package io.github.upendramanike.devguard.autoconfigure;
 
+import io.github.upendramanike.codec.BinaryCodec;
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import io.github.upendramanike.devguard.core.CacheLimits;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /** Configuration for DevGuard, bound from the {@code devguard.*} namespace. */
 @ConfigurationProperties(prefix = "devguard")
@@ -13,6 +20,14 @@ public class DevGuardProperties {
 
     private final FeatureFlags featureFlags = new FeatureFlags();
 
+    private final Cache cache = new Cache();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Pipeline pipeline = new Pipeline();
+
+    private final Keys keys = new Keys();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -25,6 +40,22 @@ public class DevGuardProperties {
         return featureFlags;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    public Keys getKeys() {
+        return keys;
+    }
+
     /** Backing store for the default {@code @FeatureFlag} provider. */
     public static class FeatureFlags {
 
@@ -46,4 +77,385 @@ public class DevGuardProperties {
             return flags;
         }
     }
+
+    /** Settings for {@code @CacheResult} and its default in-memory store. */
+    public static class Cache {
+
+        /** Maximum entries per cache name; 0 disables the entry bound. */
+        private long maxEntries = 10_000;
+
+        /** Maximum total weight per cache name, as computed by the {@code CacheWeigher}; 0 disables it. */
+        private long maxWeight = 0;
+
+        /** Per-cache-name overrides, e.g. {@code devguard.cache.caches.products.max-entries=500}. */
+        private final Map<String, Limits> caches = new LinkedHashMap<>();
+
+        /** Threads reloading entries for {@code @CacheResult(refreshAheadSeconds = ...)}. */
+        private int refreshThreads = 2;
+
+        /** Pending refresh-ahead reloads; further refreshes are skipped while the queue is full. */
+        private int refreshQueueCapacity = 256;
+
+        /**
+         * Fraction of each TTL over which expiry is randomly spread, from 0 to 1; 0.1 stores a 300 second
+         * entry for 270 to 300 seconds, so entries cached together do not all expire together.
+         */
+        private double ttlJitter = 0;
+
+        private final OffHeap offHeap = new OffHeap();
+
+        private final Persistent persistent = new Persistent();
+
+        private final Codec codec = new Codec();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxWeight() {
+            return maxWeight;
+        }
+
+        public void setMaxWeight(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        public Map<String, Limits> getCaches() {
+            return caches;
+        }
+
+        public int getRefreshThreads() {
+            return refreshThreads;
+        }
+
+        public void setRefreshThreads(int refreshThreads) {
+            this.refreshThreads = refreshThreads;
+        }
+
+        public int getRefreshQueueCapacity() {
+            return refreshQueueCapacity;
+        }
+
+        public void setRefreshQueueCapacity(int refreshQueueCapacity) {
+            this.refreshQueueCapacity = refreshQueueCapacity;
+        }
+
+        public double getTtlJitter() {
+            return ttlJitter;
+        }
+
+        public void setTtlJitter(double ttlJitter) {
+            this.ttlJitter = ttlJitter;
+        }
+
+        public OffHeap getOffHeap() {
+            return offHeap;
+        }
+
+        public Persistent getPersistent() {
+            return persistent;
+        }
+
+        public Codec getCodec() {
+            return codec;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        /** Resolves the effective bounds for {@code cacheName}, applying any per-name override. */
+        public CacheLimits limitsFor(String cacheName) {
+            Limits override = caches.get(cacheName);
+            long entries = override != null && override.getMaxEntries() != null ? override.getMaxEntries() : maxEntries;
+            long weight = override != null && override.getMaxWeight() != null ? override.getMaxWeight() : maxWeight;
+            return new CacheLimits(entries, weight);
+        }
+    }
+
+    /** Settings for {@code @Idempotent}. */
+    public static class Idempotency {
+
+        /** Fraction of each {@code ttlSeconds} over which expiry of stored results is randomly spread. */
+        private double ttlJitter = 0;
+
+        public double getTtlJitter() {
+            return ttlJitter;
+        }
+
+        public void setTtlJitter(double ttlJitter) {
+            this.ttlJitter = ttlJitter;
+        }
+    }
+
+    /** Keys derived from method arguments when an annotation has no key expression. */
+    public static class Keys {
+
+        /**
+         * Secret for HMAC-SHA256 argument digests, making default keys unpredictable and collision
+         * resistant; the same on every instance sharing a lock or idempotency store. Without it keys use
+         * a fast non-cryptographic hash.
+         */
+        private String secret;
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
+    /** How the aspects are applied to annotated methods. */
+    public static class Pipeline {
+
+        /**
+         * Whether all aspects run as one interceptor that resolves the guards of each method once,
+         * instead of as separate advice; cheaper for methods carrying several annotations.
+         */
+        private boolean fused = false;
+
+        /**
+         * Whether to index the DevGuard annotations of the application's classes once at startup and
+         * apply only the aspects whose annotations are used, to those classes only. Classes outside the
+         * auto-configuration packages are seen only through the declared types of their beans.
+         */
+        private boolean onlyUsed = false;
+
+        public boolean isFused() {
+            return fused;
+        }
+
+        public void setFused(boolean fused) {
+            this.fused = fused;
+        }
+
+        public boolean isOnlyUsed() {
+            return onlyUsed;
+        }
+
+        public void setOnlyUsed(boolean onlyUsed) {
+            this.onlyUsed = onlyUsed;
+        }
+    }
+
+    /** Second-level cache tier in direct memory, behind the on-heap {@code @CacheResult} store. */
+    public static class OffHeap {
+
+        /** Whether cached values are also kept off-heap and promoted back on an on-heap miss. */
+        private boolean enabled = false;
+
+        /** Direct memory reserved for serialized values across all cache names. */
+        private DataSize capacity = DataSize.ofMegabytes(64);
+
+        /** Allocation unit for direct memory; values larger than a slab are not stored off-heap. */
+        private DataSize slabSize = DataSize.ofMegabytes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(DataSize capacity) {
+            this.capacity = capacity;
+        }
+
+        public DataSize getSlabSize() {
+            return slabSize;
+        }
+
+        public void setSlabSize(DataSize slabSize) {
+            this.slabSize = slabSize;
+        }
+    }
+
+    /** Disk-backed cache tier that keeps {@code @CacheResult} entries across restarts. */
+    public static class Persistent {
+
+        /** Whether cached values are also written to a memory-mapped log and reloaded at startup. */
+        private boolean enabled = false;
+
+        /** Directory holding the log; must not be shared by concurrently running instances. */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "devguard-cache");
+
+        /** Maximum size of the log file, at most 2GB. */
+        private DataSize capacity = DataSize.ofMegabytes(256);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(DataSize capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    /** Snapshots of the hottest cache entries, restored at startup. */
+    public static class WarmUp {
+
+        /** Whether hot entries are snapshotted to {@link #file} and restored before the application is ready. */
+        private boolean enabled = false;
+
+        /** Snapshot file; must not be shared by concurrently running instances. */
+        private Path file = Path.of(System.getProperty("java.io.tmpdir"), "devguard-cache", "warm-up.snapshot");
+
+        /** Most read entries snapshotted per cache name. */
+        private int hottestPerCache = 1000;
+
+        /** Time between snapshots; a last snapshot is always taken at shutdown. */
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        /** Threads decoding and reloading entries at startup. */
+        private int parallelism = 4;
+
+        /** Longest time startup waits for the restore; remaining entries are skipped. */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public void setFile(Path file) {
+            this.file = file;
+        }
+
+        public int getHottestPerCache() {
+            return hottestPerCache;
+        }
+
+        public void setHottestPerCache(int hottestPerCache) {
+            this.hottestPerCache = hottestPerCache;
+        }
+
+        public Duration getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /** Serialization of values stored by the off-heap and persistent tiers. */
+    public static class Codec {
+
+        /** Encoding of cached values; ignored when a {@code ValueCodec} bean is declared. */
+        private Format format = Format.BINARY;
+
+        /** Whether large encoded values are LZ4-compressed. */
+        private boolean compression = true;
+
+        /** Encoded size from which values are compressed. */
+        private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+
+        public Format getFormat() {
+            return format;
+        }
+
+        public void setFormat(Format format) {
+            this.format = format;
+        }
+
+        public boolean isCompression() {
+            return compression;
+        }
+
+        public void setCompression(boolean compression) {
+            this.compression = compression;
+        }
+
+        public DataSize getCompressionThreshold() {
+            return compressionThreshold;
+        }
+
+        public void setCompressionThreshold(DataSize compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+        }
+    }
+
+    /** Encodings available for {@code devguard.cache.codec.format}. */
+    public enum Format {
+        /** Compact binary encoding of records and serializable classes ({@code BinaryCodec}). */
+        BINARY,
+        /** Standard Java serialization ({@code JavaSerializationCodec}). */
+        JAVA
+    }
+
+    /** Bounds for a single cache name; unset values fall back to the {@code devguard.cache.*} defaults. */
+    public static class Limits {
+
+        private Long maxEntries;
+
+        private Long maxWeight;
+
+        public Long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(Long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Long getMaxWeight() {
+            return maxWeight;
+        }
+
+        public void setMaxWeight(Long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package io.github.upendramanike.devguard.autoconfigure;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/** Evaluates {@link ConditionalOnDevGuardAnnotation} against the {@link DevGuardAnnotationIndex}. */
+class OnDevGuardAnnotationCondition extends SpringBootCondition {
+
+    static final String ONLY_USED = "devguard.pipeline.only-used";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        String annotation = (String) metadata
+                .getAnnotationAttributes(ConditionalOnDevGuardAnnotation.class.getName(), true).get("value");
+        if (!context.getEnvironment().getProperty(ONLY_USED, Boolean.class, false)) {
+            return ConditionOutcome.match(ONLY_USED + " is not set");
+        }
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        if (beanFactory == null) {
+            return ConditionOutcome.match("no bean factory to index");
+        }
+        return DevGuardAnnotationIndex.of(beanFactory, context.getResourceLoader()).uses(annotation)
+                ? ConditionOutcome.match("@" + annotation + " is used")
+                : ConditionOutcome.noMatch("@" + annotation + " is not used");
+    }
+}
@@ -0,0 +1,498 @@
+package io.github.upendramanike.devguard.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.security.GeneralSecurityException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Derives compact keys from method arguments with a streaming 128-bit hash (MurmurHash3 x64 mixing).
+ *
+ * <p>Primitives, strings, enums, arrays, records, collections, maps and {@link Optional}s are hashed
+ * structurally; sets and maps are hashed independently of iteration order. Other types are hashed
+ * through a {@link TypeHasher} registered for them (or a supertype), falling back to their
+ * {@code toString()}. Keys are always 32 hex characters, however large the arguments are.
+ *
+ * <p>The default hash is fast but neither keyed nor collision-resistant: anyone who can choose argument
+ * values can craft two calls with the same key. Where keys guard shared state, such as the default
+ * {@code @Idempotent} and {@code @DistributedLock} keys, and callers control the arguments, use a
+ * {@link #keyed(byte[]) keyed} hasher, which feeds the same structural encoding to HMAC-SHA256.
+ */
+public class ArgumentHasher {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final ArgumentHasher DEFAULTS = new ArgumentHasher(null, true);
+
+    private static final int MAX_DEPTH = 32;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Hash of each class name, so type identity costs one word instead of the whole name. */
+    private static final ClassValue<Long> CLASS_IDS = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            Hash128 hash = new Hash128(DEFAULTS);
+            hash.putString(type.getName());
+            hash.finish();
+            return hash.h1;
+        }
+    };
+
+    /** Record component accessors typed {@code (Object)Object}, or {@code null} if inaccessible. */
+    private static final ClassValue<MethodHandle[]> RECORD_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            MethodHandle[] accessors = new MethodHandle[components.length];
+            MethodType erased = MethodType.methodType(Object.class, Object.class);
+            for (int i = 0; i < components.length; i++) {
+                Method accessor = components[i].getAccessor();
+                if (!accessor.trySetAccessible()) {
+                    return null;
+                }
+                try {
+                    accessors[i] = MethodHandles.lookup().unreflect(accessor).asType(erased);
+                } catch (IllegalAccessException e) {
+                    return null;
+                }
+            }
+            return accessors;
+        }
+    };
+
+    private final List<Registration<?>> registrations = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<Class<?>, TypeHasher<Object>> resolved = new ConcurrentHashMap<>();
+    private final Mac mac;
+    private final boolean frozen;
+
+    public ArgumentHasher() {
+        this(null, false);
+    }
+
+    private ArgumentHasher(Mac mac, boolean frozen) {
+        this.mac = mac;
+        registrations.add(new Registration<>(UUID.class, (uuid, sink) -> sink
+                .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits())));
+        this.frozen = frozen;
+    }
+
+    /** Shared instance with only the built-in type support; {@link #register} is not supported on it. */
+    public static ArgumentHasher defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Creates a hasher whose digests are HMAC-SHA256 (truncated to 128 bits) of the structural encoding
+     * under {@code secret}, so keys can be neither predicted nor made to collide without it. Instances
+     * sharing keys, for example through a lock or idempotency store, must use the same secret.
+     */
+    public static ArgumentHasher keyed(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+            return new ArgumentHasher(mac, false);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Cannot create " + MAC_ALGORITHM + " with the given secret", e);
+        }
+    }
+
+    /**
+     * Registers how to hash values of {@code type} and its subtypes. Earlier registrations win when a
+     * value matches several; built-in structural handling of JDK types cannot be overridden.
+     *
+     * @throws UnsupportedOperationException on the shared {@link #defaults()} instance
+     */
+    public <T> ArgumentHasher register(Class<T> type, TypeHasher<? super T> hasher) {
+        if (frozen) {
+            throw new UnsupportedOperationException("The shared default ArgumentHasher cannot be changed; "
+                    + "create an ArgumentHasher to register type hashers");
+        }
+        registrations.add(new Registration<>(type, hasher));
+        resolved.clear();
+        return this;
+    }
+
+    /** Hashes {@code arguments} into a 32-character hex key. */
+    public String digest(Object[] arguments) {
+        Hash128 hash = new Hash128(this);
+        hash.putObject(arguments);
+        return hash.hex();
+    }
+
+    /** Strategy for hashing one type; write its identifying state to the sink. */
+    @FunctionalInterface
+    public interface TypeHasher<T> {
+        void hash(T value, Sink sink);
+    }
+
+    /** Receives the state of a value being hashed. */
+    public interface Sink {
+
+        Sink putLong(long value);
+
+        Sink putInt(int value);
+
+        Sink putDouble(double value);
+
+        Sink putBoolean(boolean value);
+
+        Sink putString(CharSequence value);
+
+        Sink putBytes(byte[] value);
+
+        /** Hashes a nested value with the same rules as a top-level argument. */
+        Sink putObject(Object value);
+    }
+
+    private record Registration<T>(Class<T> type, TypeHasher<? super T> hasher) {}
+
+    /** A fresh MAC of a keyed hasher, or {@code null} for the plain hash. */
+    private Mac newMac() {
+        if (mac == null) {
+            return null;
+        }
+        try {
+            return (Mac) mac.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " does not support cloning", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypeHasher<Object> hasherFor(Class<?> type) {
+        TypeHasher<Object> hasher = resolved.get(type);
+        if (hasher != null) {
+            return hasher;
+        }
+        hasher = (value, sink) -> sink.putLong(CLASS_IDS.get(value.getClass())).putString(value.toString());
+        for (Registration<?> registration : registrations) {
+            if (registration.type().isAssignableFrom(type)) {
+                hasher = (TypeHasher<Object>) registration.hasher();
+                break;
+            }
+        }
+        resolved.put(type, hasher);
+        return hasher;
+    }
+
+    /**
+     * Murmur3-style 128-bit state consuming 64-bit words, mixed in 128-bit blocks; for a keyed hasher
+     * the words go to its MAC instead.
+     */
+    private static final class Hash128 implements Sink {
+
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private static final int NULL = 1;
+        private static final int BOOLEAN = 2;
+        private static final int CHAR = 3;
+        private static final int INTEGRAL = 4;
+        private static final int FLOATING = 5;
+        private static final int STRING = 6;
+        private static final int ENUM = 7;
+        private static final int ARRAY = 8;
+        private static final int LIST = 9;
+        private static final int SET = 10;
+        private static final int MAP = 11;
+        private static final int OPTIONAL = 12;
+        private static final int RECORD = 13;
+        private static final int OTHER = 14;
+        private static final int TOO_DEEP = 15;
+
+        private final ArgumentHasher owner;
+        private final Mac mac;
+        private long h1;
+        private long h2;
+        private long pending;
+        private boolean hasPending;
+        private long words;
+        private int depth;
+
+        Hash128(ArgumentHasher owner) {
+            this.owner = owner;
+            this.mac = owner.newMac();
+        }
+
+        @Override
+        public Sink putLong(long value) {
+            words++;
+            if (mac != null) {
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    mac.update((byte) (value >>> shift));
+                }
+                return this;
+            }
+            if (!hasPending) {
+                pending = value;
+                hasPending = true;
+                return this;
+            }
+            hasPending = false;
+            long k1 = pending;
+            long k2 = value;
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+            return this;
+        }
+
+        @Override
+        public Sink putInt(int value) {
+            return putLong(value);
+        }
+
+        @Override
+        public Sink putDouble(double value) {
+            return putLong(Double.doubleToLongBits(value));
+        }
+
+        @Override
+        public Sink putBoolean(boolean value) {
+            return putLong(value ? 1 : 0);
+        }
+
+        @Override
+        public Sink putString(CharSequence value) {
+            int length = value.length();
+            putLong(length);
+            long word = 0;
+            for (int i = 0; i < length; i++) {
+                word = (word << 16) | value.charAt(i);
+                if ((i & 3) == 3) {
+                    putLong(word);
+                    word = 0;
+                }
+            }
+            if ((length & 3) != 0) {
+                putLong(word);
+            }
+            return this;
+        }
+
+        @Override
+        public Sink putBytes(byte[] value) {
+            putLong(value.length);
+            long word = 0;
+            for (int i = 0; i < value.length; i++) {
+                word = (word << 8) | (value[i] & 0xFF);
+                if ((i & 7) == 7) {
+                    putLong(word);
+                    word = 0;
+                }
+            }
+            if ((value.length & 7) != 0) {
+                putLong(word);
+            }
+            return this;
+        }
+
+        @Override
+        public Sink putObject(Object value) {
+            if (value == null) {
+                return putLong(NULL);
+            }
+            if (depth >= MAX_DEPTH) {
+                return putLong(TOO_DEEP);
+            }
+            depth++;
+            try {
+                hashValue(value);
+            } finally {
+                depth--;
+            }
+            return this;
+        }
+
+        private void hashValue(Object value) {
+            if (value instanceof CharSequence chars) {
+                putLong(STRING).putString(chars);
+            } else if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte) {
+                putLong(INTEGRAL).putLong(((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                putLong(FLOATING).putDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean bool) {
+                putLong(BOOLEAN).putBoolean(bool);
+            } else if (value instanceof Character c) {
+                putLong(CHAR).putLong(c);
+            } else if (value instanceof Enum<?> e) {
+                putLong(ENUM).putLong(CLASS_IDS.get(e.getDeclaringClass())).putLong(e.ordinal());
+            } else if (value.getClass().isArray()) {
+                hashArray(value);
+            } else if (value instanceof Set<?> set) {
+                putLong(SET).putLong(set.size());
+                hashUnordered(set);
+            } else if (value instanceof Collection<?> collection) {
+                putLong(LIST).putLong(collection.size());
+                for (Object element : collection) {
+                    putObject(element);
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                putLong(MAP).putLong(map.size());
+                hashUnordered(map.entrySet());
+            } else if (value instanceof Optional<?> optional) {
+                putLong(OPTIONAL).putObject(optional.orElse(null));
+            } else if (value instanceof Record record && hashRecord(record)) {
+                return;
+            } else {
+                putLong(OTHER);
+                owner.hasherFor(value.getClass()).hash(value, this);
+            }
+        }
+
+        private void hashArray(Object array) {
+            putLong(ARRAY);
+            if (array instanceof Object[] objects) {
+                putLong(objects.length);
+                for (Object element : objects) {
+                    putObject(element);
+                }
+            } else if (array instanceof byte[] bytes) {
+                putBytes(bytes);
+            } else if (array instanceof int[] ints) {
+                putLong(ints.length);
+                for (int v : ints) {
+                    putLong(v);
+                }
+            } else if (array instanceof long[] longs) {
+                putLong(longs.length);
+                for (long v : longs) {
+                    putLong(v);
+                }
+            } else if (array instanceof char[] chars) {
+                putString(new String(chars));
+            } else if (array instanceof double[] doubles) {
+                putLong(doubles.length);
+                for (double v : doubles) {
+                    putDouble(v);
+                }
+            } else if (array instanceof float[] floats) {
+                putLong(floats.length);
+                for (float v : floats) {
+                    putDouble(v);
+                }
+            } else if (array instanceof short[] shorts) {
+                putLong(shorts.length);
+                for (short v : shorts) {
+                    putLong(v);
+                }
+            } else if (array instanceof boolean[] booleans) {
+                putLong(booleans.length);
+                for (boolean v : booleans) {
+                    putBoolean(v);
+                }
+            }
+        }
+
+        /** Combines per-element hashes with addition so iteration order does not matter. */
+        private void hashUnordered(Collection<?> elements) {
+            long sum1 = 0;
+            long sum2 = 0;
+            for (Object element : elements) {
+                Hash128 child = new Hash128(owner);
+                child.depth = depth;
+                if (element instanceof Map.Entry<?, ?> entry) {
+                    child.putObject(entry.getKey()).putObject(entry.getValue());
+                } else {
+                    child.putObject(element);
+                }
+                child.finish();
+                sum1 += child.h1;
+                sum2 += child.h2;
+            }
+            putLong(sum1).putLong(sum2);
+        }
+
+        private boolean hashRecord(Record record) {
+            MethodHandle[] accessors = RECORD_ACCESSORS.get(record.getClass());
+            if (accessors == null) {
+                return false;
+            }
+            putLong(RECORD).putLong(CLASS_IDS.get(record.getClass())).putLong(accessors.length);
+            for (MethodHandle accessor : accessors) {
+                try {
+                    putObject((Object) accessor.invokeExact((Object) record));
+                } catch (Throwable e) {
+                    putLong(OTHER).putString(e.getClass().getName());
+                }
+            }
+            return true;
+        }
+
+        private void finish() {
+            if (mac != null) {
+                byte[] tag = mac.doFinal();
+                h1 = 0;
+                h2 = 0;
+                for (int i = 0; i < 8; i++) {
+                    h1 = (h1 << 8) | (tag[i] & 0xFF);
+                    h2 = (h2 << 8) | (tag[i + 8] & 0xFF);
+                }
+                return;
+            }
+            if (hasPending) {
+                long k1 = pending * C1;
+                k1 = Long.rotateLeft(k1, 31);
+                k1 *= C2;
+                h1 ^= k1;
+                hasPending = false;
+            }
+            h1 ^= words;
+            h2 ^= words;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+        }
+
+        String hex() {
+            finish();
+            char[] out = new char[32];
+            writeHex(h1, out, 0);
+            writeHex(h2, out, 16);
+            return new String(out);
+        }
+
+        private static void writeHex(long value, char[] out, int offset) {
+            for (int i = 15; i >= 0; i--) {
+                out[offset + i] = HEX[(int) (value & 0xF)];
+                value >>>= 4;
+            }
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb93e53fe1a85L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
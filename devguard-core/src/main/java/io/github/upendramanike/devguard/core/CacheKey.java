@@ -0,0 +1,141 @@
+package io.github.upendramanike.devguard.core;
+
+import java.io.Serializable;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Structured {@code @CacheResult} key made of a method signature and its argument values, used when
+ * no key expression is given. The hash is computed once, so looking the key up in a hash-based
+ * cache neither renders the arguments to a string nor allocates.
+ *
+ * <p>A key outlives the call that created it, so it only holds arguments that cannot change:
+ * primitives and their wrappers, strings, enums, {@link UUID}s, {@code java.time} values and records
+ * made of such values. Any other argument (arrays, collections, mutable beans) is replaced by an
+ * {@link ArgumentHasher} digest of its state at the time of the call (types it cannot hash
+ * structurally are hashed by {@code toString()}); mutating it afterwards then neither corrupts the key
+ * nor makes the entry unreachable. Digests are held in their own type, so they never equal a string
+ * argument that happens to have the same characters.
+ */
+public final class CacheKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_DEPTH = 8;
+    private static final Set<Class<?>> VALUE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+            BigDecimal.class, UUID.class, Class.class);
+    private static final ClassValue<Boolean> IMMUTABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return immutable(type, 0);
+        }
+    };
+
+    private final String method;
+    private final Object[] arguments;
+    private final transient int hash;
+
+    /** Creates a key whose mutable arguments are digested by {@link ArgumentHasher#defaults()}. */
+    public CacheKey(String method, Object[] arguments) {
+        this(method, arguments, ArgumentHasher.defaults());
+    }
+
+    /** @param hasher digests the arguments that are not immutable values */
+    public CacheKey(String method, Object[] arguments, ArgumentHasher hasher) {
+        Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = stable(arguments[i], hasher);
+        }
+        this.method = method;
+        this.arguments = values;
+        this.hash = 31 * method.hashCode() + Arrays.hashCode(values);
+    }
+
+    /**
+     * Returns {@code value} if it is an immutable value (see above), or else a digest of its current
+     * state, so that it can be held as (part of) a cache key.
+     */
+    static Object stable(Object value, ArgumentHasher hasher) {
+        return value == null || IMMUTABLE.get(value.getClass())
+                ? value : new Digest(hasher.digest(new Object[] {value}));
+    }
+
+    /**
+     * Whether {@code key} still holds what the call was made with, rather than a digest standing in for
+     * a mutable argument, so that the call can be repeated.
+     */
+    static boolean replayable(Object key) {
+        if (key instanceof CacheKey cacheKey) {
+            return Arrays.stream(cacheKey.arguments).noneMatch(Digest.class::isInstance);
+        }
+        return !(key instanceof Digest);
+    }
+
+    private static boolean immutable(Class<?> type, int depth) {
+        if (type.isPrimitive() || VALUE_TYPES.contains(type) || Enum.class.isAssignableFrom(type)) {
+            return true;
+        }
+        if (type.getPackageName().equals("java.time")) {
+            return true;
+        }
+        if (!type.isRecord() || depth == MAX_DEPTH) {
+            return false;
+        }
+        for (RecordComponent component : type.getRecordComponents()) {
+            Class<?> declared = component.getType();
+            if (!declared.isPrimitive() && !Enum.class.isAssignableFrom(declared)
+                    && !Modifier.isFinal(declared.getModifiers())) {
+                return false;
+            }
+            if (!immutable(declared, depth + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    /** Copy of the argument values, with digests in place of the arguments that were not immutable. */
+    public Object[] arguments() {
+        return arguments.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof CacheKey that
+                && hash == that.hash
+                && method.equals(that.method)
+                && Arrays.equals(arguments, that.arguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /** Recomputes the hash, which may differ between JVMs for arguments with identity hash codes. */
+    private Object readResolve() {
+        return new CacheKey(method, arguments);
+    }
+
+    /** Digest of an argument that is not an immutable value. */
+    private record Digest(String hex) implements Serializable {}
+
+    /** Readable form, also used by {@link ResultCache} implementations that only support string keys. */
+    @Override
+    public String toString() {
+        return method + Arrays.toString(arguments);
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.upendramanike.devguard.core;
+
+/**
+ * Capacity bounds for a single cache name of an {@link InMemoryResultCache}. A non-positive value
+ * leaves that dimension unbounded.
+ *
+ * @param maxEntries maximum number of entries kept for the cache name
+ * @param maxWeight maximum total {@link CacheWeigher weight} kept for the cache name
+ */
+public record CacheLimits(long maxEntries, long maxWeight) {
+
+    /** No bound on either entries or weight. */
+    public static final CacheLimits UNBOUNDED = new CacheLimits(0, 0);
+
+    public boolean bounded() {
+        return maxEntries > 0 || maxWeight > 0;
+    }
+}
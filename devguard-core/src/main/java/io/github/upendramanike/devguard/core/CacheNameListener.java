@@ -0,0 +1,12 @@
+package io.github.upendramanike.devguard.core;
+
+/**
+ * Told about the cache names used by {@code @CacheResult} methods, e.g. to register metrics for them.
+ * Called when each annotated method is first invoked, so a name shared by several methods may be
+ * reported more than once.
+ */
+@FunctionalInterface
+public interface CacheNameListener {
+
+    void cacheNameUsed(String cacheName);
+}
@@ -0,0 +1,55 @@
+package io.github.upendramanike.devguard.core;
+
+/**
+ * Point-in-time statistics of one cache name of a {@link ResultCache}. Counters are cumulative since
+ * the cache was created; {@code size} and {@code weight} describe the entries held right now.
+ *
+ * @param hitCount lookups that returned a value
+ * @param missCount lookups that returned nothing
+ * @param putCount values stored
+ * @param loadSuccessCount {@code @CacheResult} invocations that completed on a miss
+ * @param loadFailureCount {@code @CacheResult} invocations that threw on a miss
+ * @param totalLoadTimeNanos time spent in all those invocations
+ * @param evictionCount entries removed to respect capacity bounds (expiry is not counted)
+ * @param size entries currently held
+ * @param weight total weight of the entries currently held, as measured by the cache
+ */
+public record CacheStats(long hitCount, long missCount, long putCount, long loadSuccessCount,
+        long loadFailureCount, long totalLoadTimeNanos, long evictionCount, long size, long weight) {
+
+    public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    /** Fraction of lookups that hit, or {@code 1.0} before the first lookup. */
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long loadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    /** Mean time of an invocation on a miss, or {@code 0} before the first one. */
+    public double averageLoadPenaltyNanos() {
+        long loads = loadCount();
+        return loads == 0 ? 0 : (double) totalLoadTimeNanos / loads;
+    }
+
+    /** Sums the counters, size and weight of two statistics, e.g. of the levels of a tiered cache. */
+    public CacheStats plus(CacheStats other) {
+        return new CacheStats(
+                hitCount + other.hitCount,
+                missCount + other.missCount,
+                putCount + other.putCount,
+                loadSuccessCount + other.loadSuccessCount,
+                loadFailureCount + other.loadFailureCount,
+                totalLoadTimeNanos + other.totalLoadTimeNanos,
+                evictionCount + other.evictionCount,
+                size + other.size,
+                weight + other.weight);
+    }
+}
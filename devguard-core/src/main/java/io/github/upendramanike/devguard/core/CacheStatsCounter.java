@@ -0,0 +1,50 @@
+package io.github.upendramanike.devguard.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative counters behind {@link CacheStats}, kept per cache name by {@link ResultCache}
+ * implementations. Every counter is a {@link LongAdder}, so concurrent lookups record hits and misses
+ * without contending on a shared field.
+ */
+public final class CacheStatsCounter {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordPut() {
+        puts.increment();
+    }
+
+    public void recordLoad(long loadNanos, boolean success) {
+        (success ? loadSuccesses : loadFailures).increment();
+        totalLoadTime.add(loadNanos);
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /** Returns the current counters together with the given {@code size} and {@code weight}. */
+    public CacheStats snapshot(long size, long weight) {
+        return new CacheStats(hits.sum(), misses.sum(), puts.sum(), loadSuccesses.sum(), loadFailures.sum(),
+                totalLoadTime.sum(), evictions.sum(), size, weight);
+    }
+}
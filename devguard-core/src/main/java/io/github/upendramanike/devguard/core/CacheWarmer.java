@@ -0,0 +1,294 @@
+package io.github.upendramanike.devguard.core;
+
+import io.github.upendramanike.codec.ValueCodec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the working set of a {@link ResultCache} across restarts. While the application runs, the
+ * {@linkplain ResultCache#hottest(String, int) most read} entries of every cache name are periodically
+ * written to a snapshot file, and once more on {@link #close()}. {@link #start()} loads the snapshot
+ * back before scheduling the next one; called while the application context starts, it runs before
+ * the application reports itself ready, so a new instance takes traffic with a warm cache.
+ *
+ * <p>Entries still within their TTL are restored with their remaining TTL and their tags. Entries that
+ * expired while the application was down are reloaded through the {@link Loader}, or dropped without
+ * one. Restoring runs on a bounded pool and gives up after a timeout, so a slow backend cannot hold
+ * startup back indefinitely. Keys and values the {@link ValueCodec} cannot encode are left out of the
+ * snapshot.
+ */
+public class CacheWarmer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+    private static final int MAGIC = 0x44475753;
+
+    private final ResultCache cache;
+    private final ValueCodec codec;
+    private final Settings settings;
+    private final Loader loader;
+    private ScheduledExecutorService scheduler;
+
+    public CacheWarmer(ResultCache cache, ValueCodec codec, Settings settings) {
+        this(cache, codec, settings, Loader.NONE);
+    }
+
+    /**
+     * @param cache cache to snapshot and restore
+     * @param codec encodes keys and values in the snapshot file
+     * @param settings snapshot file, size and schedule
+     * @param loader reloads snapshot entries that have expired
+     */
+    public CacheWarmer(ResultCache cache, ValueCodec codec, Settings settings, Loader loader) {
+        this.cache = cache;
+        this.codec = codec;
+        this.settings = settings;
+        this.loader = loader;
+    }
+
+    /** Restores the last snapshot, then snapshots the cache every {@link Settings#snapshotInterval()}. */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        int restored = restore();
+        if (restored > 0) {
+            log.info("Warmed caches with {} entries from {}", restored, settings.file());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "devguard-cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.snapshotInterval().toMillis();
+        if (interval > 0) {
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the hottest entries of every cache name to the snapshot file, replacing the previous
+     * snapshot atomically, and returns the number of entries written.
+     */
+    public synchronized int snapshot() throws IOException {
+        Path file = settings.file();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            for (String cacheName : cache.cacheNames()) {
+                for (ResultCache.HotEntry hot : cache.hottest(cacheName, settings.hottestPerCache())) {
+                    if (write(out, cacheName, hot)) {
+                        written++;
+                    }
+                }
+            }
+            out.writeBoolean(false);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return written;
+    }
+
+    /**
+     * Puts the entries of the snapshot file back into the cache, using up to
+     * {@link Settings#parallelism()} threads for at most {@link Settings#restoreTimeout()}, and returns
+     * the number of entries restored or reloaded. A missing or unreadable file restores nothing.
+     */
+    public int restore() {
+        List<Record> records = read();
+        if (records.isEmpty()) {
+            return 0;
+        }
+        AtomicInteger restored = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, settings.parallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "devguard-cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long now = System.currentTimeMillis();
+        for (Record record : records) {
+            pool.execute(() -> {
+                if (restore(record, now)) {
+                    restored.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(settings.restoreTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Cache warm-up did not finish within {}; continuing with {} of {} entries",
+                        settings.restoreTimeout(), restored.get(), records.size());
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        return restored.get();
+    }
+
+    /** Stops the snapshot schedule and takes a last snapshot, so the next start sees the current working set. */
+    @Override
+    public synchronized void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        snapshotQuietly();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write cache snapshot {}: {}", settings.file(), e.toString());
+        }
+    }
+
+    private boolean write(DataOutputStream out, String cacheName, ResultCache.HotEntry hot) throws IOException {
+        byte[] key;
+        byte[] value;
+        try {
+            key = codec.encode(hot.key());
+            value = codec.encode(hot.entry().value());
+        } catch (RuntimeException e) {
+            log.debug("Not snapshotting an entry of {}: {}", cacheName, e.toString());
+            return false;
+        }
+        List<String> tags = hot.entry().tags();
+        out.writeBoolean(true);
+        out.writeUTF(cacheName);
+        out.writeLong(hot.entry().expiresAtMillis());
+        out.writeShort(tags.size());
+        for (String tag : tags) {
+            out.writeUTF(tag);
+        }
+        out.writeInt(key.length);
+        out.write(key);
+        out.writeInt(value.length);
+        out.write(value);
+        return true;
+    }
+
+    private List<Record> read() {
+        List<Record> records = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(settings.file())))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Ignoring cache snapshot {}: unknown format", settings.file());
+                return List.of();
+            }
+            while (in.readBoolean()) {
+                String cacheName = in.readUTF();
+                long expiresAtMillis = in.readLong();
+                String[] tags = new String[in.readUnsignedShort()];
+                for (int i = 0; i < tags.length; i++) {
+                    tags[i] = in.readUTF();
+                }
+                byte[] key = readBytes(in);
+                byte[] value = readBytes(in);
+                records.add(new Record(cacheName, expiresAtMillis, List.of(tags), key, value));
+            }
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (EOFException e) {
+            log.warn("Cache snapshot {} is truncated; restoring its first {} entries", settings.file(), records.size());
+        } catch (IOException e) {
+            log.warn("Could not read cache snapshot {}: {}", settings.file(), e.toString());
+        }
+        return records;
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("corrupt length " + length);
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+
+    private boolean restore(Record record, long now) {
+        try {
+            Object key = codec.decode(record.key());
+            long remainingSeconds = (record.expiresAtMillis() - now) / 1000;
+            if (remainingSeconds > 0) {
+                cache.put(record.cacheName(), key, codec.decode(record.value()), remainingSeconds, record.tags());
+                return true;
+            }
+            if (!CacheKey.replayable(key)) {
+                return false;
+            }
+            ResultCache.Entry loaded = loader.load(record.cacheName(), key);
+            long ttlSeconds = loaded == null ? 0 : (loaded.expiresAtMillis() - System.currentTimeMillis()) / 1000;
+            if (ttlSeconds <= 0) {
+                return false;
+            }
+            cache.put(record.cacheName(), key, loaded.value(), ttlSeconds, loaded.tags());
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Not restoring an entry of {}: {}", record.cacheName(), e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Where and how often to snapshot.
+     *
+     * @param file snapshot file; must not be shared by concurrently running instances
+     * @param hottestPerCache entries kept per cache name
+     * @param snapshotInterval time between snapshots; zero snapshots only on close
+     * @param parallelism threads restoring entries at startup
+     * @param restoreTimeout longest time startup waits for the restore
+     */
+    public record Settings(Path file, int hottestPerCache, Duration snapshotInterval, int parallelism,
+            Duration restoreTimeout) {}
+
+    /** Reloads snapshot entries that expired while the application was down. */
+    @FunctionalInterface
+    public interface Loader {
+
+        /** Reloads nothing: expired entries are dropped. */
+        Loader NONE = (cacheName, key) -> null;
+
+        /**
+         * Returns the current value of {@code key} with its expiry and tags, or {@code null} to leave it
+         * uncached. {@code @CacheResult} keys without a key expression are {@link CacheKey}s, whose
+         * {@link CacheKey#arguments() arguments} identify the call to repeat. Keys in which an argument
+         * was replaced by a digest (any argument that is not an immutable value) cannot be repeated and
+         * are dropped without calling the loader.
+         */
+        ResultCache.Entry load(String cacheName, Object key);
+    }
+
+    private record Record(String cacheName, long expiresAtMillis, List<String> tags, byte[] key, byte[] value) {}
+}
@@ -0,0 +1,15 @@
+package io.github.upendramanike.devguard.core;
+
+/**
+ * Computes the relative weight of a cached value, used by {@link InMemoryResultCache} to enforce
+ * {@link CacheLimits#maxWeight()}. Declare a bean of this type to weigh entries by payload size.
+ */
+@FunctionalInterface
+public interface CacheWeigher {
+
+    /** Every entry weighs {@code 1}, making weight limits equivalent to entry limits. */
+    CacheWeigher SINGLETON = (cacheName, key, value) -> 1;
+
+    /** Returns the non-negative weight of {@code value}; called once when the entry is stored. */
+    int weigh(String cacheName, Object key, Object value);
+}
@@ -3,12 +3,41 @@ package io.github.upendramanike.devguard.core;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
-/** Single-JVM {@link IdempotencyStore} with lazy TTL eviction. */
+/**
+ * Single-JVM {@link IdempotencyStore}. Expired keys are removed by a {@link TimingWheel} even when no
+ * duplicate call ever reads them again.
+ */
 public class InMemoryIdempotencyStore implements IdempotencyStore {
 
-    private record Entry(Object value, long expiresAtMillis) {}
+    private static final class Entry {
+        final Object value;
+        final long expiresAtMillis;
+        volatile TimingWheel.Timeout expiry;
+
+        Entry(Object value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        void cancelExpiry() {
+            TimingWheel.Timeout timeout = expiry;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
 
     private final ConcurrentHashMap<String, Entry> store = new ConcurrentHashMap<>();
+    private final TimingWheel wheel;
+
+    /** Creates a store expired by the {@linkplain TimingWheel#shared() shared} wheel. */
+    public InMemoryIdempotencyStore() {
+        this(TimingWheel.shared());
+    }
+
+    public InMemoryIdempotencyStore(TimingWheel wheel) {
+        this.wheel = wheel;
+    }
 
     @Override
     public Optional<StoredResult> find(String key) {
@@ -16,16 +45,28 @@ public class InMemoryIdempotencyStore implements IdempotencyStore {
         if (entry == null) {
             return Optional.empty();
         }
-        if (entry.expiresAtMillis() < System.currentTimeMillis()) {
-            store.remove(key, entry);
+        if (entry.expiresAtMillis < System.currentTimeMillis()) {
+            if (store.remove(key, entry)) {
+                entry.cancelExpiry();
+            }
             return Optional.empty();
         }
-        return Optional.of(new StoredResult(entry.value()));
+        return Optional.of(new StoredResult(entry.value));
     }
 
     @Override
     public void store(String key, Object result, long ttlSeconds) {
         long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000L;
-        store.put(key, new Entry(result, expiresAt));
+        Entry entry = new Entry(result, expiresAt);
+        Entry previous = store.put(key, entry);
+        if (previous != null) {
+            previous.cancelExpiry();
+        }
+        entry.expiry = wheel.schedule(expiresAt, () -> store.remove(key, entry));
+    }
+
+    /** Number of keys currently held, including expired ones not yet collected. */
+    public int size() {
+        return store.size();
     }
 }
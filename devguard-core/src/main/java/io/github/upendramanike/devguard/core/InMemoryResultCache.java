@@ -1,34 +1,426 @@
 package io.github.upendramanike.devguard.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
-/** Single-JVM {@link ResultCache} with lazy TTL eviction. */
+/**
+ * Single-JVM {@link ResultCache} with optional per-cache-name capacity bounds. Expired entries are
+ * removed by a {@link TimingWheel} even when they are never read again.
+ *
+ * <p>Each cache name owns a segment keyed by the caller's key object (a {@link CacheKey} or the
+ * value of a key expression), so lookups never build composite string keys. Segments are evicted
+ * with a segmented-LRU policy: new entries land in a
+ * probationary segment and are promoted to a protected segment (80% of capacity) when read again,
+ * so one-hit wonders are evicted before frequently used entries. {@link #stats(String) Statistics}
+ * are kept per cache name. Tagged entries are indexed in a {@link TagIndex} that every removal path
+ * keeps in step, so {@link #evictByTag(String)} only visits entries that are still cached. Each entry
+ * counts its reads, without synchronization, so {@link #hottest(String, int)} can rank the working set.
+ */
 public class InMemoryResultCache implements ResultCache {
 
-    private record Entry(Object value, long expiresAtMillis) {}
+    private static final double PROTECTED_RATIO = 0.8;
 
-    private final ConcurrentHashMap<String, Entry> store = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Segment> segments = new ConcurrentHashMap<>();
+    private final Function<String, CacheLimits> limits;
+    private final CacheWeigher weigher;
+    private final TimingWheel expiry;
+    private final TagIndex tags = new TagIndex();
+
+    /** Creates an unbounded cache expired by the {@linkplain TimingWheel#shared() shared} wheel. */
+    public InMemoryResultCache() {
+        this(name -> CacheLimits.UNBOUNDED, CacheWeigher.SINGLETON);
+    }
+
+    public InMemoryResultCache(Function<String, CacheLimits> limits, CacheWeigher weigher) {
+        this(limits, weigher, TimingWheel.shared());
+    }
+
+    /**
+     * @param limits capacity bounds per cache name, resolved once when the name is first used
+     * @param weigher weighs entries against {@link CacheLimits#maxWeight()}
+     * @param expiry wheel that removes entries once their TTL has passed
+     */
+    public InMemoryResultCache(Function<String, CacheLimits> limits, CacheWeigher weigher, TimingWheel expiry) {
+        this.limits = limits;
+        this.weigher = weigher;
+        this.expiry = expiry;
+    }
 
     @Override
     public Object get(String cacheName, String key) {
-        String composite = cacheName + "::" + key;
-        Entry entry = store.get(composite);
-        if (entry == null) {
-            return null;
-        }
-        if (entry.expiresAtMillis() < System.currentTimeMillis()) {
-            store.remove(composite, entry);
-            return null;
-        }
-        return entry.value();
+        return get(cacheName, (Object) key);
     }
 
     @Override
     public void put(String cacheName, String key, Object value, long ttlSeconds) {
+        put(cacheName, (Object) key, value, ttlSeconds);
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Node node = find(cacheName, key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(String cacheName, Collection<?> keys) {
+        Segment segment = segment(cacheName);
+        Map<Object, Object> found = new HashMap<>();
+        for (Object key : keys) {
+            Node node = segment.get(key);
+            if (node != null) {
+                found.put(key, node.value);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<?, ?> values, long ttlSeconds) {
+        Segment segment = segment(cacheName);
+        long expiresAtMillis = System.currentTimeMillis() + ttlSeconds * 1000L;
+        values.forEach((key, value) -> {
+            if (value != null) {
+                int weight = Math.max(0, weigher.weigh(cacheName, key, value));
+                segment.put(key, value, expiresAtMillis, weight, TagIndex.NONE);
+            }
+        });
+    }
+
+    @Override
+    public Entry getEntry(String cacheName, Object key) {
+        Node node = find(cacheName, key);
+        return node == null ? null : new Entry(node.value, node.expiresAtMillis, TagIndex.toList(node.tags));
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds) {
+        put(cacheName, key, value, ttlSeconds, TagIndex.NONE);
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds, Collection<String> tags) {
+        put(cacheName, key, value, ttlSeconds, TagIndex.toArray(tags));
+    }
+
+    private void put(String cacheName, Object key, Object value, long ttlSeconds, String[] tags) {
         if (value == null) {
             return;
         }
-        String composite = cacheName + "::" + key;
-        store.put(composite, new Entry(value, System.currentTimeMillis() + ttlSeconds * 1000L));
+        Segment segment = segment(cacheName);
+        int weight = Math.max(0, weigher.weigh(cacheName, key, value));
+        segment.put(key, value, System.currentTimeMillis() + ttlSeconds * 1000L, weight, tags);
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        Segment segment = segments.get(cacheName);
+        Node node = segment == null ? null : segment.data.get(key);
+        if (node != null) {
+            segment.remove(node);
+        }
+    }
+
+    @Override
+    public void evictByTag(String tag) {
+        for (TagIndex.Ref ref : tags.drain(tag)) {
+            evict(ref.cacheName(), ref.key());
+        }
+    }
+
+    @Override
+    public CacheStats stats(String cacheName) {
+        Segment segment = segments.get(cacheName);
+        return segment == null ? CacheStats.EMPTY : segment.stats.snapshot(segment.data.size(), segment.weight());
+    }
+
+    @Override
+    public Set<String> cacheNames() {
+        return Set.copyOf(segments.keySet());
+    }
+
+    @Override
+    public List<HotEntry> hottest(String cacheName, int limit) {
+        Segment segment = segments.get(cacheName);
+        if (segment == null || limit <= 0) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        PriorityQueue<HotEntry> top = new PriorityQueue<>(Comparator.comparingLong(HotEntry::reads));
+        for (Node node : segment.data.values()) {
+            int reads = node.reads;
+            if (node.expiresAtMillis <= now || (top.size() == limit && reads <= top.peek().reads())) {
+                continue;
+            }
+            if (top.size() == limit) {
+                top.poll();
+            }
+            top.add(new HotEntry(node.key,
+                    new Entry(node.value, node.expiresAtMillis, TagIndex.toList(node.tags)), reads));
+        }
+        List<HotEntry> hottest = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            hottest.add(top.poll());
+        }
+        Collections.reverse(hottest);
+        return hottest;
+    }
+
+    @Override
+    public void recordLoad(String cacheName, long loadNanos, boolean success) {
+        segment(cacheName).stats.recordLoad(loadNanos, success);
+    }
+
+    private Node find(String cacheName, Object key) {
+        return segment(cacheName).get(key);
+    }
+
+    private Segment segment(String cacheName) {
+        Segment segment = segments.get(cacheName);
+        if (segment == null) {
+            segment = segments.computeIfAbsent(cacheName, n -> new Segment(n, limits.apply(n), expiry, tags));
+        }
+        return segment;
+    }
+
+    /** Number of entries currently held for {@code cacheName}, including not yet collected expired ones. */
+    public long size(String cacheName) {
+        Segment segment = segments.get(cacheName);
+        return segment == null ? 0 : segment.data.size();
+    }
+
+    /** Total weight of the entries currently held for {@code cacheName}. */
+    public long weight(String cacheName) {
+        Segment segment = segments.get(cacheName);
+        return segment == null ? 0 : segment.weight();
+    }
+
+    /** Number of entries evicted from {@code cacheName} to respect its capacity bounds. */
+    public long evictionCount(String cacheName) {
+        Segment segment = segments.get(cacheName);
+        return segment == null ? 0 : segment.stats.evictionCount();
+    }
+
+    private static final class Node {
+        final Object key;
+        final Object value;
+        final long expiresAtMillis;
+        final int weight;
+        final String[] tags;
+        TimingWheel.Timeout expiry;
+        int reads;
+        boolean inProtected;
+        Node prev;
+        Node next;
+
+        Node(Object key, Object value, long expiresAtMillis, int weight, String[] tags) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+            this.weight = weight;
+            this.tags = tags;
+        }
+    }
+
+    /** Circular doubly-linked list with a sentinel head; the head's {@code next} is the LRU end. */
+    private static final class AccessOrder {
+        final Node head = new Node(null, null, 0, 0, TagIndex.NONE);
+        long weight;
+        long count;
+
+        AccessOrder() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        boolean isEmpty() {
+            return head.next == head;
+        }
+
+        Node eldest() {
+            return head.next;
+        }
+
+        void addLast(Node node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            weight += node.weight;
+            count++;
+        }
+
+        void remove(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+            count--;
+        }
+    }
+
+    /**
+     * Entries of one cache name. Lookups go straight to the concurrent map; the recency lists are
+     * guarded by {@link #lock}, and read promotion is skipped when the lock is contended so hits never
+     * block on each other.
+     */
+    private static final class Segment {
+
+        final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+        final CacheStatsCounter stats = new CacheStatsCounter();
+        final ReentrantLock lock = new ReentrantLock();
+        final AccessOrder probation = new AccessOrder();
+        final AccessOrder protectedOrder = new AccessOrder();
+        final String name;
+        final CacheLimits limits;
+        final TimingWheel wheel;
+        final TagIndex tags;
+        final long protectedMaxEntries;
+        final long protectedMaxWeight;
+
+        Segment(String name, CacheLimits limits, TimingWheel wheel, TagIndex tags) {
+            this.name = name;
+            this.limits = limits;
+            this.wheel = wheel;
+            this.tags = tags;
+            this.protectedMaxEntries = protectedLimit(limits.maxEntries());
+            this.protectedMaxWeight = protectedLimit(limits.maxWeight());
+        }
+
+        /** The protected share of {@code limit}; at least 1 when bounded, since 0 means unbounded. */
+        private static long protectedLimit(long limit) {
+            return limit > 0 ? Math.max(1, (long) (limit * PROTECTED_RATIO)) : 0;
+        }
+
+        Node get(Object key) {
+            Node node = data.get(key);
+            if (node == null) {
+                stats.recordMiss();
+                return null;
+            }
+            if (node.expiresAtMillis < System.currentTimeMillis()) {
+                stats.recordMiss();
+                remove(node);
+                return null;
+            }
+            stats.recordHit();
+            node.reads++;
+            if (limits.bounded() && lock.tryLock()) {
+                try {
+                    onHit(node);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return node;
+        }
+
+        void put(Object key, Object value, long expiresAtMillis, int weight, String[] entryTags) {
+            Node node = new Node(key, value, expiresAtMillis, weight, entryTags);
+            stats.recordPut();
+            lock.lock();
+            try {
+                Node previous = data.put(key, node);
+                if (previous != null) {
+                    unlink(previous);
+                }
+                probation.addLast(node);
+                tags.add(name, key, entryTags);
+                node.expiry = wheel.schedule(expiresAtMillis, () -> remove(node));
+                evictIfNeeded();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Node node) {
+            lock.lock();
+            try {
+                if (data.remove(node.key, node)) {
+                    unlink(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long weight() {
+            lock.lock();
+            try {
+                return probation.weight + protectedOrder.weight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void onHit(Node node) {
+            if (node.prev == null) {
+                return;
+            }
+            if (node.inProtected) {
+                protectedOrder.remove(node);
+                protectedOrder.addLast(node);
+                return;
+            }
+            probation.remove(node);
+            node.inProtected = true;
+            protectedOrder.addLast(node);
+            while (protectedOverflow()) {
+                Node demoted = protectedOrder.eldest();
+                protectedOrder.remove(demoted);
+                demoted.inProtected = false;
+                probation.addLast(demoted);
+            }
+        }
+
+        private boolean protectedOverflow() {
+            if (protectedOrder.count <= 1) {
+                return false;
+            }
+            return (protectedMaxEntries > 0 && protectedOrder.count > protectedMaxEntries)
+                    || (protectedMaxWeight > 0 && protectedOrder.weight > protectedMaxWeight);
+        }
+
+        private void evictIfNeeded() {
+            while (overCapacity()) {
+                AccessOrder victims = probation.isEmpty() ? protectedOrder : probation;
+                Node victim = victims.eldest();
+                data.remove(victim.key, victim);
+                victims.remove(victim);
+                victim.expiry.cancel();
+                tags.remove(name, victim.key, victim.tags);
+                stats.recordEviction();
+            }
+        }
+
+        private boolean overCapacity() {
+            long count = probation.count + protectedOrder.count;
+            if (count == 0) {
+                return false;
+            }
+            return (limits.maxEntries() > 0 && count > limits.maxEntries())
+                    || (limits.maxWeight() > 0 && probation.weight + protectedOrder.weight > limits.maxWeight());
+        }
+
+        private void unlink(Node node) {
+            if (node.prev != null) {
+                (node.inProtected ? protectedOrder : probation).remove(node);
+            }
+            if (node.expiry != null) {
+                node.expiry.cancel();
+            }
+            tags.remove(name, node.key, node.tags);
+        }
     }
 }
@@ -0,0 +1,120 @@
+package io.github.upendramanike.devguard.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads a key straight from the arguments for expressions that only name a parameter, optionally
+ * followed by properties ({@code #userId}, {@code #request.tenantId}), so that the most common key
+ * expressions need neither an evaluation context nor SpEL. Properties are resolved once, against the
+ * declared parameter and return types, to {@code getX()}, {@code isX()} or record-style {@code x()}
+ * accessors invoked through method handles. Expressions that cannot be resolved this way (operators,
+ * fields, properties only declared by subtypes) are left to SpEL.
+ */
+final class KeyExtractor {
+
+    /** Returned by {@link #extract} when a property is read from {@code null}; SpEL then decides. */
+    static final Object UNRESOLVED = new Object();
+
+    private static final Pattern PATH = Pattern.compile("#([A-Za-z_$][\\w$]*)((?:\\.[A-Za-z_$][\\w$]*)*)");
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+    private final int position;
+    private final MethodHandle[] getters;
+
+    private KeyExtractor(int position, MethodHandle[] getters) {
+        this.position = position;
+        this.getters = getters;
+    }
+
+    /**
+     * Builds an extractor for {@code expression} on {@code method}, whose arguments are exposed under
+     * {@code names} at {@code positions}, or returns {@code null} if SpEL has to evaluate it.
+     */
+    static KeyExtractor compile(String expression, Method method, String[] names, int[] positions) {
+        Matcher matcher = PATH.matcher(expression.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        int position = -1;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(matcher.group(1))) {
+                position = positions[i];
+                break;
+            }
+        }
+        if (position < 0) {
+            return null;
+        }
+        String[] properties = StringUtils.hasLength(matcher.group(2))
+                ? matcher.group(2).substring(1).split("\\.")
+                : new String[0];
+        MethodHandle[] getters = new MethodHandle[properties.length];
+        Class<?> type = method.getParameterTypes()[position];
+        for (int i = 0; i < properties.length; i++) {
+            Method accessor = type.isPrimitive() ? null : accessor(type, properties[i]);
+            MethodHandle getter = accessor == null ? null : unreflect(accessor);
+            if (getter == null) {
+                return null;
+            }
+            getters[i] = getter.asType(GETTER);
+            type = accessor.getReturnType();
+        }
+        return new KeyExtractor(position, getters);
+    }
+
+    /** Returns the key, or {@link #UNRESOLVED} if an intermediate property was {@code null}. */
+    Object extract(Object[] arguments) {
+        Object value = arguments[position];
+        for (MethodHandle getter : getters) {
+            if (value == null) {
+                return UNRESOLVED;
+            }
+            try {
+                value = (Object) getter.invokeExact(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return value;
+    }
+
+    private static Method accessor(Class<?> type, String property) {
+        String suffix = StringUtils.capitalize(property);
+        Method getter = ClassUtils.getMethodIfAvailable(type, "get" + suffix);
+        if (readable(getter)) {
+            return getter;
+        }
+        Method is = ClassUtils.getMethodIfAvailable(type, "is" + suffix);
+        if (readable(is) && (is.getReturnType() == boolean.class || is.getReturnType() == Boolean.class)) {
+            return is;
+        }
+        Method plain = ClassUtils.getMethodIfAvailable(type, property);
+        return readable(plain) ? plain : null;
+    }
+
+    private static boolean readable(Method method) {
+        return method != null && !Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class;
+    }
+
+    private static MethodHandle unreflect(Method accessor) {
+        try {
+            return MethodHandles.publicLookup().unreflect(accessor);
+        } catch (IllegalAccessException e) {
+            try {
+                return accessor.trySetAccessible() ? MethodHandles.lookup().unreflect(accessor) : null;
+            } catch (IllegalAccessException inaccessible) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,796 @@
+package io.github.upendramanike.devguard.core;
+
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Disk-backed {@link ResultCache} on a memory-mapped, append-only log, so cached values and their
+ * TTLs survive a restart. Intended as the last tier behind an on-heap cache (see
+ * {@link TieredResultCache}).
+ *
+ * <p>Each put appends a checksummed record; an on-heap index maps keys to record offsets. Opening the
+ * file and rebuilding the index happen on a background thread, so construction never blocks: until
+ * the log has been indexed every lookup is a miss and puts are skipped. Overwritten and expired
+ * records are reclaimed by a background compaction that copies live records into a new log file. A
+ * torn record at the end of the log (after a crash) is detected by its checksum and discarded.
+ *
+ * <p>Writes reach the operating system's page cache immediately and the disk when the file is
+ * flushed (on compaction and {@link #close()}), which is enough to survive a process restart. Keys
+ * and values are encoded with a {@link ValueCodec}; entries it cannot encode are not persisted. Only
+ * one process may use a directory at a time. {@link #stats(String) Statistics} are kept per cache
+ * name, with the weight being the encoded size of the values. Tags are stored in the records and
+ * re-indexed on startup, so {@link #evictByTag(String)} also reaches entries written before a restart.
+ * Evictions append a tombstone record, so evicted entries stay evicted after a restart; evictions
+ * arriving while the log is still loading are applied once it has been indexed.
+ */
+public class MappedFileResultCache implements ResultCache, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedFileResultCache.class);
+
+    private static final int MAGIC = 0x44474332;
+    private static final int HEADER_SIZE = 16;
+    /** Record layout: body length, CRC32 of the body, body. */
+    private static final int RECORD_PREFIX = 8;
+    /**
+     * Body layout: expiry, cache name length and bytes, key length and bytes, tag count and each tag's
+     * length and bytes, value bytes.
+     */
+    private static final int BODY_FIXED = 20;
+    /** Expiry written into tombstone records, which carry a cache name and key but no tags or value. */
+    private static final long TOMBSTONE = -1L;
+    private static final byte[] NO_VALUE = new byte[0];
+    private static final String LOG_PREFIX = "cache-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final int capacity;
+    private final ValueCodec codec;
+    private final TimingWheel expiry;
+    private final ExecutorService background;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<IndexKey, Slot> index = new HashMap<>();
+    private final ConcurrentHashMap<String, Usage> usage = new ConcurrentHashMap<>();
+    private final TagIndex tags = new TagIndex();
+    private final Set<IndexKey> pendingEvictions = new HashSet<>();
+    private final Set<String> pendingTagEvictions = new HashSet<>();
+    private final List<IndexKey> evictedWhileCompacting = new ArrayList<>();
+    private FileChannel lockChannel;
+    private MappedByteBuffer buffer;
+    private long generation;
+    private int writePosition;
+    private long deadBytes;
+    private long rejections;
+    private boolean ready;
+    private boolean compacting;
+    private boolean closed;
+
+    /** Creates a cache in {@code directory} using Java serialization and the shared timing wheel. */
+    public MappedFileResultCache(Path directory, long capacityBytes) {
+        this(directory, capacityBytes, new JavaSerializationCodec(), TimingWheel.shared());
+    }
+
+    /**
+     * @param directory directory holding the log; created if missing
+     * @param capacityBytes maximum size of the log file, at most 2 GiB
+     * @param codec encodes keys and values
+     * @param expiry wheel that drops entries from the index once their TTL has passed
+     */
+    public MappedFileResultCache(Path directory, long capacityBytes, ValueCodec codec, TimingWheel expiry) {
+        if (capacityBytes <= HEADER_SIZE || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacityBytes must be between " + (HEADER_SIZE + 1)
+                    + " and " + Integer.MAX_VALUE + ": " + capacityBytes);
+        }
+        this.directory = directory;
+        this.capacity = (int) capacityBytes;
+        this.codec = codec;
+        this.expiry = expiry;
+        this.background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "devguard-cache-persist");
+            thread.setDaemon(true);
+            return thread;
+        });
+        background.execute(this::open);
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return get(cacheName, (Object) key);
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, long ttlSeconds) {
+        put(cacheName, (Object) key, value, ttlSeconds);
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Entry entry = getEntry(cacheName, key);
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    public Entry getEntry(String cacheName, Object key) {
+        IndexKey indexKey = new IndexKey(cacheName, key);
+        byte[] bytes;
+        Slot slot;
+        lock.lock();
+        try {
+            slot = ready ? index.get(indexKey) : null;
+            if (slot == null) {
+                usage(cacheName).stats.recordMiss();
+                return null;
+            }
+            if (slot.expiresAtMillis < System.currentTimeMillis()) {
+                usage(cacheName).stats.recordMiss();
+                discard(indexKey, slot);
+                return null;
+            }
+            bytes = new byte[slot.valueLength];
+            buffer.get(slot.offset + slot.length - slot.valueLength, bytes);
+        } finally {
+            lock.unlock();
+        }
+        Usage counts = usage(cacheName);
+        try {
+            Entry entry = new Entry(codec.decode(bytes), slot.expiresAtMillis, TagIndex.toList(slot.tags));
+            counts.stats.recordHit();
+            return entry;
+        } catch (RuntimeException e) {
+            log.debug("Dropping undecodable entry of {}: {}", cacheName, e.toString());
+            counts.stats.recordMiss();
+            remove(indexKey, slot);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds) {
+        put(cacheName, key, value, ttlSeconds, TagIndex.NONE);
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds, Collection<String> tags) {
+        put(cacheName, key, value, ttlSeconds, TagIndex.toArray(tags));
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        IndexKey indexKey = new IndexKey(cacheName, key);
+        lock.lock();
+        try {
+            if (!ready) {
+                if (!closed) {
+                    pendingEvictions.add(indexKey);
+                }
+                return;
+            }
+            evictLocked(indexKey);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evictByTag(String tag) {
+        lock.lock();
+        try {
+            if (!ready) {
+                if (!closed) {
+                    pendingTagEvictions.add(tag);
+                }
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (TagIndex.Ref ref : tags.drain(tag)) {
+            evict(ref.cacheName(), ref.key());
+        }
+    }
+
+    private void put(String cacheName, Object key, Object value, long ttlSeconds, String[] entryTags) {
+        if (value == null) {
+            return;
+        }
+        long expiresAtMillis = System.currentTimeMillis() + ttlSeconds * 1000L;
+        byte[] record;
+        int valueLength;
+        try {
+            byte[] valueBytes = codec.encode(value);
+            record = encodeRecord(cacheName, codec.encode(key), entryTags, valueBytes, expiresAtMillis);
+            valueLength = valueBytes.length;
+        } catch (IllegalArgumentException e) {
+            log.debug("Not persisting entry of {}: {}", cacheName, e.getMessage());
+            reject();
+            return;
+        }
+        IndexKey indexKey = new IndexKey(cacheName, key);
+        lock.lock();
+        try {
+            if (!ready) {
+                rejections++;
+                return;
+            }
+            Slot previous = index.get(indexKey);
+            if (writePosition + record.length > capacity) {
+                rejections++;
+                if (previous != null) {
+                    // the replaced value must not come back after a restart either
+                    evictLocked(indexKey);
+                }
+                compactIfWorthwhile(true);
+                return;
+            }
+            if (previous != null) {
+                discard(indexKey, previous);
+            }
+            Slot slot = new Slot(writePosition, record.length, valueLength, expiresAtMillis, entryTags);
+            buffer.put(writePosition, record);
+            writePosition += record.length;
+            markEnd(buffer, writePosition);
+            index.put(indexKey, slot);
+            added(indexKey, slot);
+            usage(cacheName).stats.recordPut();
+            slot.expiry = expiry.schedule(expiresAtMillis, () -> remove(indexKey, slot));
+            compactIfWorthwhile(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CacheStats stats(String cacheName) {
+        Usage counts = usage.get(cacheName);
+        if (counts == null) {
+            return CacheStats.EMPTY;
+        }
+        lock.lock();
+        try {
+            return counts.stats.snapshot(counts.entries, counts.bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Set<String> cacheNames() {
+        return Set.copyOf(usage.keySet());
+    }
+
+    /** Number of live entries in the index; {@code 0} until the log has been loaded. */
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Bytes of the log in use, including records not yet reclaimed by compaction. */
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return writePosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long capacityBytes() {
+        return capacity;
+    }
+
+    /** Entries that were not persisted because they could not be encoded, did not fit, or arrived before loading finished. */
+    public long rejectionCount() {
+        lock.lock();
+        try {
+            return rejections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Whether the log has been loaded and the cache serves lookups. */
+    public boolean isReady() {
+        lock.lock();
+        try {
+            return ready;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Flushes the log to disk and stops background work. Entries stay on disk for the next start. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ready = false;
+            index.values().forEach(slot -> slot.expiry.cancel());
+            index.clear();
+            tags.clear();
+            usage.values().forEach(counts -> {
+                counts.entries = 0;
+                counts.bytes = 0;
+            });
+            if (buffer != null) {
+                buffer.force();
+                buffer = null;
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not release {}: {}", directory, e.toString());
+        } finally {
+            lock.unlock();
+        }
+        background.shutdown();
+    }
+
+    /** Waits until previously submitted loading or compaction work has finished. */
+    void awaitBackgroundWork() throws Exception {
+        boolean pending;
+        do {
+            background.submit(() -> { }).get();
+            lock.lock();
+            try {
+                pending = compacting;
+            } finally {
+                lock.unlock();
+            }
+        } while (pending);
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            FileChannel channel = FileChannel.open(directory.resolve("cache.lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock fileLock;
+            try {
+                fileLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                fileLock = null;
+            }
+            if (fileLock == null) {
+                channel.close();
+                log.warn("Persistent cache directory {} is already in use; tier disabled", directory);
+                return;
+            }
+            long gen = latestGeneration();
+            Path file = logFile(gen);
+            MappedByteBuffer mapped = map(file);
+            Map<IndexKey, Slot> loaded = new HashMap<>();
+            int end = replay(mapped, loaded);
+            lock.lock();
+            try {
+                lockChannel = channel;
+                if (closed) {
+                    channel.close();
+                    return;
+                }
+                buffer = mapped;
+                generation = gen;
+                writePosition = end;
+                deadBytes = end - HEADER_SIZE;
+                loaded.forEach((indexKey, slot) -> {
+                    index.put(indexKey, slot);
+                    added(indexKey, slot);
+                    deadBytes -= slot.length;
+                    slot.expiry = expiry.schedule(slot.expiresAtMillis, () -> remove(indexKey, slot));
+                });
+                ready = true;
+                applyPendingEvictions();
+                compactIfWorthwhile(false);
+            } finally {
+                lock.unlock();
+            }
+            log.info("Loaded {} cached entries from {}", loaded.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Persistent cache in {} is unavailable: {}", directory, e.toString());
+        }
+    }
+
+    /** Returns the newest complete log generation, deleting older ones and interrupted compactions. */
+    private long latestGeneration() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().startsWith(LOG_PREFIX)).toList();
+        }
+        long latest = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(LOG_SUFFIX)) {
+                latest = Math.max(latest, generationOf(name));
+            }
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(TMP_SUFFIX) || (name.endsWith(LOG_SUFFIX) && generationOf(name) != latest)) {
+                Files.deleteIfExists(file);
+            }
+        }
+        return latest;
+    }
+
+    private static long generationOf(String fileName) {
+        try {
+            return Long.parseLong(fileName.substring(LOG_PREFIX.length(), fileName.length() - LOG_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Path logFile(long gen) {
+        return directory.resolve(LOG_PREFIX + gen + LOG_SUFFIX);
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            if (mapped.getInt(0) != MAGIC) {
+                mapped.putInt(0, MAGIC);
+                markEnd(mapped, HEADER_SIZE);
+            }
+            return mapped;
+        }
+    }
+
+    /**
+     * Indexes every valid, unexpired record and returns the offset just past the last valid one. Expired
+     * records and tombstones are not indexed but still supersede earlier records of their key.
+     */
+    private int replay(MappedByteBuffer mapped, Map<IndexKey, Slot> loaded) {
+        long now = System.currentTimeMillis();
+        CRC32 crc = new CRC32();
+        int position = HEADER_SIZE;
+        while (position + RECORD_PREFIX + BODY_FIXED <= capacity) {
+            int bodyLength = mapped.getInt(position);
+            if (bodyLength < BODY_FIXED || bodyLength > capacity - position - RECORD_PREFIX) {
+                break;
+            }
+            ByteBuffer body = mapped.slice(position + RECORD_PREFIX, bodyLength);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != mapped.getInt(position + 4)) {
+                break;
+            }
+            int recordLength = RECORD_PREFIX + bodyLength;
+            long expiresAtMillis = body.getLong(0);
+            try {
+                byte[] name = new byte[body.getInt(8)];
+                body.get(12, name);
+                int keyAt = 12 + name.length;
+                byte[] key = new byte[body.getInt(keyAt)];
+                body.get(keyAt + 4, key);
+                IndexKey indexKey = new IndexKey(new String(name, StandardCharsets.UTF_8), codec.decode(key));
+                if (expiresAtMillis == TOMBSTONE || expiresAtMillis < now) {
+                    loaded.remove(indexKey);
+                } else {
+                    int tagsAt = keyAt + 4 + key.length;
+                    String[] recordTags = new String[body.getInt(tagsAt)];
+                    int at = tagsAt + 4;
+                    for (int i = 0; i < recordTags.length; i++) {
+                        byte[] tag = new byte[body.getInt(at)];
+                        body.get(at + 4, tag);
+                        recordTags[i] = new String(tag, StandardCharsets.UTF_8);
+                        at += 4 + tag.length;
+                    }
+                    int valueLength = bodyLength - at;
+                    loaded.put(indexKey, new Slot(position, recordLength, valueLength, expiresAtMillis,
+                            recordTags.length == 0 ? TagIndex.NONE : recordTags));
+                }
+            } catch (RuntimeException e) {
+                log.debug("Skipping unreadable cache record at {}: {}", position, e.toString());
+            }
+            position += recordLength;
+        }
+        markEnd(mapped, position);
+        return position;
+    }
+
+    private static byte[] encodeRecord(String cacheName, byte[] key, String[] tags, byte[] value,
+            long expiresAtMillis) {
+        byte[] name = cacheName.getBytes(StandardCharsets.UTF_8);
+        byte[][] tagBytes = new byte[tags.length][];
+        int tagsLength = 0;
+        for (int i = 0; i < tags.length; i++) {
+            tagBytes[i] = tags[i].getBytes(StandardCharsets.UTF_8);
+            tagsLength += 4 + tagBytes[i].length;
+        }
+        int bodyLength = BODY_FIXED + name.length + key.length + tagsLength + value.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_PREFIX + bodyLength);
+        record.putInt(bodyLength).putInt(0)
+                .putLong(expiresAtMillis)
+                .putInt(name.length).put(name)
+                .putInt(key.length).put(key)
+                .putInt(tags.length);
+        for (byte[] tag : tagBytes) {
+            record.putInt(tag.length).put(tag);
+        }
+        record.put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_PREFIX, bodyLength);
+        record.putInt(4, (int) crc.getValue());
+        return record.array();
+    }
+
+    /** Writes an end-of-log marker so stale bytes after the last record are never replayed. */
+    private void markEnd(MappedByteBuffer mapped, int position) {
+        if (position + 4 <= capacity) {
+            mapped.putInt(position, 0);
+        }
+    }
+
+    /** Called with the lock held; starts a compaction when enough of the log is reclaimable. */
+    private void compactIfWorthwhile(boolean full) {
+        if (compacting || closed || deadBytes == 0) {
+            return;
+        }
+        if (full || (deadBytes > (writePosition - HEADER_SIZE) / 2 && writePosition > capacity / 4)) {
+            compacting = true;
+            background.execute(this::compact);
+        }
+    }
+
+    /**
+     * Copies live records into a new log generation. The bulk copy runs without the lock; records
+     * written or replaced meanwhile are copied under the lock just before the files are switched.
+     */
+    private void compact() {
+        try {
+            List<Slot> snapshot;
+            MappedByteBuffer source;
+            long next;
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                snapshot = new ArrayList<>(index.values());
+                source = buffer;
+                next = generation + 1;
+            } finally {
+                lock.unlock();
+            }
+            Path tmp = directory.resolve(LOG_PREFIX + next + TMP_SUFFIX);
+            MappedByteBuffer target = map(tmp);
+            Map<Slot, Integer> moved = new IdentityHashMap<>();
+            long now = System.currentTimeMillis();
+            int position = HEADER_SIZE;
+            for (Slot slot : snapshot) {
+                if (slot.expiresAtMillis >= now) {
+                    position = copy(source, slot, target, position);
+                    moved.put(slot, position - slot.length);
+                }
+            }
+            target.force();
+            lock.lock();
+            try {
+                if (closed) {
+                    Files.deleteIfExists(tmp);
+                    return;
+                }
+                // records evicted after the snapshot may have been copied; their tombstones must follow
+                for (IndexKey evicted : evictedWhileCompacting) {
+                    byte[] tombstone = tombstone(evicted);
+                    if (tombstone == null) {
+                        continue;
+                    }
+                    if (position + tombstone.length > capacity) {
+                        Files.deleteIfExists(tmp);
+                        return;
+                    }
+                    target.put(position, tombstone);
+                    position += tombstone.length;
+                }
+                for (Iterator<Map.Entry<IndexKey, Slot>> it = index.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<IndexKey, Slot> entry = it.next();
+                    Slot slot = entry.getValue();
+                    Integer offset = moved.get(slot);
+                    if (offset != null) {
+                        slot.offset = offset;
+                    } else if (position + slot.length <= capacity) {
+                        position = copy(buffer, slot, target, position);
+                        slot.offset = position - slot.length;
+                    } else {
+                        it.remove();
+                        removed(entry.getKey(), slot);
+                        usage(entry.getKey().cacheName()).stats.recordEviction();
+                        slot.expiry.cancel();
+                    }
+                }
+                markEnd(target, position);
+                Files.move(tmp, logFile(next), StandardCopyOption.ATOMIC_MOVE);
+                Files.deleteIfExists(logFile(generation));
+                buffer = target;
+                generation = next;
+                writePosition = position;
+                deadBytes = 0;
+            } finally {
+                lock.unlock();
+            }
+            log.debug("Compacted {} to {} bytes", directory, position);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Compaction of {} failed: {}", directory, e.toString());
+        } finally {
+            lock.lock();
+            try {
+                compacting = false;
+                evictedWhileCompacting.clear();
+                // records overwritten while this compaction ran may already warrant the next one
+                compactIfWorthwhile(false);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Called with the lock held; removes {@code indexKey} and appends a tombstone for it. */
+    private void evictLocked(IndexKey indexKey) {
+        Slot slot = index.get(indexKey);
+        if (slot == null) {
+            return;
+        }
+        discard(indexKey, slot);
+        byte[] tombstone = tombstone(indexKey);
+        if (tombstone == null) {
+            return;
+        }
+        if (compacting) {
+            evictedWhileCompacting.add(indexKey);
+        }
+        if (writePosition + tombstone.length > capacity) {
+            // no room for the tombstone: a compaction rewrites the log without the evicted record
+            compactIfWorthwhile(true);
+            return;
+        }
+        buffer.put(writePosition, tombstone);
+        writePosition += tombstone.length;
+        markEnd(buffer, writePosition);
+        deadBytes += tombstone.length;
+        compactIfWorthwhile(false);
+    }
+
+    /** Called with the lock held once the log is indexed; applies evictions that arrived while loading. */
+    private void applyPendingEvictions() {
+        pendingEvictions.forEach(this::evictLocked);
+        for (String tag : pendingTagEvictions) {
+            for (TagIndex.Ref ref : tags.drain(tag)) {
+                evictLocked(new IndexKey(ref.cacheName(), ref.key()));
+            }
+        }
+        pendingEvictions.clear();
+        pendingTagEvictions.clear();
+    }
+
+    /** Encodes a tombstone record for {@code indexKey}, or returns {@code null} if its key cannot be encoded. */
+    private byte[] tombstone(IndexKey indexKey) {
+        try {
+            return encodeRecord(indexKey.cacheName(), codec.encode(indexKey.key()), TagIndex.NONE, NO_VALUE,
+                    TOMBSTONE);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int copy(MappedByteBuffer source, Slot slot, MappedByteBuffer target, int position) {
+        byte[] record = new byte[slot.length];
+        source.get(slot.offset, record);
+        target.put(position, record);
+        return position + record.length;
+    }
+
+    private void remove(IndexKey indexKey, Slot slot) {
+        lock.lock();
+        try {
+            if (index.get(indexKey) == slot) {
+                discard(indexKey, slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Called with the lock held. */
+    private void discard(IndexKey indexKey, Slot slot) {
+        index.remove(indexKey);
+        removed(indexKey, slot);
+        deadBytes += slot.length;
+        if (slot.expiry != null) {
+            slot.expiry.cancel();
+        }
+    }
+
+    private void reject() {
+        lock.lock();
+        try {
+            rejections++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Called with the lock held after {@code slot} was added to the index. */
+    private void added(IndexKey indexKey, Slot slot) {
+        Usage counts = usage(indexKey.cacheName());
+        counts.entries++;
+        counts.bytes += slot.valueLength;
+        tags.add(indexKey.cacheName(), indexKey.key(), slot.tags);
+    }
+
+    /** Called with the lock held after {@code slot} was removed from the index. */
+    private void removed(IndexKey indexKey, Slot slot) {
+        Usage counts = usage(indexKey.cacheName());
+        counts.entries--;
+        counts.bytes -= slot.valueLength;
+        tags.remove(indexKey.cacheName(), indexKey.key(), slot.tags);
+    }
+
+    private Usage usage(String cacheName) {
+        Usage counts = usage.get(cacheName);
+        return counts != null ? counts : usage.computeIfAbsent(cacheName, n -> new Usage());
+    }
+
+    /** Statistics of one cache name; {@code entries} and {@code bytes} are guarded by the cache lock. */
+    private static final class Usage {
+        final CacheStatsCounter stats = new CacheStatsCounter();
+        long entries;
+        long bytes;
+    }
+
+    private record IndexKey(String cacheName, Object key) {}
+
+    private static final class Slot {
+        int offset;
+        final int length;
+        final int valueLength;
+        final long expiresAtMillis;
+        final String[] tags;
+        TimingWheel.Timeout expiry;
+
+        Slot(int offset, int length, int valueLength, long expiresAtMillis, String[] tags) {
+            this.offset = offset;
+            this.length = length;
+            this.valueLength = valueLength;
+            this.expiresAtMillis = expiresAtMillis;
+            this.tags = tags;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package io.github.upendramanike.devguard.core;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.springframework.core.ParameterNameDiscoverer;
@@ -29,8 +28,16 @@ public record MethodInvocationContext(Method method, Object[] arguments, Paramet
         return map;
     }
 
-    /** A stable key derived from the argument values, used when no explicit key expression is given. */
+    /** A stable key derived from the argument values, using {@link ArgumentHasher#defaults()}. */
     public String argumentDigest() {
-        return Arrays.deepToString(arguments);
+        return argumentDigest(ArgumentHasher.defaults());
+    }
+
+    /**
+     * A stable key derived from the argument values, used when no explicit key expression is given:
+     * the 32-hex-character {@linkplain ArgumentHasher#digest(Object[]) digest} of {@code hasher}.
+     */
+    public String argumentDigest(ArgumentHasher hasher) {
+        return hasher.digest(arguments);
     }
 }
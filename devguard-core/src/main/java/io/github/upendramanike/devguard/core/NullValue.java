@@ -0,0 +1,9 @@
+package io.github.upendramanike.devguard.core;
+
+/**
+ * Sentinel stored in a {@link ResultCache} in place of a {@code null} method result, so that absent
+ * values can be cached and told apart from a miss.
+ */
+public enum NullValue {
+    INSTANCE
+}
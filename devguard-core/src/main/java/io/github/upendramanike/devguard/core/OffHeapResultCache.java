@@ -0,0 +1,428 @@
+package io.github.upendramanike.devguard.core;
+
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ResultCache} that keeps serialized values in direct memory, outside the garbage-collected
+ * heap. Keys and a small index entry stay on the heap. Memory comes from a {@link SlabAllocator} with
+ * its own capacity; when a size class is full its least recently used entry is evicted.
+ *
+ * <p>Slabs are assigned to size classes as values arrive, so a cache first filled with small values
+ * would otherwise keep its memory in small chunks after the workload turns to larger ones. When a
+ * class cannot allocate, a slab is therefore moved to it from another class: one with no chunk in
+ * use if there is any, else one of the class least used (reads and writes) per slab, whose entries
+ * in that slab are evicted. The latter only happens when the starving class has nothing to evict of
+ * its own or is used at least twice as much per slab, and never takes a class's last slab.
+ *
+ * <p>Every read decodes a fresh copy of the value, so this tier is best placed behind an on-heap
+ * cache as an L2 (see {@link TieredResultCache}). Values the {@link ValueCodec} cannot encode, or
+ * that are larger than a slab, are not cached. {@link #stats(String) Statistics} are kept per cache
+ * name, with the weight being the encoded size of the values. Tags stay on the heap, in a
+ * {@link TagIndex} updated whenever an entry is released.
+ */
+public class OffHeapResultCache implements ResultCache, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapResultCache.class);
+
+    private final SlabAllocator allocator;
+    private final ValueCodec codec;
+    private final TimingWheel expiry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<IndexKey, Slot> index = new HashMap<>();
+    private final List<LinkedHashMap<IndexKey, Slot>> lruByClass;
+    private final ConcurrentHashMap<String, Usage> usage = new ConcurrentHashMap<>();
+    private final TagIndex tags = new TagIndex();
+    private final long[] uses;
+    private long evictions;
+    private long rejections;
+    private long rebalances;
+
+    /** Creates a cache of {@code capacityBytes} with 1 MiB slabs and Java serialization. */
+    public OffHeapResultCache(long capacityBytes) {
+        this(capacityBytes, 1 << 20, new JavaSerializationCodec(), TimingWheel.shared());
+    }
+
+    /**
+     * @param capacityBytes direct memory available for values
+     * @param slabSize slab size in bytes (rounded up to a power of two); the largest cacheable value
+     * @param codec converts values to bytes
+     * @param expiry wheel that releases memory of expired entries
+     */
+    public OffHeapResultCache(long capacityBytes, int slabSize, ValueCodec codec, TimingWheel expiry) {
+        this.allocator = new SlabAllocator(capacityBytes, slabSize);
+        this.codec = codec;
+        this.expiry = expiry;
+        this.lruByClass = new ArrayList<>(allocator.sizeClasses());
+        for (int i = 0; i < allocator.sizeClasses(); i++) {
+            lruByClass.add(new LinkedHashMap<>(16, 0.75f, true));
+        }
+        this.uses = new long[allocator.sizeClasses()];
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return get(cacheName, (Object) key);
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, long ttlSeconds) {
+        put(cacheName, (Object) key, value, ttlSeconds);
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Entry entry = getEntry(cacheName, key);
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    public Entry getEntry(String cacheName, Object key) {
+        IndexKey indexKey = new IndexKey(cacheName, key);
+        byte[] bytes;
+        Slot slot;
+        lock.lock();
+        try {
+            slot = index.get(indexKey);
+            if (slot == null) {
+                usage(cacheName).stats.recordMiss();
+                return null;
+            }
+            if (slot.expiresAtMillis < System.currentTimeMillis()) {
+                usage(cacheName).stats.recordMiss();
+                release(indexKey, slot);
+                return null;
+            }
+            lruByClass.get(slot.sizeClass).get(indexKey);
+            uses[slot.sizeClass]++;
+            bytes = allocator.read(slot.address, slot.length);
+        } finally {
+            lock.unlock();
+        }
+        Usage counts = usage(cacheName);
+        try {
+            Entry entry = new Entry(codec.decode(bytes), slot.expiresAtMillis, TagIndex.toList(slot.tags));
+            counts.stats.recordHit();
+            return entry;
+        } catch (RuntimeException e) {
+            log.debug("Dropping undecodable off-heap entry of {}: {}", cacheName, e.toString());
+            counts.stats.recordMiss();
+            remove(indexKey, slot);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds) {
+        put(cacheName, key, value, ttlSeconds, TagIndex.NONE);
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds, Collection<String> tags) {
+        put(cacheName, key, value, ttlSeconds, TagIndex.toArray(tags));
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        IndexKey indexKey = new IndexKey(cacheName, key);
+        lock.lock();
+        try {
+            Slot slot = index.get(indexKey);
+            if (slot != null) {
+                release(indexKey, slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evictByTag(String tag) {
+        for (TagIndex.Ref ref : tags.drain(tag)) {
+            evict(ref.cacheName(), ref.key());
+        }
+    }
+
+    private void put(String cacheName, Object key, Object value, long ttlSeconds, String[] entryTags) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = codec.encode(value);
+        } catch (IllegalArgumentException e) {
+            log.debug("Not caching {} off-heap: {}", cacheName, e.getMessage());
+            reject();
+            return;
+        }
+        int sizeClass = allocator.sizeClass(bytes.length);
+        if (sizeClass < 0) {
+            reject();
+            return;
+        }
+        IndexKey indexKey = new IndexKey(cacheName, key);
+        long expiresAtMillis = System.currentTimeMillis() + ttlSeconds * 1000L;
+        lock.lock();
+        try {
+            Slot previous = index.get(indexKey);
+            if (previous != null) {
+                release(indexKey, previous);
+            }
+            uses[sizeClass]++;
+            long address = allocator.allocate(sizeClass);
+            if (address < 0) {
+                address = rebalance(sizeClass);
+            }
+            while (address < 0 && evictEldest(sizeClass)) {
+                address = allocator.allocate(sizeClass);
+            }
+            if (address < 0) {
+                rejections++;
+                return;
+            }
+            allocator.write(address, bytes);
+            Slot slot = new Slot(sizeClass, address, bytes.length, expiresAtMillis, entryTags);
+            index.put(indexKey, slot);
+            tags.add(cacheName, key, entryTags);
+            lruByClass.get(sizeClass).put(indexKey, slot);
+            Usage counts = usage(cacheName);
+            counts.entries++;
+            counts.bytes += bytes.length;
+            counts.stats.recordPut();
+            slot.expiry = expiry.schedule(expiresAtMillis, () -> remove(indexKey, slot));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of entries currently stored off-heap. */
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Bytes of direct memory occupied by stored chunks. */
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return allocator.usedBytes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long capacityBytes() {
+        return allocator.capacityBytes();
+    }
+
+    @Override
+    public CacheStats stats(String cacheName) {
+        Usage counts = usage.get(cacheName);
+        if (counts == null) {
+            return CacheStats.EMPTY;
+        }
+        lock.lock();
+        try {
+            return counts.stats.snapshot(counts.entries, counts.bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Set<String> cacheNames() {
+        return Set.copyOf(usage.keySet());
+    }
+
+    /** Entries evicted to make room for new ones. */
+    public long evictionCount() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Slabs moved from one size class to another since the cache was created. */
+    public long rebalanceCount() {
+        lock.lock();
+        try {
+            return rebalances;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Values that were not stored because they could not be encoded or did not fit. */
+    public long rejectionCount() {
+        lock.lock();
+        try {
+            return rejections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drops every entry and releases the slabs. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            index.values().forEach(slot -> slot.expiry.cancel());
+            index.clear();
+            tags.clear();
+            usage.values().forEach(counts -> {
+                counts.entries = 0;
+                counts.bytes = 0;
+            });
+            for (LinkedHashMap<IndexKey, Slot> lru : lruByClass) {
+                lru.clear();
+            }
+            Arrays.fill(uses, 0);
+            allocator.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(IndexKey indexKey, Slot slot) {
+        lock.lock();
+        try {
+            if (index.get(indexKey) == slot) {
+                release(indexKey, slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean evictEldest(int sizeClass) {
+        Iterator<Map.Entry<IndexKey, Slot>> eldest = lruByClass.get(sizeClass).entrySet().iterator();
+        if (!eldest.hasNext()) {
+            return false;
+        }
+        Map.Entry<IndexKey, Slot> victim = eldest.next();
+        evict(victim.getKey(), victim.getValue());
+        return true;
+    }
+
+    /** Moves a slab to {@code sizeClass} (see the class comment) and allocates from it, or returns -1. */
+    private long rebalance(int sizeClass) {
+        int slab = allocator.idleSlab(sizeClass);
+        if (slab < 0) {
+            int donor = donor(sizeClass);
+            if (donor < 0) {
+                return -1;
+            }
+            Slot eldest = lruByClass.get(donor).values().iterator().next();
+            slab = SlabAllocator.slab(eldest.address);
+            List<Map.Entry<IndexKey, Slot>> victims = new ArrayList<>();
+            for (Map.Entry<IndexKey, Slot> entry : lruByClass.get(donor).entrySet()) {
+                if (SlabAllocator.slab(entry.getValue().address) == slab) {
+                    victims.add(entry);
+                }
+            }
+            victims.forEach(victim -> evict(victim.getKey(), victim.getValue()));
+        }
+        allocator.reassign(slab, sizeClass);
+        rebalances++;
+        for (int i = 0; i < uses.length; i++) {
+            uses[i] >>>= 1;
+        }
+        return allocator.allocate(sizeClass);
+    }
+
+    private int donor(int sizeClass) {
+        int donor = -1;
+        double least = Double.MAX_VALUE;
+        for (int i = 0; i < uses.length; i++) {
+            if (i != sizeClass && allocator.slabCount(i) > 1 && usesPerSlab(i) < least) {
+                least = usesPerSlab(i);
+                donor = i;
+            }
+        }
+        boolean starving = lruByClass.get(sizeClass).isEmpty();
+        return donor >= 0 && (starving || least * 2 < usesPerSlab(sizeClass)) ? donor : -1;
+    }
+
+    private double usesPerSlab(int sizeClass) {
+        return (double) uses[sizeClass] / Math.max(1, allocator.slabCount(sizeClass));
+    }
+
+    private void evict(IndexKey indexKey, Slot slot) {
+        release(indexKey, slot);
+        usage(indexKey.cacheName()).stats.recordEviction();
+        evictions++;
+    }
+
+    private void release(IndexKey indexKey, Slot slot) {
+        index.remove(indexKey);
+        lruByClass.get(slot.sizeClass).remove(indexKey);
+        Usage counts = usage(indexKey.cacheName());
+        counts.entries--;
+        counts.bytes -= slot.length;
+        allocator.free(slot.sizeClass, slot.address);
+        tags.remove(indexKey.cacheName(), indexKey.key(), slot.tags);
+        if (slot.expiry != null) {
+            slot.expiry.cancel();
+        }
+    }
+
+    private void reject() {
+        lock.lock();
+        try {
+            rejections++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Usage usage(String cacheName) {
+        Usage counts = usage.get(cacheName);
+        return counts != null ? counts : usage.computeIfAbsent(cacheName, n -> new Usage());
+    }
+
+    /** Statistics of one cache name; {@code entries} and {@code bytes} are guarded by the cache lock. */
+    private static final class Usage {
+        final CacheStatsCounter stats = new CacheStatsCounter();
+        long entries;
+        long bytes;
+    }
+
+    private record IndexKey(String cacheName, Object key) {}
+
+    private static final class Slot {
+        final int sizeClass;
+        final long address;
+        final int length;
+        final long expiresAtMillis;
+        final String[] tags;
+        TimingWheel.Timeout expiry;
+
+        Slot(int sizeClass, long address, int length, long expiresAtMillis, String[] tags) {
+            this.sizeClass = sizeClass;
+            this.address = address;
+            this.length = length;
+            this.expiresAtMillis = expiresAtMillis;
+            this.tags = tags;
+        }
+    }
+}
@@ -16,12 +16,19 @@ public class RateLimiterRegistry {
      * @return {@code true} if a permit was granted
      */
     public boolean tryAcquire(String bucketKey, int capacity, long windowSeconds) {
-        TokenBucket bucket = buckets.computeIfAbsent(bucketKey, k -> new TokenBucket(capacity, windowSeconds));
-        return bucket.tryConsume();
+        return bucket(bucketKey, capacity, windowSeconds).tryConsume();
+    }
+
+    /**
+     * Returns the bucket identified by {@code bucketKey}, creating it with the given settings if
+     * needed, so a caller that always uses the same bucket can hold on to it.
+     */
+    public TokenBucket bucket(String bucketKey, int capacity, long windowSeconds) {
+        return buckets.computeIfAbsent(bucketKey, k -> new TokenBucket(capacity, windowSeconds));
     }
 
     /** Lazily-refilling token bucket. */
-    static final class TokenBucket {
+    public static final class TokenBucket {
 
         private final int capacity;
         private final double refillPerNano;
@@ -36,7 +43,8 @@ public class RateLimiterRegistry {
             this.lastRefillNanos = System.nanoTime();
         }
 
-        synchronized boolean tryConsume() {
+        /** Consumes one permit if available; returns whether it did. */
+        public synchronized boolean tryConsume() {
             long now = System.nanoTime();
             double refill = (now - lastRefillNanos) * refillPerNano;
             if (refill > 0) {
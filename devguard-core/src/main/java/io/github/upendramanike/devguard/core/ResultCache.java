@@ -1,14 +1,134 @@
 package io.github.upendramanike.devguard.core;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Simple TTL cache used by {@code @CacheResult}. The default {@link InMemoryResultCache} is single-JVM;
  * supply a Redis-backed implementation for a shared cache.
+ *
+ * <p>{@code @CacheResult} looks entries up with structured keys (see {@link CacheKey}). The
+ * {@code Object}-keyed methods default to the string-keyed ones using {@code key.toString()}, so an
+ * implementation only has to provide the latter; hash-based implementations should override both.
+ *
+ * <p>Entries may be labelled with tags (e.g. {@code customer:42}) and removed together with
+ * {@link #evictByTag(String)}, across cache names. Implementations may keep per-cache-name
+ * {@link CacheStats}; the defaults report none.
  */
 public interface ResultCache {
 
     /** Returns the cached value, or {@code null} on a miss. */
     Object get(String cacheName, String key);
 
-    /** Stores a non-null value for {@code ttlSeconds}. */
+    /**
+     * Stores a non-null value for {@code ttlSeconds}. {@code null} results are cached as
+     * {@link NullValue#INSTANCE}, which implementations store like any other value.
+     */
     void put(String cacheName, String key, Object value, long ttlSeconds);
+
+    /** Returns the value cached under a structured key, or {@code null} on a miss. */
+    default Object get(String cacheName, Object key) {
+        return get(cacheName, key.toString());
+    }
+
+    /** Stores a non-null value under a structured key for {@code ttlSeconds}. */
+    default void put(String cacheName, Object key, Object value, long ttlSeconds) {
+        put(cacheName, key.toString(), value, ttlSeconds);
+    }
+
+    /**
+     * Stores a non-null value under a structured key for {@code ttlSeconds}, labelled with {@code tags}
+     * so that {@link #evictByTag(String)} can remove it. The default ignores the tags.
+     */
+    default void put(String cacheName, Object key, Object value, long ttlSeconds, Collection<String> tags) {
+        put(cacheName, key, value, ttlSeconds);
+    }
+
+    /**
+     * Removes the entry cached under {@code key}, if any. The default does nothing, leaving the entry
+     * to expire; {@code CacheEvictAspect} warns at startup when the cache keeps this default.
+     */
+    default void evict(String cacheName, Object key) {
+    }
+
+    /**
+     * Removes every entry labelled with {@code tag}, whatever its cache name. The default does
+     * nothing, like {@link #evict(String, Object)}.
+     */
+    default void evictByTag(String tag) {
+    }
+
+    /**
+     * Returns the cached values of those {@code keys} that are present, keyed by key; misses are left
+     * out. Used by batch {@code @CacheResult} methods; the default looks the keys up one by one.
+     */
+    default Map<Object, Object> getAll(String cacheName, Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        for (Object key : keys) {
+            Object value = get(cacheName, key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+
+    /** Stores every non-null value of {@code values} under its key for {@code ttlSeconds}. */
+    default void putAll(String cacheName, Map<?, ?> values, long ttlSeconds) {
+        values.forEach((key, value) -> {
+            if (value != null) {
+                put(cacheName, key, value, ttlSeconds);
+            }
+        });
+    }
+
+    /**
+     * Returns the cached value together with its expiry, or {@code null} on a miss. Used for
+     * refresh-ahead; implementations that cannot report expiry keep this default, which never
+     * triggers an early refresh.
+     */
+    default Entry getEntry(String cacheName, Object key) {
+        Object value = get(cacheName, key);
+        return value == null ? null : new Entry(value, Long.MAX_VALUE);
+    }
+
+    /** Statistics of {@code cacheName}, or {@link CacheStats#EMPTY} if the cache keeps none. */
+    default CacheStats stats(String cacheName) {
+        return CacheStats.EMPTY;
+    }
+
+    /** Names of the caches this cache currently has entries or statistics for. */
+    default Set<String> cacheNames() {
+        return Set.of();
+    }
+
+    /**
+     * Returns up to {@code limit} live entries of {@code cacheName}, most read first, so that
+     * {@link CacheWarmer} can snapshot the working set. Implementations that do not count reads keep
+     * this default, which returns none.
+     */
+    default List<HotEntry> hottest(String cacheName, int limit) {
+        return List.of();
+    }
+
+    /**
+     * Records a {@code @CacheResult} invocation made on a miss of {@code cacheName}, which took
+     * {@code loadNanos} and completed normally if {@code success}.
+     */
+    default void recordLoad(String cacheName, long loadNanos, boolean success) {
+    }
+
+    /** A cached entry, its key and (approximately) how often it was read since it was stored. */
+    record HotEntry(Object key, Entry entry, long reads) {}
+
+    /** A cached value, the epoch millis at which it expires and the tags it was stored with. */
+    record Entry(Object value, long expiresAtMillis, List<String> tags) {
+
+        public Entry(Object value, long expiresAtMillis) {
+            this(value, expiresAtMillis, List.of());
+        }
+    }
 }
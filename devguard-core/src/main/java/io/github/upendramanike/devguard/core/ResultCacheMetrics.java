@@ -0,0 +1,121 @@
+package io.github.upendramanike.devguard.core;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports {@link ResultCache#stats(String)} as Micrometer meters tagged with {@code cache=<name>}:
+ * the standard {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and {@code cache.size}
+ * meters, plus {@code cache.load.duration}, {@code cache.loads} (tagged {@code result=success|failure})
+ * and {@code cache.weight}. Meters of a cache name are registered the first time it is reported to
+ * {@link #cacheNameUsed}; they read the statistics when the registry publishes, so lookups pay nothing
+ * extra.
+ */
+public class ResultCacheMetrics implements CacheNameListener {
+
+    private final ResultCache cache;
+    private final MeterRegistry registry;
+    private final Iterable<Tag> tags;
+    private final Set<String> bound = ConcurrentHashMap.newKeySet();
+
+    public ResultCacheMetrics(ResultCache cache, MeterRegistry registry) {
+        this(cache, registry, Tags.empty());
+    }
+
+    /** @param tags added to every meter, besides the cache name */
+    public ResultCacheMetrics(ResultCache cache, MeterRegistry registry, Iterable<Tag> tags) {
+        this.cache = cache;
+        this.registry = registry;
+        this.tags = tags;
+    }
+
+    @Override
+    public void cacheNameUsed(String cacheName) {
+        if (bound.add(cacheName)) {
+            new Binder(cache, cacheName, tags).bindTo(registry);
+        }
+    }
+
+    /** Registers meters for every cache name the cache already has statistics for. */
+    public void bindExisting() {
+        cache.cacheNames().forEach(this::cacheNameUsed);
+    }
+
+    private static final class Binder extends CacheMeterBinder<ResultCache> {
+
+        private final String cacheName;
+
+        Binder(ResultCache cache, String cacheName, Iterable<Tag> tags) {
+            super(cache, cacheName, tags);
+            this.cacheName = cacheName;
+        }
+
+        private CacheStats stats() {
+            ResultCache cache = getCache();
+            return cache == null ? CacheStats.EMPTY : cache.stats(cacheName);
+        }
+
+        @Override
+        protected Long size() {
+            return stats().size();
+        }
+
+        @Override
+        protected long hitCount() {
+            return stats().hitCount();
+        }
+
+        @Override
+        protected Long missCount() {
+            return stats().missCount();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            return stats().evictionCount();
+        }
+
+        @Override
+        protected long putCount() {
+            return stats().putCount();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            ResultCache cache = getCache();
+            if (cache == null) {
+                return;
+            }
+            String name = cacheName;
+            FunctionTimer.builder("cache.load.duration", cache,
+                            c -> c.stats(name).loadCount(),
+                            c -> c.stats(name).totalLoadTimeNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .tags(getTagsWithCacheName())
+                    .description("Time spent invoking cached methods on a miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.loads", cache, c -> c.stats(name).loadSuccessCount())
+                    .tags(getTagsWithCacheName())
+                    .tag("result", "success")
+                    .description("Invocations of cached methods on a miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.loads", cache, c -> c.stats(name).loadFailureCount())
+                    .tags(getTagsWithCacheName())
+                    .tag("result", "failure")
+                    .description("Invocations of cached methods on a miss")
+                    .register(registry);
+            Gauge.builder("cache.weight", cache, c -> c.stats(name).weight())
+                    .tags(getTagsWithCacheName())
+                    .description("Total weight of the entries in the cache")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.upendramanike.devguard.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader while later callers
+ * wait for its outcome instead of hitting the backend themselves.
+ */
+public class SingleFlight {
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code loader} unless a load for {@code key} is already in flight, in which case its result
+     * (or failure) is shared. A waiter that gets no result within {@code waitMillis} runs the loader
+     * itself; {@code waitMillis <= 0} waits indefinitely.
+     */
+    public Object execute(Object key, long waitMillis, Loader loader) throws Throwable {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader, waitMillis, loader);
+        }
+        try {
+            Object result = loader.load();
+            mine.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Returns {@code true} while a load for {@code key} is running. */
+    public boolean isInFlight(Object key) {
+        return inFlight.containsKey(key);
+    }
+
+    private Object await(CompletableFuture<Object> leader, long waitMillis, Loader loader) throws Throwable {
+        try {
+            return waitMillis > 0 ? leader.get(waitMillis, TimeUnit.MILLISECONDS) : leader.get();
+        } catch (TimeoutException e) {
+            return loader.load();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /** A load that may throw anything the intercepted method throws. */
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Throwable;
+    }
+}
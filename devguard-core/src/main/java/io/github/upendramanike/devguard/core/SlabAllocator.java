@@ -0,0 +1,184 @@
+package io.github.upendramanike.devguard.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Slab allocator over direct memory. Capacity is split into fixed-size slabs that are assigned on
+ * demand to a power-of-two size class and carved into equal chunks, so allocation and release are
+ * O(1) and free space never fragments. Once every slab is assigned, a slab whose chunks are all free
+ * can be {@link #reassign(int, int) reassigned} to another size class, so that memory follows a
+ * changing mix of value sizes. Not thread-safe; callers serialize access.
+ */
+final class SlabAllocator {
+
+    static final int MIN_CHUNK = 64;
+
+    private final int slabSize;
+    private final int maxSlabs;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final long[][] freeLists;
+    private final int[] freeCounts;
+    private final int[] slabCounts;
+    private int[] owners = new int[0];
+    private int[] liveChunks = new int[0];
+    private long usedBytes;
+
+    /**
+     * @param capacityBytes total direct memory to use at most
+     * @param slabSize slab size in bytes, rounded up to a power of two; also the largest chunk
+     */
+    SlabAllocator(long capacityBytes, int slabSize) {
+        this.slabSize = Math.max(MIN_CHUNK, Integer.highestOneBit(slabSize - 1) << 1);
+        this.maxSlabs = (int) Math.min(Integer.MAX_VALUE, capacityBytes / this.slabSize);
+        int classes = Integer.numberOfTrailingZeros(this.slabSize / MIN_CHUNK) + 1;
+        this.freeLists = new long[classes][];
+        this.freeCounts = new int[classes];
+        this.slabCounts = new int[classes];
+    }
+
+    int sizeClasses() {
+        return freeLists.length;
+    }
+
+    /** Returns the size class able to hold {@code length} bytes, or {@code -1} if it exceeds a slab. */
+    int sizeClass(int length) {
+        if (length > slabSize) {
+            return -1;
+        }
+        int chunk = Math.max(MIN_CHUNK, length);
+        int rounded = Integer.bitCount(chunk) == 1 ? chunk : Integer.highestOneBit(chunk) << 1;
+        return Integer.numberOfTrailingZeros(rounded / MIN_CHUNK);
+    }
+
+    int chunkSize(int sizeClass) {
+        return MIN_CHUNK << sizeClass;
+    }
+
+    /** Returns the address of a free chunk of {@code sizeClass}, or {@code -1} when memory is exhausted. */
+    long allocate(int sizeClass) {
+        if (freeCounts[sizeClass] == 0 && !growClass(sizeClass)) {
+            return -1;
+        }
+        usedBytes += chunkSize(sizeClass);
+        long address = freeLists[sizeClass][--freeCounts[sizeClass]];
+        liveChunks[slab(address)]++;
+        return address;
+    }
+
+    void free(int sizeClass, long address) {
+        freeLists[sizeClass][freeCounts[sizeClass]++] = address;
+        liveChunks[slab(address)]--;
+        usedBytes -= chunkSize(sizeClass);
+    }
+
+    /** Number of slabs currently assigned to {@code sizeClass}. */
+    int slabCount(int sizeClass) {
+        return slabCounts[sizeClass];
+    }
+
+    /** Returns a slab of another class than {@code sizeClass} with no chunk in use, or {@code -1}. */
+    int idleSlab(int sizeClass) {
+        for (int i = 0; i < slabs.size(); i++) {
+            if (liveChunks[i] == 0 && owners[i] != sizeClass) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves {@code slab}, none of whose chunks may be in use, to {@code sizeClass} and carves it into
+     * chunks of that class.
+     */
+    void reassign(int slab, int sizeClass) {
+        if (liveChunks[slab] != 0) {
+            throw new IllegalStateException("Slab " + slab + " still has chunks in use");
+        }
+        int previous = owners[slab];
+        long[] free = freeLists[previous];
+        int kept = 0;
+        for (int i = 0; i < freeCounts[previous]; i++) {
+            if (slab(free[i]) != slab) {
+                free[kept++] = free[i];
+            }
+        }
+        freeCounts[previous] = kept;
+        slabCounts[previous]--;
+        carve(slab, sizeClass);
+    }
+
+    void write(long address, byte[] data) {
+        slabs.get(slab(address)).put(offset(address), data);
+    }
+
+    byte[] read(long address, int length) {
+        byte[] data = new byte[length];
+        slabs.get(slab(address)).get(offset(address), data);
+        return data;
+    }
+
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    long reservedBytes() {
+        return (long) slabs.size() * slabSize;
+    }
+
+    long capacityBytes() {
+        return (long) maxSlabs * slabSize;
+    }
+
+    /** Drops all slabs; direct memory is returned once the buffers are collected. */
+    void clear() {
+        slabs.clear();
+        Arrays.fill(freeCounts, 0);
+        Arrays.fill(slabCounts, 0);
+        usedBytes = 0;
+    }
+
+    private boolean growClass(int sizeClass) {
+        if (slabs.size() >= maxSlabs) {
+            return false;
+        }
+        int slabIndex = slabs.size();
+        slabs.add(ByteBuffer.allocateDirect(slabSize));
+        if (owners.length == slabIndex) {
+            owners = Arrays.copyOf(owners, Math.max(8, slabIndex * 2));
+            liveChunks = Arrays.copyOf(liveChunks, owners.length);
+        }
+        liveChunks[slabIndex] = 0;
+        carve(slabIndex, sizeClass);
+        return true;
+    }
+
+    private void carve(int slabIndex, int sizeClass) {
+        owners[slabIndex] = sizeClass;
+        slabCounts[sizeClass]++;
+        int chunk = chunkSize(sizeClass);
+        int chunks = slabSize / chunk;
+        long[] free = freeLists[sizeClass];
+        if (free == null || free.length < freeCounts[sizeClass] + chunks) {
+            long[] grown = new long[Math.max(chunks, (free == null ? 0 : free.length) * 2 + chunks)];
+            if (free != null) {
+                System.arraycopy(free, 0, grown, 0, freeCounts[sizeClass]);
+            }
+            freeLists[sizeClass] = grown;
+        }
+        for (int i = chunks - 1; i >= 0; i--) {
+            freeLists[sizeClass][freeCounts[sizeClass]++] = ((long) slabIndex << 32) | ((long) i * chunk);
+        }
+    }
+
+    /** Index of the slab holding the chunk at {@code address}. */
+    static int slab(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
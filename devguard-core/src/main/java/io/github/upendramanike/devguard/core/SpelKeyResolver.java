@@ -1,36 +1,119 @@
 package io.github.upendramanike.devguard.core;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
-/** Evaluates SpEL key/condition expressions against a {@link MethodInvocationContext}. */
+/**
+ * Evaluates SpEL key/condition expressions against a {@link MethodInvocationContext}.
+ *
+ * <p>Expressions are parsed once per method and expression, and run by the SpEL compiler in
+ * {@link SpelCompilerMode#MIXED mixed} mode: after a few interpreted evaluations they execute as
+ * generated bytecode, falling back to interpretation if an argument's type changes. Caching per method
+ * keeps the types each compiled expression sees stable. The variables of each method (argument names
+ * and positions) are resolved once as well, and {@link #parameterNames()} caches the discovered names,
+ * so {@link MethodInvocationContext#argumentMap()} does not inspect the method on every call.
+ *
+ * <p>Keys and tags that only name a parameter or a property path of one ({@code #userId},
+ * {@code #request.tenantId}) skip SpEL altogether: a {@link KeyExtractor} reads them from the
+ * arguments through method handles, without building an evaluation context.
+ */
 public class SpelKeyResolver {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
-    private final ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, ClassUtils.getDefaultClassLoader()));
+    private final ParameterNameDiscoverer discoverer =
+            new CachingParameterNameDiscoverer(new DefaultParameterNameDiscoverer());
+    private final ConcurrentHashMap<ExpressionKey, Compiled> expressions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, Variables> variables = new ConcurrentHashMap<>();
+    private final ArgumentHasher hasher;
 
+    public SpelKeyResolver() {
+        this(ArgumentHasher.defaults());
+    }
+
+    /** @param hasher derives keys from the arguments when no key expression is given */
+    public SpelKeyResolver(ArgumentHasher hasher) {
+        this.hasher = hasher;
+    }
+
+    /** Discovers parameter names once per method; the returned arrays are shared and must not be modified. */
     public ParameterNameDiscoverer parameterNames() {
         return discoverer;
     }
 
     /**
-     * Resolves the given SpEL expression to a String key. When the expression is blank, a digest of
+     * Resolves the given SpEL expression to a String key. When the expression is blank, a hash of
      * the argument values is returned so callers always get a usable key.
      */
     public String key(String expression, MethodInvocationContext context) {
         if (!StringUtils.hasText(expression)) {
-            return context.argumentDigest();
+            return context.argumentDigest(hasher);
         }
         Object value = evaluate(expression, context, Object.class);
         return value == null ? "null" : value.toString();
     }
 
+    /**
+     * Resolves the given SpEL expression to the raw key value, without converting it to a String;
+     * a {@code null} result becomes the string {@code "null"}. Values that are not immutable, such as
+     * collections, are replaced by a digest of their current state, as in {@link CacheKey}.
+     */
+    public Object keyValue(String expression, MethodInvocationContext context) {
+        Object value = evaluate(expression, context, Object.class);
+        return value == null ? "null" : CacheKey.stable(value, hasher);
+    }
+
+    /** The key of a call without key expression, digesting mutable arguments with this resolver's hasher. */
+    public CacheKey cacheKey(String signature, Object[] arguments) {
+        return new CacheKey(signature, arguments, hasher);
+    }
+
+    /**
+     * Evaluates tag expressions; each may yield one tag or a collection or array of tags, rendered with
+     * {@code toString()}. {@code null} values are skipped.
+     */
+    public List<String> tags(String[] expressions, MethodInvocationContext context) {
+        if (expressions.length == 0) {
+            return List.of();
+        }
+        List<String> tags = new ArrayList<>();
+        for (String expression : expressions) {
+            Object value = evaluate(expression, context, Object.class);
+            if (value instanceof Collection<?> values) {
+                values.forEach(tag -> addTag(tags, tag));
+            } else if (value instanceof Object[] values) {
+                for (Object tag : values) {
+                    addTag(tags, tag);
+                }
+            } else {
+                addTag(tags, value);
+            }
+        }
+        return tags;
+    }
+
+    private static void addTag(List<String> tags, Object tag) {
+        if (tag != null) {
+            tags.add(tag.toString());
+        }
+    }
+
     /** Evaluates a boolean SpEL condition; a blank expression is treated as {@code true}. */
     public boolean condition(String expression, MethodInvocationContext context) {
         if (!StringUtils.hasText(expression)) {
@@ -41,11 +124,97 @@ public class SpelKeyResolver {
     }
 
     private <T> T evaluate(String expression, MethodInvocationContext context, Class<T> type) {
+        ExpressionKey key = new ExpressionKey(context.method(), expression);
+        Compiled compiled = expressions.get(key);
+        if (compiled == null) {
+            compiled = expressions.computeIfAbsent(key, this::compile);
+        }
+        if (type == Object.class && compiled.extractor() != null) {
+            Object value = compiled.extractor().extract(context.arguments());
+            if (value != KeyExtractor.UNRESOLVED) {
+                return type.cast(value);
+            }
+        }
+        Variables methodVariables = variables(context.method());
         StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
-        for (Map.Entry<String, Object> entry : context.argumentMap().entrySet()) {
-            evaluationContext.setVariable(entry.getKey(), entry.getValue());
+        Object[] arguments = context.arguments();
+        String[] names = methodVariables.names();
+        int[] positions = methodVariables.positions();
+        for (int i = 0; i < names.length; i++) {
+            evaluationContext.setVariable(names[i], positions[i] < arguments.length ? arguments[positions[i]] : null);
+        }
+        evaluationContext.setVariable("args", arguments);
+        return compiled.expression().getValue(evaluationContext, type);
+    }
+
+    private Compiled compile(ExpressionKey key) {
+        Expression expression = parser.parseExpression(key.expression());
+        Variables methodVariables = variables(key.method());
+        return new Compiled(expression, KeyExtractor.compile(
+                key.expression(), key.method(), methodVariables.names(), methodVariables.positions()));
+    }
+
+    private Variables variables(Method method) {
+        Variables found = variables.get(method);
+        return found != null ? found : variables.computeIfAbsent(method, m -> Variables.of(m, discoverer));
+    }
+
+    private record ExpressionKey(Method method, String expression) {}
+
+    /** A parsed expression and, for simple parameter paths, an extractor that bypasses it. */
+    private record Compiled(Expression expression, KeyExtractor extractor) {}
+
+    /** Caches the names found by a delegate per method, including methods whose names are unavailable. */
+    private static final class CachingParameterNameDiscoverer implements ParameterNameDiscoverer {
+
+        private static final String[] UNAVAILABLE = new String[0];
+
+        private final ParameterNameDiscoverer delegate;
+        private final ConcurrentHashMap<Method, String[]> names = new ConcurrentHashMap<>();
+
+        CachingParameterNameDiscoverer(ParameterNameDiscoverer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String[] getParameterNames(Method method) {
+            String[] found = names.get(method);
+            if (found == null) {
+                found = names.computeIfAbsent(method, m -> {
+                    String[] discovered = delegate.getParameterNames(m);
+                    return discovered != null ? discovered : UNAVAILABLE;
+                });
+            }
+            return found == UNAVAILABLE ? null : found;
+        }
+
+        @Override
+        public String[] getParameterNames(Constructor<?> ctor) {
+            return delegate.getParameterNames(ctor);
+        }
+    }
+
+    /** Names under which a method's arguments are exposed, with the position of each argument. */
+    private record Variables(String[] names, int[] positions) {
+
+        /** Mirrors {@link MethodInvocationContext#argumentMap()}: parameter names, then {@code a0}/{@code p0}. */
+        static Variables of(Method method, ParameterNameDiscoverer discoverer) {
+            Map<String, Integer> byName = new LinkedHashMap<>();
+            String[] parameterNames = discoverer.getParameterNames(method);
+            int count = method.getParameterCount();
+            if (parameterNames != null) {
+                for (int i = 0; i < parameterNames.length && i < count; i++) {
+                    byName.put(parameterNames[i], i);
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                byName.putIfAbsent("a" + i, i);
+                byName.putIfAbsent("p" + i, i);
+            }
+            byName.remove("args");
+            return new Variables(
+                    byName.keySet().toArray(String[]::new),
+                    byName.values().stream().mapToInt(Integer::intValue).toArray());
         }
-        Expression parsed = parser.parseExpression(expression);
-        return parsed.getValue(evaluationContext, type);
     }
 }
@@ -0,0 +1,66 @@
+package io.github.upendramanike.devguard.core;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary index from tags to the cache entries labelled with them, shared by the {@link ResultCache}
+ * implementations. Each entry keeps its own tags, so the owning cache removes it from the index
+ * wherever the entry leaves the cache (overwrite, eviction, expiry), and the index never refers to
+ * entries that are gone. Callers serialize additions and removals of the same entry.
+ */
+final class TagIndex {
+
+    static final String[] NONE = new String[0];
+
+    private final ConcurrentHashMap<String, Set<Ref>> entries = new ConcurrentHashMap<>();
+
+    static String[] toArray(Collection<String> tags) {
+        return tags == null || tags.isEmpty() ? NONE : tags.toArray(String[]::new);
+    }
+
+    static List<String> toList(String[] tags) {
+        return tags.length == 0 ? List.of() : List.of(tags);
+    }
+
+    void add(String cacheName, Object key, String[] tags) {
+        if (tags.length == 0) {
+            return;
+        }
+        Ref ref = new Ref(cacheName, key);
+        for (String tag : tags) {
+            entries.compute(tag, (t, refs) -> {
+                Set<Ref> result = refs != null ? refs : ConcurrentHashMap.newKeySet();
+                result.add(ref);
+                return result;
+            });
+        }
+    }
+
+    void remove(String cacheName, Object key, String[] tags) {
+        if (tags.length == 0) {
+            return;
+        }
+        Ref ref = new Ref(cacheName, key);
+        for (String tag : tags) {
+            entries.computeIfPresent(tag, (t, refs) -> {
+                refs.remove(ref);
+                return refs.isEmpty() ? null : refs;
+            });
+        }
+    }
+
+    /** Removes {@code tag} and returns the entries it labelled, which the caller then evicts. */
+    Set<Ref> drain(String tag) {
+        Set<Ref> refs = entries.remove(tag);
+        return refs != null ? refs : Set.of();
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    record Ref(String cacheName, Object key) {}
+}
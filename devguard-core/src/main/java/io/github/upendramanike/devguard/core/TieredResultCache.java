@@ -0,0 +1,166 @@
+package io.github.upendramanike.devguard.core;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Two-level {@link ResultCache}: a fast first level (typically {@link InMemoryResultCache}) in front
+ * of a larger second level such as {@link OffHeapResultCache}. Writes go to both levels; a first-level
+ * miss that hits the second level is promoted back with its remaining time-to-live and its tags.
+ * Evictions, by key or by tag, apply to both levels.
+ *
+ * <p>{@link #stats(String) Statistics} describe the cache as a whole: a lookup hits if either level
+ * has the value, evictions of both levels are summed, and size and weight are those of the first
+ * level. Loads are recorded in the first level.
+ */
+public class TieredResultCache implements ResultCache, AutoCloseable {
+
+    private final ResultCache l1;
+    private final ResultCache l2;
+
+    public TieredResultCache(ResultCache l1, ResultCache l2) {
+        this.l1 = l1;
+        this.l2 = l2;
+    }
+
+    public ResultCache l1() {
+        return l1;
+    }
+
+    public ResultCache l2() {
+        return l2;
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return get(cacheName, (Object) key);
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, long ttlSeconds) {
+        put(cacheName, (Object) key, value, ttlSeconds);
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Object value = l1.get(cacheName, key);
+        if (value != null) {
+            return value;
+        }
+        Entry entry = promote(cacheName, key);
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    public Entry getEntry(String cacheName, Object key) {
+        Entry entry = l1.getEntry(cacheName, key);
+        return entry != null ? entry : promote(cacheName, key);
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds) {
+        l1.put(cacheName, key, value, ttlSeconds);
+        l2.put(cacheName, key, value, ttlSeconds);
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, long ttlSeconds, Collection<String> tags) {
+        l1.put(cacheName, key, value, ttlSeconds, tags);
+        l2.put(cacheName, key, value, ttlSeconds, tags);
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        l2.evict(cacheName, key);
+        l1.evict(cacheName, key);
+    }
+
+    @Override
+    public void evictByTag(String tag) {
+        l2.evictByTag(tag);
+        l1.evictByTag(tag);
+    }
+
+    @Override
+    public CacheStats stats(String cacheName) {
+        CacheStats first = l1.stats(cacheName);
+        CacheStats second = l2.stats(cacheName);
+        return new CacheStats(
+                first.hitCount() + second.hitCount(),
+                second.missCount(),
+                first.putCount(),
+                first.loadSuccessCount(),
+                first.loadFailureCount(),
+                first.totalLoadTimeNanos(),
+                first.evictionCount() + second.evictionCount(),
+                first.size(),
+                first.weight());
+    }
+
+    @Override
+    public Set<String> cacheNames() {
+        Set<String> names = new HashSet<>(l1.cacheNames());
+        names.addAll(l2.cacheNames());
+        return names;
+    }
+
+    /** Ranks the first level, which serves (and counts) the reads of hot entries. */
+    @Override
+    public List<HotEntry> hottest(String cacheName, int limit) {
+        return l1.hottest(cacheName, limit);
+    }
+
+    @Override
+    public void recordLoad(String cacheName, long loadNanos, boolean success) {
+        l1.recordLoad(cacheName, loadNanos, success);
+    }
+
+    /**
+     * Closes both levels that are {@link AutoCloseable}, the second even if closing the first fails.
+     * A failure is rethrown unchecked, with the failure of the other level suppressed.
+     */
+    @Override
+    public void close() {
+        RuntimeException failure = close(l1, null);
+        failure = close(l2, failure);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException close(ResultCache level, RuntimeException failure) {
+        if (!(level instanceof AutoCloseable closeable)) {
+            return failure;
+        }
+        try {
+            closeable.close();
+            return failure;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                failure.addSuppressed(e);
+                return failure;
+            }
+            return e instanceof RuntimeException unchecked
+                    ? unchecked : new IllegalStateException("Failed to close " + level, e);
+        }
+    }
+
+    private Entry promote(String cacheName, Object key) {
+        Entry entry = l2.getEntry(cacheName, key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() != Long.MAX_VALUE) {
+            long remainingSeconds = (entry.expiresAtMillis() - System.currentTimeMillis()) / 1000;
+            if (remainingSeconds > 0) {
+                l1.put(cacheName, key, entry.value(), remainingSeconds, entry.tags());
+            }
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.upendramanike.devguard.core;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hierarchical timing wheel that runs expiry callbacks for the in-memory TTL stores, so entries that
+ * are never read again are still removed.
+ *
+ * <p>Scheduling and cancellation are O(1): {@link #schedule} only enqueues, and a single daemon thread
+ * moves timeouts into slots of {@value #LEVELS} wheels of {@value #WHEEL_SIZE} slots each, cascading
+ * them towards the finest wheel as their deadline approaches. Callbacks run on that thread and must
+ * be short. Deadlines are honoured with a resolution of one tick.
+ */
+public class TimingWheel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+    private static final int LEVELS = 4;
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long MAX_DELTA_TICKS = (1L << (LEVELS * WHEEL_BITS)) - 1;
+
+    private static volatile TimingWheel shared;
+
+    private final long tickMillis;
+    private final ConcurrentLinkedQueue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Timeout[][] wheels = new Timeout[LEVELS][WHEEL_SIZE];
+    private long currentTick;
+    private volatile ScheduledExecutorService ticker;
+    private volatile boolean closed;
+
+    /** Creates a wheel with a one second tick. */
+    public TimingWheel() {
+        this(1000);
+    }
+
+    public TimingWheel(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    /** Process-wide wheel used by stores created without an explicit one; its thread is a daemon. */
+    public static TimingWheel shared() {
+        TimingWheel wheel = shared;
+        if (wheel == null) {
+            synchronized (TimingWheel.class) {
+                wheel = shared;
+                if (wheel == null) {
+                    wheel = new TimingWheel();
+                    shared = wheel;
+                }
+            }
+        }
+        return wheel;
+    }
+
+    /**
+     * Runs {@code task} once {@code deadlineMillis} (epoch millis) has passed, unless the returned
+     * timeout is cancelled first. Once the wheel is closed the task is never run.
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), task);
+        if (closed) {
+            timeout.cancel();
+            return timeout;
+        }
+        pending.add(timeout);
+        startIfNeeded();
+        return timeout;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        pending.clear();
+    }
+
+    private void startIfNeeded() {
+        if (ticker != null) {
+            return;
+        }
+        synchronized (this) {
+            if (ticker != null || closed) {
+                return;
+            }
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "devguard-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Processes every tick up to the current time; only ever called from the ticker thread. */
+    void advance() {
+        long nowTick = System.currentTimeMillis() / tickMillis;
+        while (currentTick <= nowTick) {
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * WHEEL_BITS)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            for (Timeout timeout; (timeout = pending.poll()) != null; ) {
+                place(timeout);
+            }
+            int slot = (int) (currentTick & WHEEL_MASK);
+            Timeout timeout = wheels[0][slot];
+            wheels[0][slot] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                if (timeout.deadlineTick <= currentTick) {
+                    timeout.expire();
+                } else {
+                    place(timeout);
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+    }
+
+    private void cascade(int level) {
+        int slot = (int) ((currentTick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+        Timeout timeout = wheels[level][slot];
+        wheels[level][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout timeout) {
+        if (timeout.task == null) {
+            return;
+        }
+        long delta = Math.min(Math.max(0, timeout.deadlineTick - currentTick), MAX_DELTA_TICKS);
+        long target = currentTick + delta;
+        int level = 0;
+        while (delta >= (1L << ((level + 1) * WHEEL_BITS))) {
+            level++;
+        }
+        int slot = (int) ((target >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+        timeout.next = wheels[level][slot];
+        wheels[level][slot] = timeout;
+    }
+
+    /** Handle to a scheduled callback. */
+    public static final class Timeout {
+
+        private final long deadlineTick;
+        private volatile Runnable task;
+        private Timeout next;
+
+        Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        /** Prevents the callback from running and releases its reference; safe to call repeatedly. */
+        public void cancel() {
+            task = null;
+        }
+
+        public boolean isCancelled() {
+            return task == null;
+        }
+
+        private void expire() {
+            Runnable current = task;
+            task = null;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.run();
+            } catch (RuntimeException e) {
+                log.warn("Expiry callback failed: {}", e.toString());
+            }
+        }
+    }
+}
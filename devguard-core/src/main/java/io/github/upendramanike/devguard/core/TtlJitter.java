@@ -0,0 +1,42 @@
+package io.github.upendramanike.devguard.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the time-to-live of each entry from its configured TTL. Entries written together, e.g. when
+ * caches are warmed after a deploy, then expire across a window instead of in the same second, so
+ * the reloads reach the backend gradually. Implement it to use your own distribution.
+ */
+@FunctionalInterface
+public interface TtlJitter {
+
+    /** Uses the configured TTL unchanged. */
+    TtlJitter NONE = ttlSeconds -> ttlSeconds;
+
+    /** Returns the TTL, in seconds, to store one entry with. */
+    long apply(long ttlSeconds);
+
+    /**
+     * Shortens each TTL by a uniformly distributed random amount of up to {@code ratio} of it, so
+     * entries never outlive their configured TTL: with a ratio of 0.1, a 300 second TTL becomes
+     * 270 to 300 seconds. A jittered TTL is at least one second, even with a ratio of 1, so an entry
+     * never ends up without expiry or without a window (such as an idempotency key's). Non-positive
+     * TTLs are left as they are.
+     *
+     * @param ratio fraction of the TTL to spread expiry over, from 0 (no jitter) to 1
+     */
+    static TtlJitter uniform(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("ratio must be between 0 and 1");
+        }
+        if (ratio == 0) {
+            return NONE;
+        }
+        return ttlSeconds -> {
+            long spread = (long) (ttlSeconds * ratio);
+            return spread <= 0
+                    ? ttlSeconds
+                    : Math.max(1, ttlSeconds - ThreadLocalRandom.current().nextLong(spread + 1));
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.upendramanike.devguard.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.upendramanike.devguard.annotations.Secure;
+import io.github.upendramanike.devguard.core.AccessDeniedException;
+import io.github.upendramanike.devguard.core.SecurityContextProvider;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.support.AopUtils;
+
+class AspectsTest {
+
+    private final SecureAspect aspect = new SecureAspect(
+            () -> new SecurityContextProvider.Principal("guest", Set.of(), Set.of()));
+
+    @Test
+    void describesMethodsPerImplementationOfSharedInterface() {
+        Greeter open = proxy(new OpenGreeter());
+        Greeter admin = proxy(new AdminGreeter());
+        assertThat(AopUtils.isJdkDynamicProxy(open)).isTrue();
+
+        assertThat(open.greet()).isEqualTo("open");
+        assertThatThrownBy(admin::greet).isInstanceOf(AccessDeniedException.class);
+        assertThat(open.greet()).isEqualTo("open");
+    }
+
+    private Greeter proxy(Greeter target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    interface Greeter {
+        String greet();
+    }
+
+    static class OpenGreeter implements Greeter {
+
+        @Override
+        @Secure
+        public String greet() {
+            return "open";
+        }
+    }
+
+    static class AdminGreeter implements Greeter {
+
+        @Override
+        @Secure(roles = "admin")
+        public String greet() {
+            return "admin";
+        }
+    }
+}
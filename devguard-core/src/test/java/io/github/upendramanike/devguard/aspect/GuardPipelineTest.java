@@ -0,0 +1,54 @@
+package io.github.upendramanike.devguard.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.devguard.annotations.FeatureFlag;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+
+class GuardPipelineTest {
+
+    private final GuardPipeline pipeline = new GuardPipeline(List.of(new FeatureFlagAspect("on"::equals)));
+
+    @Test
+    void resolvesGuardsPerImplementationOfSharedInterface() {
+        Greeter plain = proxy(new PlainGreeter());
+        Greeter flagged = proxy(new FlaggedGreeter());
+        assertThat(AopUtils.isJdkDynamicProxy(plain)).isTrue();
+
+        assertThat(plain.greet()).isEqualTo("plain");
+        assertThat(flagged.greet()).isNull();
+        assertThat(plain.greet()).isEqualTo("plain");
+    }
+
+    private Greeter proxy(Greeter target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(Greeter.class);
+        factory.addAdvisor(pipeline);
+        return (Greeter) factory.getProxy();
+    }
+
+    interface Greeter {
+        String greet();
+    }
+
+    static class PlainGreeter implements Greeter {
+
+        @Override
+        @FeatureFlag("on")
+        public String greet() {
+            return "plain";
+        }
+    }
+
+    static class FlaggedGreeter implements Greeter {
+
+        @Override
+        @FeatureFlag("off")
+        public String greet() {
+            return "flagged";
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.upendramanike.devguard.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.devguard.annotations.CacheEvict;
+import io.github.upendramanike.devguard.annotations.CacheResult;
+import io.github.upendramanike.devguard.annotations.Retry;
+import io.github.upendramanike.devguard.annotations.Secure;
+import io.github.upendramanike.devguard.aspect.GuardPipeline;
+import io.github.upendramanike.devguard.aspect.RetryAspect;
+import io.github.upendramanike.devguard.aspect.SecureAspect;
+import io.github.upendramanike.devguard.core.ArgumentHasher;
+import io.github.upendramanike.devguard.core.ResultCache;
+import io.github.upendramanike.devguard.core.TtlJitter;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+class AspectActivationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DevGuardAutoConfiguration.class))
+            .withUserConfiguration(App.class);
+
+    @Test
+    void registersEveryAspectByDefault() {
+        runner.run(context -> assertThat(context)
+                .hasSingleBean(RetryAspect.class)
+                .hasSingleBean(SecureAspect.class)
+                .doesNotHaveBean(DevGuardAnnotationIndex.class));
+    }
+
+    @Test
+    void registersOnlyAspectsOfUsedAnnotations() {
+        runner.withPropertyValues("devguard.pipeline.only-used=true").run(context -> {
+            assertThat(context).hasSingleBean(RetryAspect.class).doesNotHaveBean(SecureAspect.class);
+            assertThat(AopUtils.isAopProxy(context.getBean(Inherited.class))).isTrue();
+            assertThat(AopUtils.isAopProxy(context.getBean(Plain.class))).isFalse();
+        });
+    }
+
+    @Test
+    void fusedPipelineMatchesOnlyIndexedClasses() {
+        runner.withPropertyValues("devguard.pipeline.fused=true", "devguard.pipeline.only-used=true").run(context -> {
+            GuardPipeline pipeline = context.getBean(GuardPipeline.class);
+            assertThat(pipeline.getPointcut().getClassFilter().matches(Inherited.class)).isTrue();
+            assertThat(pipeline.getPointcut().getClassFilter().matches(Plain.class)).isFalse();
+            assertThat(context.getBean(Inherited.class).call()).isEqualTo("ok");
+            assertThat(AopUtils.isAopProxy(context.getBean(Inherited.class))).isTrue();
+        });
+    }
+
+    @Test
+    void indexSeesTypeLevelAnnotations() {
+        runner.withPropertyValues("devguard.pipeline.only-used=true")
+                .withBean(Admin.class)
+                .run(context -> assertThat(context).hasSingleBean(SecureAspect.class));
+    }
+
+    @Test
+    void cacheEvictToleratesCachesWithoutEviction() {
+        runner.withBean(ResultCache.class, PutOnlyCache::new)
+                .withBean(Evicting.class)
+                .run(context -> assertThat(context.getBean(Evicting.class).update(42L)).isEqualTo("updated"));
+    }
+
+    @Test
+    void keySecretSwitchesToKeyedDigests() {
+        Object[] arguments = {"order-1"};
+        runner.withPropertyValues("devguard.keys.secret=s3cret").run(context -> assertThat(
+                context.getBean(ArgumentHasher.class).digest(arguments))
+                .isEqualTo(ArgumentHasher.keyed("s3cret".getBytes(StandardCharsets.UTF_8)).digest(arguments))
+                .isNotEqualTo(new ArgumentHasher().digest(arguments)));
+    }
+
+    @Test
+    void ttlJitterBeanReplacesConfiguredJitter() {
+        runner.withBean(TtlJitter.class, () -> ttl -> 7)
+                .withBean(Cached.class)
+                .run(context -> {
+                    context.getBean(Cached.class).find(1L);
+                    long expiresAt = context.getBean(ResultCache.class).hottest("cached", 1).get(0).entry()
+                            .expiresAtMillis();
+                    assertThat(expiresAt - System.currentTimeMillis()).isBetween(5_000L, 7_000L);
+                });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class App {
+
+        @Bean
+        Inherited inherited() {
+            return new Inherited();
+        }
+
+        @Bean
+        Plain plain() {
+            return new Plain();
+        }
+    }
+
+    static class Guarded {
+
+        @Retry(attempts = 2, delay = 0)
+        public String call() {
+            return "ok";
+        }
+    }
+
+    static class Inherited extends Guarded {
+    }
+
+    static class Plain {
+
+        public String call() {
+            return "ok";
+        }
+    }
+
+    @Secure(roles = "ADMIN")
+    static class Admin {
+
+        public String report() {
+            return "report";
+        }
+    }
+
+    static class Cached {
+
+        @CacheResult(cacheName = "cached", key = "#id", ttl = 60)
+        public String find(Long id) {
+            return "found";
+        }
+    }
+
+    static class Evicting {
+
+        @CacheEvict(cacheName = "users", key = "#id", tags = "'user:' + #id")
+        public String update(Long id) {
+            return "updated";
+        }
+    }
+
+    static class PutOnlyCache implements ResultCache {
+
+        @Override
+        public Object get(String cacheName, String key) {
+            return null;
+        }
+
+        @Override
+        public void put(String cacheName, String key, Object value, long ttlSeconds) {
+        }
+    }
+}
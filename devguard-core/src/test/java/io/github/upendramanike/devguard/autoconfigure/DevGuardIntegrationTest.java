@@ -3,6 +3,8 @@ package io.github.upendramanike.devguard.autoconfigure;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import io.github.upendramanike.devguard.annotations.Audit;
+import io.github.upendramanike.devguard.annotations.CacheEvict;
 import io.github.upendramanike.devguard.annotations.CacheResult;
 import io.github.upendramanike.devguard.annotations.CircuitBreaker;
 import io.github.upendramanike.devguard.annotations.FeatureFlag;
@@ -11,8 +13,20 @@ import io.github.upendramanike.devguard.annotations.RateLimit;
 import io.github.upendramanike.devguard.annotations.Retry;
 import io.github.upendramanike.devguard.annotations.Secure;
 import io.github.upendramanike.devguard.core.AccessDeniedException;
+import io.github.upendramanike.devguard.core.AuditEvent;
+import io.github.upendramanike.devguard.core.AuditSink;
 import io.github.upendramanike.devguard.core.CircuitOpenException;
 import io.github.upendramanike.devguard.core.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +41,9 @@ import org.springframework.test.context.TestPropertySource;
 class DevGuardIntegrationTest {
 
     @Autowired GuardedService service;
+    @Autowired AdminService adminService;
+    @Autowired RecordingAuditSink auditSink;
+    @Autowired MeterRegistry registry;
 
     @Test
     void retryEventuallySucceeds() {
@@ -57,6 +74,126 @@ class DevGuardIntegrationTest {
         assertThat(service.loadCount()).isEqualTo(1);
     }
 
+    @Test
+    void cacheResultCachesNullWhenRequested() {
+        assertThat(service.findMissing(404L)).isNull();
+        assertThat(service.findMissing(404L)).isNull();
+        assertThat(service.missingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cacheResultRefreshesAheadOfExpiry() throws InterruptedException {
+        assertThat(service.refreshed(1L)).isEqualTo(1);
+        assertThat(service.refreshed(1L)).isEqualTo(1);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (service.refreshCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertThat(service.refreshed(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void cacheResultPublishesMeters() {
+        service.priced("a");
+        service.priced("a");
+        service.priced("b");
+        assertThat(registry.get("cache.gets").tags("cache", "prices", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "prices", "result", "miss").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("cache.loads").tags("cache", "prices", "result", "success").functionCounter()
+                .count()).isEqualTo(2);
+        assertThat(registry.get("cache.size").tag("cache", "prices").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheResultSharesPendingFutureAndCachesItsValue() {
+        int before = service.quoteCount();
+        CompletableFuture<String> first = service.quote("x");
+        CompletableFuture<String> second = service.quote("x");
+        assertThat(service.quoteCount()).isEqualTo(before + 1);
+        assertThat(first).isNotSameAs(second).isNotDone();
+
+        service.pendingQuote().complete("X");
+        assertThat(first.join()).isEqualTo("X");
+        assertThat(second.join()).isEqualTo("X");
+        assertThat(service.quote("x")).isCompletedWithValue("X");
+        assertThat(service.quoteCount()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void cacheResultDoesNotCacheFailedFutures() {
+        int before = service.quoteCount();
+        CompletableFuture<String> failed = service.quote("y");
+        service.pendingQuote().completeExceptionally(new IllegalStateException("down"));
+        assertThatThrownBy(failed::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+
+        CompletableFuture<String> retried = service.quote("y");
+        assertThat(service.quoteCount()).isEqualTo(before + 2);
+        service.pendingQuote().complete("Y");
+        assertThat(retried.join()).isEqualTo("Y");
+    }
+
+    @Test
+    void cacheResultPassesOnNullFutures() {
+        assertThat(service.unquoted("z")).isNull();
+        assertThat(service.unquoted("z")).isNull();
+    }
+
+    @Test
+    void cacheResultRefreshesFuturesOffTheCallingThread() throws InterruptedException {
+        assertThat(service.liveQuote("a").join()).isEqualTo("A");
+        assertThat(service.liveQuote("a").join()).isEqualTo("A");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (service.liveQuoteThreads().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.liveQuoteThreads()).hasSize(2);
+        assertThat(service.liveQuoteThreads().get(1)).startsWith("devguard-cache-refresh-");
+    }
+
+    @Test
+    void cacheResultBatchLoadsOnlyMissingElements() {
+        assertThat(service.findByIds(List.of(1L, 2L))).containsExactly(Map.entry(1L, "u1"), Map.entry(2L, "u2"));
+        assertThat(service.findByIds(List.of(3L, 2L, 404L, 1L)))
+                .containsExactly(Map.entry(3L, "u3"), Map.entry(2L, "u2"), Map.entry(1L, "u1"));
+        assertThat(service.findByIds(List.of(404L, 3L))).containsExactly(Map.entry(3L, "u3"));
+        assertThat(service.batchRequests()).containsExactly(List.of(1L, 2L), List.of(3L, 404L));
+    }
+
+    @Test
+    void cacheEvictRemovesEntriesByTagAndKey() {
+        assertThat(service.customer(5L)).isEqualTo("c5");
+        assertThat(service.customer(5L)).isEqualTo("c5");
+        assertThat(service.customerLoads()).isEqualTo(1);
+
+        service.updateCustomer(5L);
+        assertThat(service.customer(5L)).isEqualTo("c5");
+        assertThat(service.customerLoads()).isEqualTo(2);
+
+        service.forgetCustomer(5L);
+        assertThat(service.customer(5L)).isEqualTo("c5");
+        assertThat(service.customerLoads()).isEqualTo(3);
+    }
+
+    @Test
+    void cacheEvictWaitsForCompletionStage() {
+        service.customer(6L);
+        int loads = service.customerLoads();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        CompletionStage<Void> update = service.updateCustomerLater(6L, done);
+        service.customer(6L);
+        assertThat(service.customerLoads()).isEqualTo(loads);
+
+        done.complete(null);
+        update.toCompletableFuture().join();
+        service.customer(6L);
+        assertThat(service.customerLoads()).isEqualTo(loads + 1);
+    }
+
     @Test
     void featureFlagEnabledRuns() {
         assertThat(service.payV2()).isEqualTo("v2");
@@ -72,6 +209,21 @@ class DevGuardIntegrationTest {
         assertThatThrownBy(service::adminOnly).isInstanceOf(AccessDeniedException.class);
     }
 
+    @Test
+    void secureOnClassGuardsEveryMethod() {
+        assertThatThrownBy(adminService::report).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void stackedGuardsNestInAspectOrder() {
+        assertThat(service.stacked(1L)).isEqualTo("s1");
+        assertThat(service.stacked(1L)).isEqualTo("s1");
+        assertThat(service.stackedAttempts()).isEqualTo(2);
+        // @Audit is innermost: it sees each attempt made by @Retry, and nothing on the cache hit
+        assertThat(auditSink.events()).filteredOn(event -> event.action().equals("stacked"))
+                .extracting(AuditEvent::success).containsExactly(false, true);
+    }
+
     @Test
     void circuitBreakerOpensAfterFailures() {
         assertThatThrownBy(service::alwaysFails).isInstanceOf(IllegalStateException.class);
@@ -82,10 +234,47 @@ class DevGuardIntegrationTest {
     @Configuration
     @ImportAutoConfiguration(DevGuardAutoConfiguration.class)
     static class App {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
         @Bean
         GuardedService guardedService() {
             return new GuardedService();
         }
+
+        @Bean
+        AdminService adminService() {
+            return new AdminService();
+        }
+
+        @Bean
+        RecordingAuditSink recordingAuditSink() {
+            return new RecordingAuditSink();
+        }
+    }
+
+    static class RecordingAuditSink implements AuditSink {
+
+        private final List<AuditEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void record(AuditEvent event) {
+            events.add(event);
+        }
+
+        List<AuditEvent> events() {
+            return events;
+        }
+    }
+
+    @Secure(roles = {"ADMIN"})
+    static class AdminService {
+
+        public String report() {
+            return "report";
+        }
     }
 
     static class GuardedService {
@@ -93,6 +282,14 @@ class DevGuardIntegrationTest {
         final AtomicInteger flakyAttempts = new AtomicInteger();
         final AtomicInteger chargeCount = new AtomicInteger();
         final AtomicInteger loadCount = new AtomicInteger();
+        final AtomicInteger refreshCount = new AtomicInteger();
+        final AtomicInteger missingCount = new AtomicInteger();
+        final AtomicInteger quoteCount = new AtomicInteger();
+        final AtomicInteger customerLoads = new AtomicInteger();
+        final AtomicInteger stackedAttempts = new AtomicInteger();
+        volatile CompletableFuture<String> pendingQuote;
+        final List<List<Long>> batchRequests = new ArrayList<>();
+        final List<String> liveQuoteThreads = new CopyOnWriteArrayList<>();
 
         public int flakyAttempts() {
             return flakyAttempts.get();
@@ -106,6 +303,38 @@ class DevGuardIntegrationTest {
             return loadCount.get();
         }
 
+        public int refreshCount() {
+            return refreshCount.get();
+        }
+
+        public int missingCount() {
+            return missingCount.get();
+        }
+
+        public int quoteCount() {
+            return quoteCount.get();
+        }
+
+        public int customerLoads() {
+            return customerLoads.get();
+        }
+
+        public int stackedAttempts() {
+            return stackedAttempts.get();
+        }
+
+        public CompletableFuture<String> pendingQuote() {
+            return pendingQuote;
+        }
+
+        public List<List<Long>> batchRequests() {
+            return batchRequests;
+        }
+
+        public List<String> liveQuoteThreads() {
+            return liveQuoteThreads;
+        }
+
         @Retry(attempts = 3, delay = 1, backoff = 1.0)
         public String flakyCall() {
             if (flakyAttempts.incrementAndGet() < 3) {
@@ -129,6 +358,71 @@ class DevGuardIntegrationTest {
             return loadCount.incrementAndGet();
         }
 
+        @CacheResult(ttl = 60, key = "#id", refreshAheadSeconds = 60)
+        public int refreshed(Long id) {
+            return refreshCount.incrementAndGet();
+        }
+
+        @CacheResult(ttl = 60, key = "#ids", batch = true, cacheNull = true)
+        public Map<Long, String> findByIds(List<Long> ids) {
+            batchRequests.add(List.copyOf(ids));
+            Map<Long, String> users = new LinkedHashMap<>();
+            for (Long id : ids) {
+                if (id != 404L) {
+                    users.put(id, "u" + id);
+                }
+            }
+            return users;
+        }
+
+        @CacheResult(ttl = 60, cacheName = "customers", key = "#id", tags = "'customer:' + #id")
+        public String customer(Long id) {
+            customerLoads.incrementAndGet();
+            return "c" + id;
+        }
+
+        @CacheEvict(tags = "'customer:' + #id")
+        public void updateCustomer(Long id) {
+        }
+
+        @CacheEvict(cacheName = "customers", key = "#id")
+        public void forgetCustomer(Long id) {
+        }
+
+        @CacheEvict(cacheName = "customers", key = "#id")
+        public CompletionStage<Void> updateCustomerLater(Long id, CompletableFuture<Void> done) {
+            return done.minimalCompletionStage();
+        }
+
+        @CacheResult(ttl = 60, cacheName = "quotes", key = "#symbol")
+        public CompletableFuture<String> quote(String symbol) {
+            quoteCount.incrementAndGet();
+            pendingQuote = new CompletableFuture<>();
+            return pendingQuote;
+        }
+
+        @CacheResult(ttl = 60, cacheName = "liveQuotes", key = "#symbol", refreshAheadSeconds = 60)
+        public CompletableFuture<String> liveQuote(String symbol) {
+            liveQuoteThreads.add(Thread.currentThread().getName());
+            return CompletableFuture.completedFuture(symbol.toUpperCase());
+        }
+
+        @CacheResult(ttl = 60, cacheName = "unquoted", key = "#symbol")
+        public CompletableFuture<String> unquoted(String symbol) {
+            return null;
+        }
+
+        @CacheResult(ttl = 60, cacheName = "prices", key = "#sku")
+        public String priced(String sku) {
+            return sku.toUpperCase();
+        }
+
+        @CacheResult(ttl = 60, key = "#id", cacheNull = true, nullTtl = 30)
+        public String findMissing(Long id) {
+            missingCount.incrementAndGet();
+            return null;
+        }
+
         @FeatureFlag("NEW_PAYMENT")
         public String payV2() {
             return "v2";
@@ -144,6 +438,18 @@ class DevGuardIntegrationTest {
             return "secret";
         }
 
+        @RateLimit(requests = 100, duration = 60)
+        @CircuitBreaker(name = "stacked")
+        @CacheResult(ttl = 60, cacheName = "stacked", key = "#id")
+        @Retry(attempts = 3, delay = 1, backoff = 1.0)
+        @Audit(action = "stacked")
+        public String stacked(Long id) {
+            if (stackedAttempts.incrementAndGet() % 2 == 1) {
+                throw new IllegalStateException("transient");
+            }
+            return "s" + id;
+        }
+
         @CircuitBreaker(failureThreshold = 2, openMillis = 10_000)
         public String alwaysFails() {
             throw new IllegalStateException("boom");
@@ -0,0 +1,26 @@
+package io.github.upendramanike.devguard.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.devguard.aspect.GuardPipeline;
+import io.github.upendramanike.devguard.aspect.RetryAspect;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+/** Runs every {@link DevGuardIntegrationTest} scenario with the aspects fused into one {@link GuardPipeline}. */
+@TestPropertySource(properties = {"devguard.pipeline.fused=true"})
+class FusedPipelineIntegrationTest extends DevGuardIntegrationTest {
+
+    @Autowired ApplicationContext context;
+
+    @Test
+    void guardedBeansCarryOnlyThePipeline() {
+        assertThat(context.getBeansOfType(RetryAspect.class)).isEmpty();
+        Advisor[] advisors = ((Advised) service).getAdvisors();
+        assertThat(advisors).hasSize(1).allMatch(GuardPipeline.class::isInstance);
+    }
+}
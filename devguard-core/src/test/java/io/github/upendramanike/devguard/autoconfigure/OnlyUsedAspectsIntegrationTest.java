@@ -0,0 +1,8 @@
+package io.github.upendramanike.devguard.autoconfigure;
+
+import org.springframework.test.context.TestPropertySource;
+
+/** Runs every {@link DevGuardIntegrationTest} scenario with only the aspects of used annotations registered. */
+@TestPropertySource(properties = {"devguard.pipeline.only-used=true"})
+class OnlyUsedAspectsIntegrationTest extends DevGuardIntegrationTest {
+}
@@ -0,0 +1,61 @@
+package io.github.upendramanike.devguard.benchmark;
+
+import io.github.upendramanike.devguard.core.ArgumentHasher;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Default argument keys: {@code Arrays.deepToString} versus the {@link ArgumentHasher} digest. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentKeyBenchmark {
+
+    public record LineItem(String sku, int quantity, double price) {}
+
+    @Param({"1", "100"})
+    public int items;
+
+    private final ArgumentHasher hasher = new ArgumentHasher();
+    private Object[] args;
+
+    @Setup
+    public void setUp() {
+        List<LineItem> lines = IntStream.range(0, items)
+                .mapToObj(i -> new LineItem("SKU-" + i, i, i * 1.5))
+                .toList();
+        args = new Object[] {"tenant-7", 42L, lines};
+    }
+
+    @Benchmark
+    public String deepToString() {
+        return Arrays.deepToString(args);
+    }
+
+    @Benchmark
+    public String hashed() {
+        return hasher.digest(args);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ArgumentKeyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.upendramanike.devguard.benchmark;
+
+import io.github.upendramanike.devguard.annotations.Audit;
+import io.github.upendramanike.devguard.annotations.Bulkhead;
+import io.github.upendramanike.devguard.annotations.CircuitBreaker;
+import io.github.upendramanike.devguard.annotations.DistributedLock;
+import io.github.upendramanike.devguard.annotations.RateLimit;
+import io.github.upendramanike.devguard.annotations.Retry;
+import io.github.upendramanike.devguard.aspect.AuditAspect;
+import io.github.upendramanike.devguard.aspect.BulkheadAspect;
+import io.github.upendramanike.devguard.aspect.CircuitBreakerAspect;
+import io.github.upendramanike.devguard.aspect.DistributedLockAspect;
+import io.github.upendramanike.devguard.aspect.GuardPipeline;
+import io.github.upendramanike.devguard.aspect.RateLimitAspect;
+import io.github.upendramanike.devguard.aspect.RetryAspect;
+import io.github.upendramanike.devguard.core.BulkheadRegistry;
+import io.github.upendramanike.devguard.core.CircuitBreakerRegistry;
+import io.github.upendramanike.devguard.core.InMemoryLockProvider;
+import io.github.upendramanike.devguard.core.NoOpSecurityContextProvider;
+import io.github.upendramanike.devguard.core.RateLimiterRegistry;
+import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Calling a method guarded by six annotations through a proxy carrying one advisor per aspect (the
+ * default) versus a single {@link GuardPipeline}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuardPipelineBenchmark {
+
+    public static class PaymentService {
+
+        @DistributedLock(key = "#userId")
+        @RateLimit(key = "#userId", requests = Integer.MAX_VALUE, duration = 1)
+        @Bulkhead(maxConcurrent = 64)
+        @CircuitBreaker
+        @Retry
+        @Audit(action = "pay")
+        public String pay(String userId, long amount) {
+            return userId;
+        }
+    }
+
+    private PaymentService separate;
+    private PaymentService fused;
+
+    @Setup
+    public void setUp() {
+        AspectJProxyFactory perAspect = new AspectJProxyFactory(new PaymentService());
+        perAspect.setProxyTargetClass(true);
+        aspects().forEach(perAspect::addAspect);
+        separate = perAspect.getProxy();
+
+        ProxyFactory pipeline = new ProxyFactory(new PaymentService());
+        pipeline.setProxyTargetClass(true);
+        pipeline.addAdvisor(new GuardPipeline(aspects()));
+        fused = (PaymentService) pipeline.getProxy();
+    }
+
+    @Benchmark
+    public String separateAdvice() {
+        return separate.pay("user-42", 1250);
+    }
+
+    @Benchmark
+    public String fusedPipeline() {
+        return fused.pay("user-42", 1250);
+    }
+
+    /** The aspects in {@code @Order} order, as the auto-configuration would apply them. */
+    private static List<Object> aspects() {
+        SpelKeyResolver spel = new SpelKeyResolver();
+        return List.of(
+                new DistributedLockAspect(new InMemoryLockProvider(), spel),
+                new RateLimitAspect(new RateLimiterRegistry(), spel),
+                new BulkheadAspect(new BulkheadRegistry()),
+                new CircuitBreakerAspect(new CircuitBreakerRegistry()),
+                new RetryAspect(),
+                new AuditAspect(event -> { }, new NoOpSecurityContextProvider()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GuardPipelineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.upendramanike.devguard.benchmark;
+
+import io.github.upendramanike.devguard.core.CacheKey;
+import io.github.upendramanike.devguard.core.InMemoryResultCache;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of a {@code @CacheResult} hit with the default argument key: a rendered composite string key
+ * (the previous scheme) versus a structured {@link CacheKey}. Run with {@code -prof gc} to compare
+ * allocation per hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultCacheBenchmark {
+
+    private static final String CACHE = "com.example.ProductService#find";
+
+    private final InMemoryResultCache cache = new InMemoryResultCache();
+    private Object[] args;
+
+    @Setup
+    public void setUp() {
+        args = new Object[] {42L, "EUR", List.of("a", "b", "c")};
+        cache.put(CACHE, CACHE + "::" + Arrays.deepToString(args), "value", 3600);
+        cache.put(CACHE, new CacheKey(CACHE, args), "value", 3600);
+    }
+
+    @Benchmark
+    public Object compositeStringKeyHit() {
+        return cache.get(CACHE, CACHE + "::" + Arrays.deepToString(args));
+    }
+
+    @Benchmark
+    public Object structuredKeyHit() {
+        return cache.get(CACHE, new CacheKey(CACHE, args));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResultCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.upendramanike.devguard.benchmark;
+
+import io.github.upendramanike.devguard.core.MethodInvocationContext;
+import io.github.upendramanike.devguard.core.SpelKeyResolver;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Key resolution per call: parsing the expression and building its variables on every invocation
+ * (as {@code SpelKeyResolver} used to) versus the resolver, which reads plain parameter and property
+ * paths through method handles and evaluates anything else as a cached, compiled expression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpelKeyBenchmark {
+
+    public record PaymentRequest(String transactionId, long amount) {}
+
+    @Param({"#userId", "#request.transactionId", "#request.transactionId + ':' + #userId"})
+    public String expression;
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final SpelKeyResolver resolver = new SpelKeyResolver();
+    private MethodInvocationContext context;
+
+    @SuppressWarnings("unused")
+    public void submit(String userId, PaymentRequest request) {
+    }
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Method method = SpelKeyBenchmark.class.getMethod("submit", String.class, PaymentRequest.class);
+        context = new MethodInvocationContext(method,
+                new Object[] {"user-42", new PaymentRequest("tx-9000", 1250)}, resolver.parameterNames());
+    }
+
+    @Benchmark
+    public Object parsedPerCall() {
+        StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+        for (Map.Entry<String, Object> entry : context.argumentMap().entrySet()) {
+            evaluationContext.setVariable(entry.getKey(), entry.getValue());
+        }
+        return parser.parseExpression(expression).getValue(evaluationContext, Object.class);
+    }
+
+    @Benchmark
+    public Object cachedAndCompiled() {
+        return resolver.keyValue(expression, context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SpelKeyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.upendramanike.devguard.benchmark;
+
+import io.github.upendramanike.codec.BinaryCodec;
+import io.github.upendramanike.codec.CompressingCodec;
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Encode and decode cost of the off-heap/persistent tier codecs for a typical cached record, with
+ * {@code lines} order lines. Each fork prints the encoded size of one entry before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueCodecBenchmark {
+
+    public record Line(String sku, String description, int quantity, BigDecimal price) implements Serializable {
+    }
+
+    public record Order(long id, String customer, Instant createdAt, List<Line> lines) implements Serializable {
+    }
+
+    @Param({"java", "binary", "binary+lz4"})
+    public String codecName;
+
+    @Param({"2", "50"})
+    public int lines;
+
+    private ValueCodec codec;
+    private Order order;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        codec = switch (codecName) {
+            case "java" -> new JavaSerializationCodec();
+            case "binary" -> new BinaryCodec();
+            default -> new CompressingCodec(new BinaryCodec(), 1024);
+        };
+        List<Line> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(new Line("SKU-" + (1000 + i), "Standard widget, pack of " + i, i + 1, BigDecimal.valueOf(999 + i, 2)));
+        }
+        order = new Order(42, "customer-42@example.com", Instant.parse("2024-05-01T10:15:30Z"), items);
+        encoded = codec.encode(order);
+        System.out.printf("%n%s, %d lines: %d bytes per entry%n", codecName, lines, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(order);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ValueCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
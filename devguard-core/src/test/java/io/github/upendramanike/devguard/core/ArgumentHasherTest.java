@@ -0,0 +1,91 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ArgumentHasherTest {
+
+    private final ArgumentHasher hasher = new ArgumentHasher();
+
+    record Order(String id, List<Integer> lines, Status status) {}
+
+    enum Status {
+        OPEN,
+        CLOSED
+    }
+
+    static class Money {
+        final long cents;
+
+        Money(long cents) {
+            this.cents = cents;
+        }
+    }
+
+    @Test
+    void equalStructuresProduceEqualKeys() {
+        Object[] first = {new Order("o-1", List.of(1, 2), Status.OPEN), new int[] {1, 2}, null};
+        Object[] second = {new Order("o-1", new ArrayList<>(List.of(1, 2)), Status.OPEN), new int[] {1, 2}, null};
+        assertThat(hasher.digest(first)).isEqualTo(hasher.digest(second)).hasSize(32);
+    }
+
+    @Test
+    void differentValuesProduceDifferentKeys() {
+        assertThat(hasher.digest(new Object[] {"ab", "c"})).isNotEqualTo(hasher.digest(new Object[] {"a", "bc"}));
+        assertThat(hasher.digest(new Object[] {Status.OPEN})).isNotEqualTo(hasher.digest(new Object[] {Status.CLOSED}));
+        assertThat(hasher.digest(new Object[] {1L})).isNotEqualTo(hasher.digest(new Object[] {"1"}));
+    }
+
+    @Test
+    void setsAndMapsIgnoreIterationOrder() {
+        Set<String> ab = new LinkedHashSet<>(List.of("a", "b"));
+        Set<String> ba = new LinkedHashSet<>(List.of("b", "a"));
+        Map<String, Integer> m1 = new LinkedHashMap<>(Map.of("x", 1));
+        m1.put("y", 2);
+        Map<String, Integer> m2 = new LinkedHashMap<>(Map.of("y", 2));
+        m2.put("x", 1);
+        assertThat(hasher.digest(new Object[] {ab, m1})).isEqualTo(hasher.digest(new Object[] {ba, m2}));
+    }
+
+    @Test
+    void keySizeIsBoundedForLargeArguments() {
+        List<Integer> large = IntStream.range(0, 100_000).boxed().toList();
+        assertThat(hasher.digest(new Object[] {large})).hasSize(32);
+    }
+
+    @Test
+    void usesRegisteredTypeHashers() {
+        hasher.register(Money.class, (money, sink) -> sink.putLong(money.cents));
+        assertThat(hasher.digest(new Object[] {new Money(5)})).isEqualTo(hasher.digest(new Object[] {new Money(5)}));
+        assertThat(hasher.digest(new Object[] {new Money(5)})).isNotEqualTo(hasher.digest(new Object[] {new Money(6)}));
+    }
+
+    @Test
+    void sharedDefaultsCannotBeChanged() {
+        assertThatThrownBy(() -> ArgumentHasher.defaults().register(Money.class, (money, sink) -> sink.putLong(1)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void keyedDigestsDependOnTheSecret() {
+        ArgumentHasher keyed = ArgumentHasher.keyed("s3cret".getBytes(StandardCharsets.UTF_8));
+        Object[] arguments = {"order-1", 42, Set.of("a", "b")};
+        String digest = keyed.digest(arguments);
+        assertThat(digest).hasSize(32)
+                .isEqualTo(keyed.digest(new Object[] {"order-1", 42, Set.of("b", "a")}))
+                .isEqualTo(ArgumentHasher.keyed("s3cret".getBytes(StandardCharsets.UTF_8)).digest(arguments))
+                .isNotEqualTo(ArgumentHasher.keyed("other".getBytes(StandardCharsets.UTF_8)).digest(arguments))
+                .isNotEqualTo(hasher.digest(arguments))
+                .isNotEqualTo(keyed.digest(new Object[] {"order-1", 43, Set.of("a", "b")}));
+    }
+}
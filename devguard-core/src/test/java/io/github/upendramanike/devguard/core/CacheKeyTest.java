@@ -0,0 +1,64 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.codec.BinaryCodec;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CacheKeyTest {
+
+    private final BinaryCodec codec = new BinaryCodec();
+
+    @Test
+    void keepsImmutableArgumentsAsTheyAre() {
+        Range range = new Range(LocalDate.of(2024, 1, 1), 7, TimeUnit.DAYS);
+        CacheKey key = new CacheKey("Service.find", new Object[] {42L, "a", range, null});
+
+        assertThat(key.arguments()).containsExactly(42L, "a", range, null);
+        assertThat(key).isEqualTo(new CacheKey("Service.find", new Object[] {42L, "a", range, null}));
+    }
+
+    @Test
+    void snapshotsMutableArgumentsAtCreation() {
+        List<String> ids = new ArrayList<>(List.of("a", "b"));
+        Object[] arguments = {ids, new int[] {1, 2}};
+        CacheKey key = new CacheKey("Service.find", arguments);
+        int hash = key.hashCode();
+
+        ids.add("c");
+        arguments[1] = new int[] {3};
+
+        assertThat(key.hashCode()).isEqualTo(hash);
+        assertThat(key).isEqualTo(new CacheKey("Service.find", new Object[] {List.of("a", "b"), new int[] {1, 2}}));
+        assertThat(key).isNotEqualTo(new CacheKey("Service.find", new Object[] {ids, new int[] {1, 2}}));
+        assertThat(key.arguments()[0]).isNotInstanceOf(String.class);
+    }
+
+    @Test
+    void digestsNeverEqualStringArguments() {
+        CacheKey digested = new CacheKey("Service.find", new Object[] {List.of(1, 2)});
+        String hex = ArgumentHasher.defaults().digest(new Object[] {List.of(1, 2)});
+
+        assertThat(digested).isNotEqualTo(new CacheKey("Service.find", new Object[] {hex}));
+        assertThat(codec.decode(codec.encode(digested))).isEqualTo(digested);
+    }
+
+    @Test
+    void recordsWithMutableComponentsAreDigested() {
+        List<String> ids = new ArrayList<>(List.of("a"));
+        Object stable = CacheKey.stable(new Holder(ids), ArgumentHasher.defaults());
+
+        ids.add("b");
+
+        assertThat(stable).isNotInstanceOf(String.class)
+                .isEqualTo(CacheKey.stable(new Holder(List.of("a")), ArgumentHasher.defaults()));
+    }
+
+    record Range(LocalDate from, int days, TimeUnit unit) {}
+
+    record Holder(List<String> ids) {}
+}
@@ -0,0 +1,109 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.codec.BinaryCodec;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CacheWarmerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void hottestRanksEntriesByReads() {
+        InMemoryResultCache cache = new InMemoryResultCache();
+        for (int i = 0; i < 5; i++) {
+            cache.put("c", "k" + i, "v" + i, 60);
+            for (int read = 0; read < i; read++) {
+                cache.get("c", "k" + i);
+            }
+        }
+        assertThat(cache.hottest("c", 3)).extracting(ResultCache.HotEntry::key).containsExactly("k4", "k3", "k2");
+        assertThat(cache.hottest("c", 3).get(0).reads()).isEqualTo(4);
+        assertThat(cache.hottest("missing", 3)).isEmpty();
+    }
+
+    @Test
+    void restoresHottestEntriesIntoNewCache() throws Exception {
+        InMemoryResultCache running = new InMemoryResultCache();
+        CacheKey key = new CacheKey("Service.find(Long)", new Object[] {42L});
+        running.put("users", key, List.of("a", "b"), 60, List.of("user:42"));
+        running.get("users", key);
+        running.put("users", "cold", "v", 60);
+        running.put("prices", "sku", 10L, 60);
+        running.get("prices", "sku");
+        new CacheWarmer(running, new BinaryCodec(), settings(1)).snapshot();
+
+        InMemoryResultCache restarted = new InMemoryResultCache();
+        assertThat(new CacheWarmer(restarted, new BinaryCodec(), settings(1)).restore()).isEqualTo(2);
+        assertThat(restarted.get("users", new CacheKey("Service.find(Long)", new Object[] {42L})))
+                .isEqualTo(List.of("a", "b"));
+        assertThat(restarted.get("prices", "sku")).isEqualTo(10L);
+        assertThat(restarted.get("users", "cold")).isNull();
+        restarted.evictByTag("user:42");
+        assertThat(restarted.get("users", key)).isNull();
+    }
+
+    @Test
+    void expiredEntriesAreReloadedThroughLoader() throws Exception {
+        InMemoryResultCache running = new InMemoryResultCache();
+        running.put("c", "fresh", "v", 60);
+        running.put("c", "stale", "old", 1);
+        CacheKey digested = new CacheKey("Service.find(List)", new Object[] {List.of(1L)});
+        running.put("c", digested, "old", 1);
+        CacheWarmer warmer = new CacheWarmer(running, new BinaryCodec(), settings(10));
+        warmer.snapshot();
+        Thread.sleep(1100);
+
+        InMemoryResultCache withoutLoader = new InMemoryResultCache();
+        new CacheWarmer(withoutLoader, new BinaryCodec(), settings(10)).restore();
+        assertThat(withoutLoader.get("c", "stale")).isNull();
+
+        InMemoryResultCache withLoader = new InMemoryResultCache();
+        List<Object> reloaded = new CopyOnWriteArrayList<>();
+        CacheWarmer.Loader loader = (cacheName, key) -> {
+            reloaded.add(key);
+            return new ResultCache.Entry("new", System.currentTimeMillis() + 60_000);
+        };
+        assertThat(new CacheWarmer(withLoader, new BinaryCodec(), settings(10), loader).restore()).isEqualTo(2);
+        assertThat(withLoader.get("c", "stale")).isEqualTo("new");
+        assertThat(withLoader.get("c", "fresh")).isEqualTo("v");
+        // only digests of its arguments are left, so the call cannot be repeated
+        assertThat(reloaded).containsExactly("stale");
+        assertThat(withLoader.get("c", digested)).isNull();
+    }
+
+    @Test
+    void missingOrCorruptSnapshotRestoresNothing() throws Exception {
+        InMemoryResultCache cache = new InMemoryResultCache();
+        CacheWarmer warmer = new CacheWarmer(cache, new BinaryCodec(), settings(10));
+        assertThat(warmer.restore()).isZero();
+        Files.write(dir.resolve("warm-up.snapshot"), new byte[] {1, 2, 3, 4, 5});
+        assertThat(warmer.restore()).isZero();
+    }
+
+    @Test
+    void closeTakesFinalSnapshot() {
+        InMemoryResultCache cache = new InMemoryResultCache();
+        CacheWarmer warmer = new CacheWarmer(cache, new BinaryCodec(), settings(10));
+        warmer.start();
+        cache.put("c", "k", "v", 60);
+        warmer.close();
+
+        InMemoryResultCache restarted = new InMemoryResultCache();
+        new CacheWarmer(restarted, new BinaryCodec(), settings(10)).start();
+        assertThat(restarted.get("c", "k")).isEqualTo("v");
+    }
+
+    private CacheWarmer.Settings settings(int hottestPerCache) {
+        return new CacheWarmer.Settings(
+                dir.resolve("warm-up.snapshot"), hottestPerCache, Duration.ZERO, 2, Duration.ofSeconds(10));
+    }
+}
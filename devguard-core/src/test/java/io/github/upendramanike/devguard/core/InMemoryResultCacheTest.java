@@ -0,0 +1,123 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class InMemoryResultCacheTest {
+
+    @Test
+    void returnsStoredValueUntilExpiry() {
+        InMemoryResultCache cache = new InMemoryResultCache();
+        cache.put("c", "k", "v", 60);
+        cache.put("c", "gone", "v", -1);
+        assertThat(cache.get("c", "k")).isEqualTo("v");
+        assertThat(cache.get("c", "gone")).isNull();
+        assertThat(cache.get("other", "k")).isNull();
+    }
+
+    @Test
+    void evictsBeyondMaxEntries() {
+        InMemoryResultCache cache = new InMemoryResultCache(n -> new CacheLimits(3, 0), CacheWeigher.SINGLETON);
+        for (int i = 0; i < 10; i++) {
+            cache.put("c", "k" + i, i, 60);
+        }
+        assertThat(cache.size("c")).isEqualTo(3);
+        assertThat(cache.evictionCount("c")).isEqualTo(7);
+        assertThat(cache.get("c", "k9")).isEqualTo(9);
+        assertThat(cache.get("c", "k0")).isNull();
+    }
+
+    @Test
+    void frequentlyReadEntriesSurviveScans() {
+        InMemoryResultCache cache = new InMemoryResultCache(n -> new CacheLimits(5, 0), CacheWeigher.SINGLETON);
+        cache.put("c", "hot", "h", 60);
+        cache.get("c", "hot");
+        for (int i = 0; i < 50; i++) {
+            cache.put("c", "scan" + i, i, 60);
+        }
+        assertThat(cache.get("c", "hot")).isEqualTo("h");
+    }
+
+    @Test
+    void enforcesWeightPerCacheName() {
+        CacheWeigher byLength = (name, key, value) -> value.toString().length();
+        InMemoryResultCache cache = new InMemoryResultCache(
+                n -> n.equals("small") ? new CacheLimits(0, 10) : CacheLimits.UNBOUNDED, byLength);
+        cache.put("small", "a", "12345", 60);
+        cache.put("small", "b", "12345", 60);
+        cache.put("small", "c", "12345", 60);
+        cache.put("large", "a", "1234567890123", 60);
+        assertThat(cache.weight("small")).isEqualTo(10);
+        assertThat(cache.get("small", "a")).isNull();
+        assertThat(cache.get("large", "a")).isNotNull();
+        assertThat(cache.evictionCount("large")).isZero();
+    }
+
+    @Test
+    void recordsStatisticsPerCacheName() {
+        InMemoryResultCache cache = new InMemoryResultCache(n -> new CacheLimits(2, 0), CacheWeigher.SINGLETON);
+        cache.put("c", "a", 1, 60);
+        cache.put("c", "b", 2, 60);
+        cache.put("c", "c", 3, 60);
+        cache.get("c", "c");
+        cache.get("c", "a");
+        cache.recordLoad("c", 1_000, true);
+        cache.recordLoad("c", 3_000, false);
+
+        CacheStats stats = cache.stats("c");
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+        assertThat(stats.putCount()).isEqualTo(3);
+        assertThat(stats.evictionCount()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.loadSuccessCount()).isEqualTo(1);
+        assertThat(stats.loadFailureCount()).isEqualTo(1);
+        assertThat(stats.averageLoadPenaltyNanos()).isEqualTo(2_000);
+        assertThat(cache.cacheNames()).containsExactly("c");
+        assertThat(cache.stats("other")).isEqualTo(CacheStats.EMPTY);
+    }
+
+    @Test
+    void bulkOperationsReturnOnlyHits() {
+        InMemoryResultCache cache = new InMemoryResultCache();
+        cache.putAll("c", Map.of("a", 1, "b", 2), 60);
+        cache.put("c", "gone", 3, -1);
+        assertThat(cache.getAll("c", List.of("a", "b", "gone", "x")))
+                .containsOnly(Map.entry("a", 1), Map.entry("b", 2));
+        assertThat(cache.stats("c").hitCount()).isEqualTo(2);
+        assertThat(cache.stats("c").missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsByTagAcrossCacheNames() {
+        InMemoryResultCache cache = new InMemoryResultCache();
+        cache.put("views", "v42", "view", 60, List.of("customer:42"));
+        cache.put("orders", "o42", "orders", 60, List.of("customer:42", "orders"));
+        cache.put("orders", "o7", "orders", 60, List.of("customer:7"));
+        cache.evictByTag("customer:42");
+        assertThat(cache.get("views", "v42")).isNull();
+        assertThat(cache.get("orders", "o42")).isNull();
+        assertThat(cache.get("orders", "o7")).isEqualTo("orders");
+    }
+
+    @Test
+    void tagIndexForgetsReplacedAndEvictedEntries() {
+        InMemoryResultCache replaced = new InMemoryResultCache();
+        replaced.put("c", "a", 1, 60, List.of("t"));
+        replaced.put("c", "a", 2, 60);
+        replaced.evictByTag("t");
+        assertThat(replaced.get("c", "a")).isEqualTo(2);
+
+        InMemoryResultCache bounded = new InMemoryResultCache(n -> new CacheLimits(1, 0), CacheWeigher.SINGLETON);
+        bounded.put("c", "b", 3, 60, List.of("t"));
+        bounded.put("c", "c", 4, 60);
+        bounded.put("c", "b", 5, 60);
+        bounded.evictByTag("t");
+        assertThat(bounded.get("c", "b")).isEqualTo(5);
+        assertThat(bounded.getEntry("c", "b").tags()).isEmpty();
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedFileResultCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void entriesSurviveRestart() throws Exception {
+        CacheKey key = new CacheKey("Service.find(Long)", new Object[] {42L});
+        try (MappedFileResultCache cache = open()) {
+            cache.put("users", key, List.of("a", "b"), 60);
+            cache.put("users", "expired", "v", -1);
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("users", new CacheKey("Service.find(Long)", new Object[] {42L})))
+                    .isEqualTo(List.of("a", "b"));
+            assertThat(cache.get("users", "expired")).isNull();
+            assertThat(cache.getEntry("users", key).expiresAtMillis()).isGreaterThan(System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void compactionReclaimsOverwrittenRecords() throws Exception {
+        try (MappedFileResultCache cache = open()) {
+            for (int i = 0; i < 500; i++) {
+                cache.put("c", "k" + (i % 5), "value-" + i + "-" + "x".repeat(200), 60);
+                if (i % 50 == 49) {
+                    // a full log rejects puts; let compaction keep up on a loaded machine
+                    cache.awaitBackgroundWork();
+                }
+            }
+            cache.awaitBackgroundWork();
+            assertThat(cache.usedBytes()).isLessThan(cache.capacityBytes() / 2);
+            assertThat(cache.get("c", "k4")).asString().startsWith("value-499-");
+            assertThat(cache.size()).isEqualTo(5);
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("c", "k0")).asString().startsWith("value-495-");
+            try (var files = Files.list(dir)) {
+                assertThat(files.filter(f -> f.toString().endsWith(".log"))).hasSize(1);
+            }
+        }
+    }
+
+    @Test
+    void ignoresTornRecordAtEndOfLog() throws Exception {
+        long end;
+        try (MappedFileResultCache cache = open()) {
+            cache.put("c", "k", "v", 60);
+            end = cache.usedBytes();
+        }
+        try (RandomAccessFile log = new RandomAccessFile(dir.resolve("cache-0.log").toFile(), "rw")) {
+            log.seek(end);
+            log.writeInt(64);
+            log.writeInt(0xBAD);
+            log.write(new byte[] {1, 2, 3});
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("c", "k")).isEqualTo("v");
+            cache.put("c", "k2", "v2", 60);
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("c", "k2")).isEqualTo("v2");
+            assertThat(cache.size()).isEqualTo(2);
+        }
+    }
+
+    private MappedFileResultCache open() throws Exception {
+        MappedFileResultCache cache = new MappedFileResultCache(
+                dir, 64 * 1024, new JavaSerializationCodec(), TimingWheel.shared());
+        cache.awaitBackgroundWork();
+        assertThat(cache.isReady()).isTrue();
+        return cache;
+    }
+
+    @Test
+    void tagsSurviveRestart() throws Exception {
+        try (MappedFileResultCache cache = open()) {
+            cache.put("views", "a", "1", 60, List.of("customer:42"));
+            cache.put("views", "b", "2", 60, List.of("customer:7"));
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.getEntry("views", "a").tags()).containsExactly("customer:42");
+            cache.evictByTag("customer:42");
+            assertThat(cache.get("views", "a")).isNull();
+            assertThat(cache.get("views", "b")).isEqualTo("2");
+        }
+    }
+
+    @Test
+    void evictedEntriesStayEvictedAfterRestart() throws Exception {
+        try (MappedFileResultCache cache = open()) {
+            cache.put("c", "gone", "1", 60);
+            cache.put("c", "tagged", "2", 60, List.of("t"));
+            cache.put("c", "kept", "3", 60);
+            cache.evict("c", "gone");
+            cache.evictByTag("t");
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("c", "gone")).isNull();
+            assertThat(cache.get("c", "tagged")).isNull();
+            assertThat(cache.get("c", "kept")).isEqualTo("3");
+            cache.put("c", "gone", "4", 60);
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("c", "gone")).isEqualTo("4");
+            assertThat(cache.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void expiredOverwritesHideOlderRecordsAfterRestart() throws Exception {
+        try (MappedFileResultCache cache = open()) {
+            cache.put("c", "k", "old", 3600);
+            cache.put("c", "k", "new", -1);
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("c", "k")).isNull();
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Test
+    void rejectedOverwritesDoNotResurrectTheReplacedValue() throws Exception {
+        try (MappedFileResultCache cache = open()) {
+            cache.put("c", "k", "old", 3600);
+            cache.put("c", "k", "x".repeat(128 * 1024), 3600);
+            assertThat(cache.get("c", "k")).isNull();
+            // closed before the compaction the rejection schedules gets to drop the old record
+        }
+        try (MappedFileResultCache cache = open()) {
+            assertThat(cache.get("c", "k")).isNull();
+        }
+    }
+
+    @Test
+    void evictionsDuringLoadingAreAppliedOnceLoaded() throws Exception {
+        try (MappedFileResultCache cache = open()) {
+            cache.put("c", "k", "v", 60);
+        }
+        MappedFileResultCache cache = new MappedFileResultCache(
+                dir, 64 * 1024, new JavaSerializationCodec(), TimingWheel.shared());
+        try (cache) {
+            cache.evict("c", "k");
+            cache.awaitBackgroundWork();
+            assertThat(cache.get("c", "k")).isNull();
+        }
+        try (MappedFileResultCache reopened = open()) {
+            assertThat(reopened.get("c", "k")).isNull();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OffHeapResultCacheTest {
+
+    @Test
+    void storesValuesUntilExpiry() {
+        try (OffHeapResultCache cache = new OffHeapResultCache(1 << 20)) {
+            cache.put("c", "k", List.of("a", "b"), 60);
+            cache.put("c", "gone", "v", -1);
+            assertThat(cache.get("c", "k")).isEqualTo(List.of("a", "b"));
+            assertThat(cache.get("c", "gone")).isNull();
+            assertThat(cache.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        try (OffHeapResultCache cache = new OffHeapResultCache(
+                4096, 1024, new JavaSerializationCodec(), TimingWheel.shared())) {
+            for (int i = 0; i < 100; i++) {
+                cache.put("c", "k" + i, "value-" + i, 60);
+            }
+            assertThat(cache.evictionCount()).isPositive();
+            assertThat(cache.usedBytes()).isLessThanOrEqualTo(cache.capacityBytes());
+            assertThat(cache.get("c", "k99")).isEqualTo("value-99");
+            assertThat(cache.get("c", "k0")).isNull();
+        }
+    }
+
+    @Test
+    void movesSlabsToSizeClassesTheWorkloadShiftsTo() {
+        try (OffHeapResultCache cache = new OffHeapResultCache(
+                4096, 1024, new JavaSerializationCodec(), TimingWheel.shared())) {
+            for (int i = 0; i < 200; i++) {
+                cache.put("c", "small" + i, "value-" + i, 60);
+            }
+            for (int i = 0; i < 60; i++) {
+                cache.put("c", "large" + i, "x".repeat(600), 60);
+                cache.get("c", "large" + i);
+            }
+            assertThat(cache.get("c", "large59")).isEqualTo("x".repeat(600));
+            assertThat(cache.get("c", "large58")).isEqualTo("x".repeat(600));
+            assertThat(cache.rebalanceCount()).isGreaterThanOrEqualTo(2);
+            assertThat(cache.size()).isGreaterThan(3);
+            assertThat(cache.rejectionCount()).isZero();
+            assertThat(cache.usedBytes()).isLessThanOrEqualTo(cache.capacityBytes());
+        }
+    }
+
+    @Test
+    void rejectsUnserializableAndOversizedValues() {
+        try (OffHeapResultCache cache = new OffHeapResultCache(
+                4096, 1024, new JavaSerializationCodec(), TimingWheel.shared())) {
+            cache.put("c", "object", new Object(), 60);
+            cache.put("c", "large", "x".repeat(4096), 60);
+            assertThat(cache.get("c", "object")).isNull();
+            assertThat(cache.get("c", "large")).isNull();
+            assertThat(cache.rejectionCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void tieredCachePromotesSecondLevelHits() throws Exception {
+        InMemoryResultCache l1 = new InMemoryResultCache();
+        try (OffHeapResultCache l2 = new OffHeapResultCache(1 << 20)) {
+            TieredResultCache cache = new TieredResultCache(l1, l2);
+            l2.put("c", "k", "v", 60);
+            assertThat(l1.get("c", "k")).isNull();
+            assertThat(cache.get("c", "k")).isEqualTo("v");
+            assertThat(l1.get("c", "k")).isEqualTo("v");
+        }
+    }
+
+    @Test
+    void evictsByKeyAndTag() {
+        try (OffHeapResultCache cache = new OffHeapResultCache(1 << 20)) {
+            cache.put("c", "a", "1", 60, List.of("t"));
+            cache.put("c", "b", "2", 60, List.of("t", "u"));
+            cache.put("c", "c", "3", 60);
+            assertThat(cache.getEntry("c", "b").tags()).containsExactly("t", "u");
+            cache.evictByTag("t");
+            cache.evict("c", "c");
+            assertThat(cache.size()).isZero();
+            assertThat(cache.stats("c").weight()).isZero();
+        }
+    }
+}
@@ -21,4 +21,14 @@ class RateLimiterRegistryTest {
         assertThat(registry.tryAcquire("a", 1, 60)).isFalse();
         assertThat(registry.tryAcquire("b", 1, 60)).isTrue();
     }
+
+    @Test
+    void heldBucketSharesBudgetWithKeyedAccess() {
+        RateLimiterRegistry registry = new RateLimiterRegistry();
+        RateLimiterRegistry.TokenBucket bucket = registry.bucket("k", 2, 60);
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(registry.tryAcquire("k", 2, 60)).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+        assertThat(registry.bucket("k", 5, 60)).isSameAs(bucket);
+    }
 }
@@ -0,0 +1,83 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SingleFlight flight = new SingleFlight();
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> call(() -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "v";
+                })));
+            }
+            while (!flight.isInFlight("k")) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<Object> result : results) {
+                assertThat(result.get(2, TimeUnit.SECONDS)).isEqualTo("v");
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(flight.isInFlight("k")).isFalse();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void waiterLoadsItselfAfterTimeout() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = new Thread(() -> call(() -> {
+            started.countDown();
+            release.await();
+            return "slow";
+        }));
+        leader.start();
+        started.await();
+        try {
+            assertThat(flight.execute("k", 20, () -> "fast")).isEqualTo("fast");
+        } finally {
+            release.countDown();
+            leader.join();
+        }
+    }
+
+    @Test
+    void failureIsPropagated() {
+        assertThatThrownBy(() -> flight.execute("k", 0, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(flight.isInFlight("k")).isFalse();
+    }
+
+    private Object call(SingleFlight.Loader loader) {
+        try {
+            return flight.execute("k", 0, loader);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelEvaluationException;
+
+class SpelKeyResolverTest {
+
+    private final SpelKeyResolver resolver = new SpelKeyResolver();
+
+    @SuppressWarnings("unused")
+    private static void submit(String tenant, Object request) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void pay(String tenant, Payment payment, long amount) {
+    }
+
+    public record Request(String transactionId) {}
+
+    public record Retry(Long transactionId) {}
+
+    public record Account(String id, boolean active) {}
+
+    public static class Payment {
+        private final Account account;
+
+        public Payment(Account account) {
+            this.account = account;
+        }
+
+        public Account getAccount() {
+            return account;
+        }
+
+        public boolean isUrgent() {
+            return true;
+        }
+    }
+
+    @Test
+    void simplePathsAreReadWithoutSpel() throws Exception {
+        Method method = SpelKeyResolverTest.class.getDeclaredMethod("pay", String.class, Payment.class, long.class);
+        Object[] args = {"acme", new Payment(new Account("acc-1", true)), 250L};
+        var variables = new String[] {"tenant", "payment", "amount"};
+        var positions = new int[] {0, 1, 2};
+        assertThat(KeyExtractor.compile("#payment.account.id", method, variables, positions).extract(args))
+                .isEqualTo("acc-1");
+        assertThat(KeyExtractor.compile(" #amount ", method, variables, positions).extract(args)).isEqualTo(250L);
+        assertThat(KeyExtractor.compile("#payment.urgent", method, variables, positions).extract(args))
+                .isEqualTo(true);
+        assertThat(KeyExtractor.compile("#payment.account.active", method, variables, positions)).isNotNull();
+        assertThat(KeyExtractor.compile("#payment.missing", method, variables, positions)).isNull();
+        assertThat(KeyExtractor.compile("#amount.value", method, variables, positions)).isNull();
+        assertThat(KeyExtractor.compile("#tenant + 'x'", method, variables, positions)).isNull();
+        assertThat(KeyExtractor.compile("#args", method, variables, positions)).isNull();
+    }
+
+    @Test
+    void extractedKeysMatchSpelIncludingNullHandling() throws Exception {
+        Method method = SpelKeyResolverTest.class.getDeclaredMethod("pay", String.class, Payment.class, long.class);
+        var ctx = new MethodInvocationContext(method,
+                new Object[] {"acme", new Payment(new Account("acc-1", true)), 250L}, resolver.parameterNames());
+        assertThat(resolver.key("#payment.account.id", ctx)).isEqualTo("acc-1");
+        assertThat(resolver.keyValue("#p2", ctx)).isEqualTo(250L);
+        assertThat(resolver.keyValue("#payment.account", ctx)).isEqualTo(new Account("acc-1", true));
+        assertThat(resolver.keyValue("#payment", ctx)).isNotInstanceOf(String.class)
+                .isEqualTo(resolver.keyValue("#payment", ctx));
+        assertThat(resolver.tags(new String[] {"#tenant"}, ctx)).containsExactly("acme");
+
+        var withoutAccount = new MethodInvocationContext(method,
+                new Object[] {null, new Payment(null), 1L}, resolver.parameterNames());
+        assertThat(resolver.keyValue("#tenant", withoutAccount)).isEqualTo("null");
+        assertThatThrownBy(() -> resolver.key("#payment.account.id", withoutAccount))
+                .isInstanceOf(SpelEvaluationException.class);
+    }
+
+    @Test
+    void exposesArgumentsByNamePositionAndArray() throws Exception {
+        MethodInvocationContext ctx = context("acme", new Request("tx-1"));
+        assertThat(resolver.key("#tenant + ':' + #request.transactionId", ctx)).isEqualTo("acme:tx-1");
+        assertThat(resolver.key("#p0 + #a1.transactionId", ctx)).isEqualTo("acmetx-1");
+        assertThat(resolver.keyValue("#args.length", ctx)).isEqualTo(2);
+        assertThat(resolver.condition("#tenant == 'acme'", ctx)).isTrue();
+        assertThat(resolver.tags(new String[] {"{'t:' + #tenant, 'x'}"}, ctx)).isEqualTo(List.of("t:acme", "x"));
+    }
+
+    @Test
+    void compiledExpressionsKeepWorkingWhenArgumentTypesChange() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            assertThat(resolver.key("#request.transactionId", context("acme", new Request("tx-" + i))))
+                    .isEqualTo("tx-" + i);
+        }
+        assertThat(resolver.key("#request.transactionId", context("acme", new Retry(7L)))).isEqualTo("7");
+        assertThat(resolver.key("#tenant", context(null, new Request("tx")))).isEqualTo("null");
+    }
+
+    @Test
+    void defaultKeysDigestTheArguments() throws Exception {
+        MethodInvocationContext ctx = context("acme", new Request("tx-1"));
+        assertThat(resolver.key("", ctx)).isEqualTo(ctx.argumentDigest()).hasSize(32);
+    }
+
+    private MethodInvocationContext context(String tenant, Object request) throws NoSuchMethodException {
+        Method method = SpelKeyResolverTest.class.getDeclaredMethod("submit", String.class, Object.class);
+        return new MethodInvocationContext(method, new Object[] {tenant, request}, resolver.parameterNames());
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    @Test
+    void runsTaskAfterDeadline() throws InterruptedException {
+        try (TimingWheel wheel = new TimingWheel(5)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            long deadline = System.currentTimeMillis() + 50;
+            wheel.schedule(deadline, fired::countDown);
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(deadline);
+        }
+    }
+
+    @Test
+    void cascadesDeadlinesBeyondTheFirstWheel() throws InterruptedException {
+        try (TimingWheel wheel = new TimingWheel(2)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            long deadline = System.currentTimeMillis() + 300;
+            wheel.schedule(deadline, fired::countDown);
+            assertThat(fired.await(3, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(deadline);
+        }
+    }
+
+    @Test
+    void cancelledTaskNeverRuns() throws InterruptedException {
+        try (TimingWheel wheel = new TimingWheel(5)) {
+            AtomicBoolean ran = new AtomicBoolean();
+            TimingWheel.Timeout timeout = wheel.schedule(System.currentTimeMillis() + 20, () -> ran.set(true));
+            timeout.cancel();
+            CountDownLatch later = new CountDownLatch(1);
+            wheel.schedule(System.currentTimeMillis() + 60, later::countDown);
+            assertThat(later.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(ran).isFalse();
+        }
+    }
+
+    @Test
+    void storesDropUnreadExpiredEntries() throws InterruptedException {
+        try (TimingWheel wheel = new TimingWheel(5)) {
+            InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(wheel);
+            InMemoryResultCache cache = new InMemoryResultCache(n -> CacheLimits.UNBOUNDED, CacheWeigher.SINGLETON, wheel);
+            store.store("k", "v", 0);
+            cache.put("c", "k", "v", 0);
+            long deadline = System.currentTimeMillis() + 2000;
+            while ((store.size() > 0 || cache.size("c") > 0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(store.size()).isZero();
+            assertThat(cache.size("c")).isZero();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.upendramanike.devguard.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TtlJitterTest {
+
+    @Test
+    void uniformJitterSpreadsWithinRatioBelowTheTtl() {
+        TtlJitter jitter = TtlJitter.uniform(0.1);
+        Set<Long> ttls = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            ttls.add(jitter.apply(300));
+        }
+        assertThat(ttls).allMatch(ttl -> ttl >= 270 && ttl <= 300);
+        assertThat(ttls.size()).isGreaterThan(20);
+    }
+
+    @Test
+    void leavesShortAndNonPositiveTtlsAlone() {
+        TtlJitter jitter = TtlJitter.uniform(0.1);
+        assertThat(jitter.apply(5)).isEqualTo(5);
+        assertThat(jitter.apply(-1)).isEqualTo(-1);
+        assertThat(TtlJitter.uniform(0)).isSameAs(TtlJitter.NONE);
+        assertThatThrownBy(() -> TtlJitter.uniform(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fullRatioNeverDropsTheTtlToZero() {
+        TtlJitter jitter = TtlJitter.uniform(1);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(jitter.apply(3)).isBetween(1L, 3L);
+        }
+    }
+}
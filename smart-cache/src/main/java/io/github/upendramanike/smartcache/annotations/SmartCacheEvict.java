@@ -0,0 +1,27 @@
+package io.github.upendramanike.smartcache.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Removes a key from both cache levels once the annotated method returns normally.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * @SmartCacheEvict(cacheName = "products", key = "#id")
+ * public void delete(Long id) { ... }
+ * }</pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SmartCacheEvict {
+
+    String cacheName();
+
+    /** SpEL key expression evaluated against method arguments; derived from the arguments when empty. */
+    String key() default "";
+}
@@ -0,0 +1,28 @@
+package io.github.upendramanike.smartcache.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Always runs the annotated method and writes its result through to both cache levels, e.g. after an
+ * update. A {@code null} result evicts the key.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * @SmartCachePut(cacheName = "products", key = "#product.id")
+ * public Product save(Product product) { ... }
+ * }</pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SmartCachePut {
+
+    String cacheName();
+
+    /** SpEL key expression evaluated against method arguments; derived from the arguments when empty. */
+    String key() default "";
+}
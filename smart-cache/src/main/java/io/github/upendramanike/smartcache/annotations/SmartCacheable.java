@@ -0,0 +1,30 @@
+package io.github.upendramanike.smartcache.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reads the result of the annotated method through the two-level
+ * {@link io.github.upendramanike.smartcache.core.SmartCache}: the method only runs when neither the
+ * local nor the shared cache holds the key, and its non-null result is stored in both.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * @SmartCacheable(cacheName = "products", key = "#id")
+ * public Product findById(Long id) { ... }
+ * }</pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SmartCacheable {
+
+    /** Cache name; selects the per-level settings under {@code smartcache.caches.<name>}. */
+    String cacheName();
+
+    /** SpEL key expression evaluated against method arguments; derived from the arguments when empty. */
+    String key() default "";
+}
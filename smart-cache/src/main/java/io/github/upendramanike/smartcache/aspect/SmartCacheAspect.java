@@ -0,0 +1,68 @@
+package io.github.upendramanike.smartcache.aspect;
+
+import io.github.upendramanike.smartcache.annotations.SmartCacheEvict;
+import io.github.upendramanike.smartcache.annotations.SmartCachePut;
+import io.github.upendramanike.smartcache.annotations.SmartCacheable;
+import io.github.upendramanike.smartcache.core.SmartCache;
+import io.github.upendramanike.smartcache.core.SpelKeyResolver;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/** Implements {@link SmartCacheable}, {@link SmartCachePut} and {@link SmartCacheEvict}. */
+@Aspect
+public class SmartCacheAspect {
+
+    private final SmartCache cache;
+    private final SpelKeyResolver keys;
+
+    public SmartCacheAspect(SmartCache cache, SpelKeyResolver keys) {
+        this.cache = cache;
+        this.keys = keys;
+    }
+
+    @Around("@annotation(cacheable)")
+    public Object cacheable(ProceedingJoinPoint pjp, SmartCacheable cacheable) throws Throwable {
+        String key = key(pjp, cacheable.key());
+        try {
+            return cache.get(cacheable.cacheName(), key, () -> {
+                try {
+                    return pjp.proceed();
+                } catch (Throwable t) {
+                    throw new InvocationFailure(t);
+                }
+            });
+        } catch (InvocationFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    @Around("@annotation(put)")
+    public Object put(ProceedingJoinPoint pjp, SmartCachePut put) throws Throwable {
+        Object result = pjp.proceed();
+        cache.put(put.cacheName(), key(pjp, put.key()), result);
+        return result;
+    }
+
+    @Around("@annotation(evict)")
+    public Object evict(ProceedingJoinPoint pjp, SmartCacheEvict evict) throws Throwable {
+        Object result = pjp.proceed();
+        cache.evict(evict.cacheName(), key(pjp, evict.key()));
+        return result;
+    }
+
+    private String key(ProceedingJoinPoint pjp, String expression) {
+        return keys.key(expression, ((MethodSignature) pjp.getSignature()).getMethod(), pjp.getArgs());
+    }
+
+    /** Carries a checked or unchecked failure of the intercepted method through the cache loader. */
+    private static final class InvocationFailure extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        InvocationFailure(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Matches when {@code smartcache.invalidation.transport}, bound like {@link SmartCacheProperties}, is
+ * the given transport.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnInvalidationTransportCondition.class)
+@interface ConditionalOnInvalidationTransport {
+
+    SmartCacheProperties.TransportType value();
+}
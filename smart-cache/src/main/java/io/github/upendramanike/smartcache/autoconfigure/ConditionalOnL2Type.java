@@ -0,0 +1,22 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Matches when {@code smartcache.l2.type}, bound like {@link SmartCacheProperties} (so {@code in-memory},
+ * {@code in_memory} and {@code IN_MEMORY} all select {@link SmartCacheProperties.L2Type#IN_MEMORY}),
+ * is the given type.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnL2TypeCondition.class)
+@interface ConditionalOnL2Type {
+
+    SmartCacheProperties.L2Type value();
+}
@@ -0,0 +1,20 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/** Evaluates {@link ConditionalOnInvalidationTransport} against the bound {@link SmartCacheProperties}. */
+class OnInvalidationTransportCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Object expected = metadata.getAnnotationAttributes(ConditionalOnInvalidationTransport.class.getName())
+                .get("value");
+        SmartCacheProperties.TransportType transport = OnL2TypeCondition.bind(context).getInvalidation().getTransport();
+        return transport == expected
+                ? ConditionOutcome.match("smartcache.invalidation.transport is " + transport)
+                : ConditionOutcome.noMatch("smartcache.invalidation.transport is " + transport + ", not " + expected);
+    }
+}
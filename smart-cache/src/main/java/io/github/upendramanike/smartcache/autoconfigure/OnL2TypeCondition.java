@@ -0,0 +1,27 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/** Evaluates {@link ConditionalOnL2Type} against the bound {@link SmartCacheProperties}. */
+class OnL2TypeCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Object expected = metadata.getAnnotationAttributes(ConditionalOnL2Type.class.getName()).get("value");
+        SmartCacheProperties.L2Type type = bind(context).getL2().getType();
+        return type == expected
+                ? ConditionOutcome.match("smartcache.l2.type is " + type)
+                : ConditionOutcome.noMatch("smartcache.l2.type is " + type + ", not " + expected);
+    }
+
+    /** Binds the {@code smartcache} properties as the auto-configuration will, defaults included. */
+    static SmartCacheProperties bind(ConditionContext context) {
+        return Binder.get(context.getEnvironment())
+                .bind("smartcache", SmartCacheProperties.class)
+                .orElseGet(SmartCacheProperties::new);
+    }
+}
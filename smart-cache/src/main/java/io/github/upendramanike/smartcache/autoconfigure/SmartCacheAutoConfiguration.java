@@ -0,0 +1,149 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import io.github.upendramanike.codec.BinaryCodec;
+import io.github.upendramanike.codec.CompressingCodec;
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import io.github.upendramanike.smartcache.aspect.SmartCacheAspect;
+import io.github.upendramanike.smartcache.core.BatchingL2Cache;
+import io.github.upendramanike.smartcache.core.CacheWarmer;
+import io.github.upendramanike.smartcache.core.CodecRedisSerializer;
+import io.github.upendramanike.smartcache.core.InMemoryL2Cache;
+import io.github.upendramanike.smartcache.core.InvalidationBus;
+import io.github.upendramanike.smartcache.core.InvalidationTransport;
+import io.github.upendramanike.smartcache.core.L2Cache;
+import io.github.upendramanike.smartcache.core.LoopbackInvalidationTransport;
+import io.github.upendramanike.smartcache.core.NoOpL2Cache;
+import io.github.upendramanike.smartcache.core.RedisInvalidationTransport;
+import io.github.upendramanike.smartcache.core.RedisL2Cache;
+import io.github.upendramanike.smartcache.core.SmartCache;
+import io.github.upendramanike.smartcache.core.SpelKeyResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/** Auto-configuration wiring the two-level cache engine, its shared level and the cache aspect. */
+@AutoConfiguration(after = RedisAutoConfiguration.class)
+@EnableConfigurationProperties(SmartCacheProperties.class)
+@EnableAspectJAutoProxy(proxyTargetClass = true)
+@ConditionalOnProperty(prefix = "smartcache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SmartCacheAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(L2Cache.class)
+    @ConditionalOnL2Type(SmartCacheProperties.L2Type.IN_MEMORY)
+    InMemoryL2Cache smartCacheInMemoryL2Cache() {
+        return new InMemoryL2Cache();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(InvalidationTransport.class)
+    @ConditionalOnInvalidationTransport(SmartCacheProperties.TransportType.LOOPBACK)
+    LoopbackInvalidationTransport smartCacheLoopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    ValueCodec smartCacheValueCodec(SmartCacheProperties properties) {
+        SmartCacheProperties.Codec cfg = properties.getL2().getCodec();
+        ValueCodec codec = cfg.getFormat() == SmartCacheProperties.CodecFormat.JAVA
+                ? new JavaSerializationCodec()
+                : new BinaryCodec();
+        return cfg.isCompression()
+                ? new CompressingCodec(codec, Math.toIntExact(cfg.getCompressionThreshold().toBytes()))
+                : codec;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    SpelKeyResolver smartCacheKeyResolver() {
+        return new SpelKeyResolver();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    SmartCache smartCache(SmartCacheProperties properties, ObjectProvider<L2Cache> l2,
+            ObjectProvider<InvalidationTransport> transport, ObjectProvider<MeterRegistry> registry) {
+        SmartCacheProperties.Invalidation cfg = properties.getInvalidation();
+        InvalidationTransport invalidationTransport = transport.getIfAvailable();
+        L2Cache shared = l2.getIfAvailable(NoOpL2Cache::new);
+        SmartCacheProperties.Batching batching = properties.getL2().getBatching();
+        if (batching.isEnabled()) {
+            shared = new BatchingL2Cache(shared, batching.getWindow(), batching.getMaxBatchSize());
+        }
+        return new SmartCache(
+                properties::settingsFor,
+                shared,
+                registry.getIfAvailable(() -> Metrics.globalRegistry),
+                invalidationTransport == null ? null
+                        : new InvalidationBus(invalidationTransport, cfg.getFlushInterval(), cfg.getMaxBatchSize()),
+                properties.getHotKeys().toPolicy());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "smartcache.warm-up", name = "enabled", havingValue = "true")
+    CacheWarmer smartCacheWarmer(SmartCache cache, SmartCacheProperties properties) {
+        return new CacheWarmer(cache, properties.getWarmUp().toPolicy());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    SmartCacheAspect smartCacheAspect(SmartCache cache, SpelKeyResolver keys) {
+        return new SmartCacheAspect(cache, keys);
+    }
+
+    /** Redis-backed shared level, used when a {@link RedisConnectionFactory} is available. */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RedisConnectionFactory.class)
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    @ConditionalOnL2Type(SmartCacheProperties.L2Type.REDIS)
+    static class RedisL2Configuration {
+
+        @Bean
+        @ConditionalOnMissingBean(L2Cache.class)
+        RedisL2Cache smartCacheRedisL2Cache(RedisConnectionFactory connectionFactory, ValueCodec codec,
+                SmartCacheProperties properties) {
+            return new RedisL2Cache(redisTemplate(connectionFactory, codec), properties.getL2().getKeyPrefix());
+        }
+    }
+
+    /** Redis pub/sub invalidation, used when a {@link RedisConnectionFactory} is available. */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RedisConnectionFactory.class)
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    @ConditionalOnInvalidationTransport(SmartCacheProperties.TransportType.REDIS)
+    static class RedisInvalidationConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(InvalidationTransport.class)
+        RedisInvalidationTransport smartCacheRedisInvalidationTransport(
+                RedisConnectionFactory connectionFactory, ValueCodec codec, SmartCacheProperties properties) {
+            return new RedisInvalidationTransport(
+                    redisTemplate(connectionFactory, codec), properties.getInvalidation().getChannel());
+        }
+    }
+
+    private static RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, ValueCodec codec) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(new CodecRedisSerializer(codec));
+        template.afterPropertiesSet();
+        return template;
+    }
+}
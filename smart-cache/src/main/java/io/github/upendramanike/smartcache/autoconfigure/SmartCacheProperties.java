@@ -0,0 +1,517 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import io.github.upendramanike.codec.BinaryCodec;
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import io.github.upendramanike.smartcache.core.CacheSettings;
+import io.github.upendramanike.smartcache.core.HotKeyPolicy;
+import io.github.upendramanike.smartcache.core.WarmUpPolicy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/** Configuration for smart-cache, bound from the {@code smartcache.*} namespace. */
+@ConfigurationProperties(prefix = "smartcache")
+public class SmartCacheProperties {
+
+    /** Master switch for the cache engine and its annotations. */
+    private boolean enabled = true;
+
+    private final Local l1 = new Local();
+
+    private final Shared l2 = new Shared();
+
+    private final Invalidation invalidation = new Invalidation();
+
+    private final HotKeys hotKeys = new HotKeys();
+
+    private final WarmUp warmUp = new WarmUp();
+
+    /**
+     * Fraction of each TTL, from 0 to 1, over which expiry is randomly spread on both levels; 0.1 keeps
+     * a 30 minute entry for 27 to 30 minutes, so entries written together do not all expire together.
+     */
+    private double ttlJitter = 0;
+
+    /** Per-cache-name overrides, e.g. {@code smartcache.caches.products.l1-ttl=1m}. */
+    private final Map<String, Overrides> caches = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Local getL1() {
+        return l1;
+    }
+
+    public Shared getL2() {
+        return l2;
+    }
+
+    public Invalidation getInvalidation() {
+        return invalidation;
+    }
+
+    public HotKeys getHotKeys() {
+        return hotKeys;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public double getTtlJitter() {
+        return ttlJitter;
+    }
+
+    public void setTtlJitter(double ttlJitter) {
+        this.ttlJitter = ttlJitter;
+    }
+
+    public Map<String, Overrides> getCaches() {
+        return caches;
+    }
+
+    /** Resolves the per-level settings for {@code cacheName}, applying any per-name override. */
+    public CacheSettings settingsFor(String cacheName) {
+        Overrides override = caches.get(cacheName);
+        if (override == null) {
+            return new CacheSettings(l1.getTtl(), l1.getMaximumSize(), l2.getTtl(), ttlJitter);
+        }
+        return new CacheSettings(
+                override.getL1Ttl() != null ? override.getL1Ttl() : l1.getTtl(),
+                override.getL1MaximumSize() != null ? override.getL1MaximumSize() : l1.getMaximumSize(),
+                override.getL2Ttl() != null ? override.getL2Ttl() : l2.getTtl(),
+                override.getTtlJitter() != null ? override.getTtlJitter() : ttlJitter);
+    }
+
+    /** Where the shared level lives. */
+    public enum L2Type {
+        /** Redis, through the application's {@code RedisConnectionFactory}. */
+        REDIS,
+        /** A map inside this JVM; for tests and single-instance setups. */
+        IN_MEMORY,
+        /** No shared level. */
+        NONE
+    }
+
+    /** How values are encoded for the shared level. */
+    public enum CodecFormat {
+        /** Compact binary encoding of records and serializable classes ({@code BinaryCodec}). */
+        BINARY,
+        /** Standard Java serialization ({@code JavaSerializationCodec}). */
+        JAVA
+    }
+
+    /** How local copies on other instances are invalidated after a write. */
+    public enum TransportType {
+        /** Redis pub/sub, through the application's {@code RedisConnectionFactory}. */
+        REDIS,
+        /** Delivery inside this JVM only; for tests. */
+        LOOPBACK,
+        /** No invalidation; local copies live until their L1 TTL expires. */
+        NONE
+    }
+
+    /** Local Caffeine level. */
+    public static class Local {
+
+        /** Time-to-live of local entries; keep it shorter than the shared TTL to bound staleness. */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /** Maximum local entries per cache name; 0 disables the bound. */
+        private long maximumSize = 10_000;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    /** Shared level. */
+    public static class Shared {
+
+        /** Backend of the shared level; {@code redis} needs a {@code RedisConnectionFactory} bean. */
+        private L2Type type = L2Type.REDIS;
+
+        /** Time-to-live of shared entries. */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /** Prefix of every Redis key written by the cache. */
+        private String keyPrefix = "smartcache:";
+
+        private final Batching batching = new Batching();
+
+        private final Codec codec = new Codec();
+
+        public L2Type getType() {
+            return type;
+        }
+
+        public void setType(L2Type type) {
+            this.type = type;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+
+        public Batching getBatching() {
+            return batching;
+        }
+
+        public Codec getCodec() {
+            return codec;
+        }
+    }
+
+    /** Serialization of shared entries and invalidation messages. */
+    public static class Codec {
+
+        /** Encoding of values written to Redis; ignored when a {@code ValueCodec} bean is declared. */
+        private CodecFormat format = CodecFormat.BINARY;
+
+        /** Whether large encoded values are LZ4-compressed. */
+        private boolean compression = true;
+
+        /** Encoded size from which values are compressed. */
+        private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+
+        public CodecFormat getFormat() {
+            return format;
+        }
+
+        public void setFormat(CodecFormat format) {
+            this.format = format;
+        }
+
+        public boolean isCompression() {
+            return compression;
+        }
+
+        public void setCompression(boolean compression) {
+            this.compression = compression;
+        }
+
+        public DataSize getCompressionThreshold() {
+            return compressionThreshold;
+        }
+
+        public void setCompressionThreshold(DataSize compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+        }
+    }
+
+    /** Micro-batching of concurrent single-key reads from the shared level into one multi-key read. */
+    public static class Batching {
+
+        /** Whether concurrent reads are merged; each read may wait up to {@code window} longer. */
+        private boolean enabled = false;
+
+        /** How long the first read of a batch waits for others to join it. */
+        private Duration window = Duration.ofMillis(1);
+
+        /** Reads after which a batch is sent without waiting for the window to end. */
+        private int maxBatchSize = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    /** Broadcast of writes and evictions to the local caches of other instances. */
+    public static class Invalidation {
+
+        /** Transport of invalidation messages; {@code redis} needs a {@code RedisConnectionFactory} bean. */
+        private TransportType transport = TransportType.REDIS;
+
+        /** Pub/sub channel shared by all instances of the application. */
+        private String channel = "smartcache:invalidations";
+
+        /** How long invalidations are buffered and coalesced before being published; 0 publishes immediately. */
+        private Duration flushInterval = Duration.ofMillis(10);
+
+        /** Buffered keys that trigger an immediate publish. */
+        private int maxBatchSize = 256;
+
+        public TransportType getTransport() {
+            return transport;
+        }
+
+        public void setTransport(TransportType transport) {
+            this.transport = transport;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    /** Detection of the most frequently read keys, which are pinned locally and refreshed ahead. */
+    public static class HotKeys {
+
+        /** Whether hot keys are detected and pinned. */
+        private boolean enabled = false;
+
+        /** Maximum number of keys pinned as hot, across all cache names. */
+        private int topK = 32;
+
+        /** Estimated reads within one sampling window for a key to count as hot. */
+        private int minHits = 100;
+
+        /** Counters per count-min sketch row; the sampling window is ten times this many reads. */
+        private int sketchWidth = 4096;
+
+        /** How often pinned keys are reloaded from L2 in the background. */
+        private Duration refreshInterval = Duration.ofSeconds(1);
+
+        /**
+         * Whether a pinned key missing from L2 is reloaded by calling the cached method from the
+         * background thread, instead of being unpinned and loaded by its next reader.
+         */
+        private boolean reloadFromLoader = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTopK() {
+            return topK;
+        }
+
+        public void setTopK(int topK) {
+            this.topK = topK;
+        }
+
+        public int getMinHits() {
+            return minHits;
+        }
+
+        public void setMinHits(int minHits) {
+            this.minHits = minHits;
+        }
+
+        public int getSketchWidth() {
+            return sketchWidth;
+        }
+
+        public void setSketchWidth(int sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public boolean isReloadFromLoader() {
+            return reloadFromLoader;
+        }
+
+        public void setReloadFromLoader(boolean reloadFromLoader) {
+            this.reloadFromLoader = reloadFromLoader;
+        }
+
+        /** The detection policy, or {@code null} when disabled. */
+        public HotKeyPolicy toPolicy() {
+            return enabled
+                    ? new HotKeyPolicy(topK, minHits, sketchWidth, refreshInterval, reloadFromLoader)
+                    : null;
+        }
+    }
+
+    /** Snapshots of the hottest local keys, reloaded from L2 at startup. */
+    public static class WarmUp {
+
+        /** Whether hot keys are snapshotted to {@link #file} and warmed before the application is ready. */
+        private boolean enabled = false;
+
+        /** Snapshot file; must not be shared by concurrently running instances. */
+        private Path file = Path.of(System.getProperty("java.io.tmpdir"), "smartcache", "warm-up.snapshot");
+
+        /** Hottest keys snapshotted per cache name. */
+        private int hottestPerCache = 1000;
+
+        /** Time between snapshots; a last snapshot is always taken at shutdown. */
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        /** Threads reading snapshotted keys from L2 at startup. */
+        private int parallelism = 4;
+
+        /** Longest time startup waits for the warm-up; remaining keys stay cold. */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public void setFile(Path file) {
+            this.file = file;
+        }
+
+        public int getHottestPerCache() {
+            return hottestPerCache;
+        }
+
+        public void setHottestPerCache(int hottestPerCache) {
+            this.hottestPerCache = hottestPerCache;
+        }
+
+        public Duration getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public WarmUpPolicy toPolicy() {
+            return new WarmUpPolicy(file, hottestPerCache, snapshotInterval, parallelism, timeout);
+        }
+    }
+
+    /** Settings for a single cache name; unset values fall back to the {@code l1}/{@code l2} defaults. */
+    public static class Overrides {
+
+        private Duration l1Ttl;
+
+        private Long l1MaximumSize;
+
+        private Duration l2Ttl;
+
+        private Double ttlJitter;
+
+        public Duration getL1Ttl() {
+            return l1Ttl;
+        }
+
+        public void setL1Ttl(Duration l1Ttl) {
+            this.l1Ttl = l1Ttl;
+        }
+
+        public Long getL1MaximumSize() {
+            return l1MaximumSize;
+        }
+
+        public void setL1MaximumSize(Long l1MaximumSize) {
+            this.l1MaximumSize = l1MaximumSize;
+        }
+
+        public Duration getL2Ttl() {
+            return l2Ttl;
+        }
+
+        public void setL2Ttl(Duration l2Ttl) {
+            this.l2Ttl = l2Ttl;
+        }
+
+        public Double getTtlJitter() {
+            return ttlJitter;
+        }
+
+        public void setTtlJitter(Double ttlJitter) {
+            this.ttlJitter = ttlJitter;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * {@link L2Cache} decorator that merges concurrent single-key reads of the same cache name into one
+ * {@link L2Cache#getAll} call, i.e. one {@code MGET} round trip on Redis.
+ *
+ * <p>The first read of a batch waits for {@code window}, collecting the reads that arrive meanwhile,
+ * and then performs the combined lookup for all of them; a batch reaching {@code maxBatchSize} is sent
+ * at once by the read that filled it. No extra threads are used. Each read may therefore take up to
+ * one window longer, in exchange for far fewer round trips under concurrent load. Writes, evictions
+ * and multi-key calls go straight to the delegate.
+ */
+public class BatchingL2Cache implements L2Cache {
+
+    private final L2Cache delegate;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Map<String, Batch> open = new HashMap<>();
+
+    /**
+     * @param window how long the first read of a batch waits for others to join it
+     * @param maxBatchSize number of reads after which a batch is sent without waiting
+     */
+    public BatchingL2Cache(L2Cache delegate, Duration window, int maxBatchSize) {
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        Batch batch;
+        boolean leader = false;
+        boolean full;
+        CompletableFuture<Object> result;
+        synchronized (open) {
+            batch = open.get(cacheName);
+            if (batch == null) {
+                batch = new Batch(cacheName);
+                open.put(cacheName, batch);
+                leader = true;
+            }
+            result = batch.add(key);
+            full = batch.size >= maxBatchSize;
+            if (full) {
+                open.remove(cacheName);
+            }
+        }
+        if (full) {
+            execute(batch);
+        } else if (leader) {
+            LockSupport.parkNanos(windowNanos);
+            if (close(batch)) {
+                execute(batch);
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, Duration ttl) {
+        delegate.put(cacheName, key, value, ttl);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        delegate.evict(cacheName, key);
+    }
+
+    @Override
+    public Map<String, Object> getAll(String cacheName, Collection<String> keys) {
+        return delegate.getAll(cacheName, keys);
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, ?> values, Duration ttl) {
+        delegate.putAll(cacheName, values, ttl);
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, ?> values, Supplier<Duration> ttl) {
+        delegate.putAll(cacheName, values, ttl);
+    }
+
+    /** Stops new reads from joining {@code batch}; returns whether this call closed it. */
+    private boolean close(Batch batch) {
+        synchronized (open) {
+            return open.remove(batch.cacheName, batch);
+        }
+    }
+
+    private void execute(Batch batch) {
+        Map<String, Object> values;
+        try {
+            values = delegate.getAll(batch.cacheName, batch.waiters.keySet());
+        } catch (RuntimeException | Error e) {
+            batch.waiters.values().forEach(waiters -> waiters.forEach(w -> w.completeExceptionally(e)));
+            return;
+        }
+        batch.waiters.forEach((key, waiters) -> waiters.forEach(w -> w.complete(values.get(key))));
+    }
+
+    /** Reads waiting for one combined lookup; guarded by the {@code open} monitor until closed. */
+    private static final class Batch {
+        final String cacheName;
+        final Map<String, List<CompletableFuture<Object>>> waiters = new HashMap<>();
+        int size;
+
+        Batch(String cacheName) {
+            this.cacheName = cacheName;
+        }
+
+        CompletableFuture<Object> add(String key) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            waiters.computeIfAbsent(key, k -> new ArrayList<>(1)).add(future);
+            size++;
+            return future;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+
+/**
+ * Per-level settings of one cache name.
+ *
+ * @param l1Ttl time-to-live of local (Caffeine) entries; zero or negative disables expiry
+ * @param l1MaximumSize maximum local entries; zero or negative disables the bound
+ * @param l2Ttl time-to-live of shared ({@link L2Cache}) entries; zero or negative disables expiry
+ * @param ttlJitter fraction of each TTL, from 0 to 1, over which expiry is randomly spread on both
+ *     levels (see {@link TtlJitter#uniform})
+ */
+public record CacheSettings(Duration l1Ttl, long l1MaximumSize, Duration l2Ttl, double ttlJitter) {
+
+    /** Five minutes locally, at most 10,000 local entries, thirty minutes in the shared cache. */
+    public static final CacheSettings DEFAULTS = new CacheSettings(Duration.ofMinutes(5), 10_000, Duration.ofMinutes(30));
+
+    public CacheSettings {
+        if (!(ttlJitter >= 0 && ttlJitter <= 1)) {
+            throw new IllegalArgumentException("ttlJitter must be between 0 and 1");
+        }
+    }
+
+    /** Settings without TTL jitter. */
+    public CacheSettings(Duration l1Ttl, long l1MaximumSize, Duration l2Ttl) {
+        this(l1Ttl, l1MaximumSize, l2Ttl, 0);
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms the local level of a {@link SmartCache} at startup. While the application runs, the
+ * {@linkplain SmartCache#hottestKeys(String, int) hottest keys} of every cache name are periodically
+ * written to a snapshot file, and once more on {@link #close()}. {@link #start()} reads the keys back
+ * and {@linkplain SmartCache#warm copies their current values from L2} into L1, in batches on a
+ * bounded pool; called while the application context starts, it runs before the application reports
+ * itself ready, so a new instance takes traffic without first missing locally on every hot key.
+ *
+ * <p>Only keys are snapshotted: L2 holds the current values, whereas values kept on disk could be
+ * older than writes made by other instances while this one was down. Keys no longer in L2 stay cold
+ * until they are next read.
+ */
+public class CacheWarmer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+    private static final int MAGIC = 0x53435753;
+    private static final int BATCH_SIZE = 100;
+
+    private final SmartCache cache;
+    private final WarmUpPolicy policy;
+    private ScheduledExecutorService scheduler;
+
+    public CacheWarmer(SmartCache cache, WarmUpPolicy policy) {
+        this.cache = cache;
+        this.policy = policy;
+    }
+
+    /** Warms L1 from the last snapshot, then snapshots it every {@link WarmUpPolicy#snapshotInterval()}. */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        int warmed = warm();
+        if (warmed > 0) {
+            log.info("Warmed local caches with {} entries listed in {}", warmed, policy.file());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smartcache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = policy.snapshotInterval().toMillis();
+        if (interval > 0) {
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the hottest keys of every cache name to the snapshot file, replacing the previous snapshot
+     * atomically, and returns the number of keys written.
+     */
+    public synchronized int snapshot() throws IOException {
+        Path file = policy.file();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            for (String cacheName : cache.cacheNames()) {
+                List<String> keys = cache.hottestKeys(cacheName, policy.hottestPerCache());
+                if (keys.isEmpty()) {
+                    continue;
+                }
+                out.writeBoolean(true);
+                writeString(out, cacheName);
+                out.writeInt(keys.size());
+                for (String key : keys) {
+                    writeString(out, key);
+                }
+                written += keys.size();
+            }
+            out.writeBoolean(false);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return written;
+    }
+
+    /**
+     * Copies the values of the snapshotted keys from L2 into L1, using up to
+     * {@link WarmUpPolicy#parallelism()} threads for at most {@link WarmUpPolicy#timeout()}, and returns
+     * the number of entries warmed. A missing or unreadable file warms nothing.
+     */
+    public int warm() {
+        Map<String, List<String>> snapshot = read();
+        if (snapshot.isEmpty()) {
+            return 0;
+        }
+        AtomicInteger warmed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, policy.parallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "smartcache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshot.forEach((cacheName, keys) -> {
+            for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+                List<String> batch = keys.subList(from, Math.min(keys.size(), from + BATCH_SIZE));
+                pool.execute(() -> warmed.addAndGet(cache.warm(cacheName, batch)));
+            }
+        });
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(policy.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Cache warm-up did not finish within {}; continuing with {} entries warmed",
+                        policy.timeout(), warmed.get());
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        return warmed.get();
+    }
+
+    /** Stops the snapshot schedule and takes a last snapshot, so the next start sees the current working set. */
+    @Override
+    public synchronized void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        snapshotQuietly();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write cache snapshot {}: {}", policy.file(), e.toString());
+        }
+    }
+
+    private Map<String, List<String>> read() {
+        Map<String, List<String>> snapshot = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(policy.file())))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Ignoring cache snapshot {}: unknown format", policy.file());
+                return Map.of();
+            }
+            while (in.readBoolean()) {
+                String cacheName = readString(in);
+                int count = in.readInt();
+                if (count < 0) {
+                    throw new IOException("corrupt key count");
+                }
+                List<String> keys = new ArrayList<>(Math.min(count, policy.hottestPerCache()));
+                snapshot.put(cacheName, keys);
+                for (int i = 0; i < count; i++) {
+                    keys.add(readString(in));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return Map.of();
+        } catch (EOFException e) {
+            log.warn("Cache snapshot {} is truncated; warming the keys read so far", policy.file());
+        } catch (IOException e) {
+            log.warn("Could not read cache snapshot {}: {}", policy.file(), e.toString());
+        }
+        return snapshot;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("corrupt string length");
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
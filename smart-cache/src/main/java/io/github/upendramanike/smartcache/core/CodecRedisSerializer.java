@@ -0,0 +1,41 @@
+package io.github.upendramanike.smartcache.core;
+
+import io.github.upendramanike.codec.ValueCodec;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/** {@link RedisSerializer} backed by a {@link ValueCodec}; {@code null} is stored as an empty value. */
+public class CodecRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ValueCodec codec;
+
+    public CodecRedisSerializer(ValueCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return EMPTY;
+        }
+        try {
+            return codec.encode(value);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot serialize " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return codec.decode(bytes);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot deserialize cached value", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Finds the most frequently accessed keys with a count-min sketch and a bounded set of the top
+ * {@code K} candidates.
+ *
+ * <p>Every access increments the key's counters in four sketch rows; its estimate is the smallest of
+ * them. A key whose estimate reaches {@code minHits} and exceeds the coldest tracked key replaces it.
+ * Once per sampling window all counters are halved, so keys that cool down drop out. Accesses to cold
+ * or already tracked keys never lock; counts are approximate under concurrency.
+ */
+public class HotKeyDetector {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final AtomicIntegerArray table;
+    private final int shift;
+    private final int width;
+    private final int topK;
+    private final int minHits;
+    private final int sampleSize;
+    private final AtomicInteger samples = new AtomicInteger();
+    private final ConcurrentHashMap<Key, Candidate> members = new ConcurrentHashMap<>();
+    private volatile int admissionFloor;
+
+    public HotKeyDetector(HotKeyPolicy policy) {
+        this.width = Math.max(64, Integer.highestOneBit(Math.max(1, policy.sketchWidth() - 1)) << 1);
+        this.shift = 64 - Integer.numberOfTrailingZeros(width);
+        this.table = new AtomicIntegerArray(DEPTH * width);
+        this.topK = Math.max(1, policy.topK());
+        this.minHits = Math.max(1, policy.minHits());
+        this.sampleSize = width * 10;
+    }
+
+    /** Records an access and returns whether the key is currently tracked as hot. */
+    public boolean record(String cacheName, String key) {
+        Key hotKey = new Key(cacheName, key);
+        int estimate = increment(31 * cacheName.hashCode() + key.hashCode());
+        if (samples.incrementAndGet() == sampleSize) {
+            age();
+        }
+        Candidate member = members.get(hotKey);
+        if (member != null) {
+            member.count = estimate;
+            return true;
+        }
+        if (estimate < minHits || estimate <= admissionFloor) {
+            return false;
+        }
+        return admit(hotKey, estimate);
+    }
+
+    /** Whether the key is currently tracked as hot. */
+    public boolean isHot(String cacheName, String key) {
+        return members.containsKey(new Key(cacheName, key));
+    }
+
+    /** Tracked hot keys, hottest first, with their estimated accesses in the current window. */
+    public List<HotKey> topKeys() {
+        List<HotKey> keys = new ArrayList<>(members.size());
+        members.forEach((key, candidate) -> keys.add(new HotKey(key.cacheName(), key.key(), candidate.count)));
+        keys.sort(Comparator.comparingInt(HotKey::estimatedHits).reversed());
+        return keys;
+    }
+
+    private int increment(int hash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + (int) (((hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH]) >>> shift);
+            int value = table.get(index);
+            if (value < Integer.MAX_VALUE) {
+                value = table.incrementAndGet(index);
+            }
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private synchronized boolean admit(Key hotKey, int estimate) {
+        if (members.containsKey(hotKey)) {
+            return true;
+        }
+        if (members.size() >= topK) {
+            Key coldest = null;
+            int coldestCount = Integer.MAX_VALUE;
+            for (var entry : members.entrySet()) {
+                if (entry.getValue().count < coldestCount) {
+                    coldest = entry.getKey();
+                    coldestCount = entry.getValue().count;
+                }
+            }
+            if (estimate <= coldestCount) {
+                admissionFloor = coldestCount;
+                return false;
+            }
+            members.remove(coldest);
+        }
+        members.put(hotKey, new Candidate(estimate));
+        admissionFloor = members.size() < topK ? 0 : minCount();
+        return true;
+    }
+
+    /** Halves every counter and drops tracked keys that fell below {@code minHits}. */
+    private synchronized void age() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, table.get(i) >>> 1);
+        }
+        members.values().forEach(candidate -> candidate.count >>>= 1);
+        members.values().removeIf(candidate -> candidate.count < minHits);
+        admissionFloor = members.size() < topK ? 0 : minCount();
+        samples.set(0);
+    }
+
+    private int minCount() {
+        int min = Integer.MAX_VALUE;
+        for (Candidate candidate : members.values()) {
+            min = Math.min(min, candidate.count);
+        }
+        return min;
+    }
+
+    /** A hot key and its estimated accesses in the current sampling window. */
+    public record HotKey(String cacheName, String key, int estimatedHits) {}
+
+    private record Key(String cacheName, String key) {}
+
+    private static final class Candidate {
+        volatile int count;
+
+        Candidate(int count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+
+/**
+ * Settings for hot-key detection in {@link SmartCache}.
+ *
+ * <p>By default a pinned key is refreshed from L2 only: when L2 no longer has it, it is unpinned and
+ * its next read loads it like any miss, on the reader's thread. With {@code reloadFromLoader} the
+ * background refresh calls the loader of the read that pinned the key instead, so the cached method
+ * runs on the maintenance thread, with the arguments and any request-scoped state that read captured,
+ * for as long as the key stays hot. Enable it only for loaders that are safe to call that way.
+ *
+ * @param topK maximum number of keys tracked as hot across all cache names
+ * @param minHits estimated accesses within the current sampling window for a key to count as hot
+ * @param sketchWidth counters per row of the count-min sketch, rounded up to a power of two; the
+ *     sampling window is ten times this many accesses
+ * @param refreshInterval how often pinned hot keys are refreshed from L2
+ * @param reloadFromLoader whether a pinned key missing from L2 is reloaded through its loader
+ */
+public record HotKeyPolicy(int topK, int minHits, int sketchWidth, Duration refreshInterval,
+        boolean reloadFromLoader) {
+
+    public static final HotKeyPolicy DEFAULTS = new HotKeyPolicy(32, 100, 4096, Duration.ofSeconds(1));
+
+    /** A policy refreshing pinned keys from L2 only. */
+    public HotKeyPolicy(int topK, int minHits, int sketchWidth, Duration refreshInterval) {
+        this(topK, minHits, sketchWidth, refreshInterval, false);
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process {@link L2Cache} for tests and single-instance setups. Expired entries are removed when
+ * they are read; the map is otherwise unbounded.
+ *
+ * <p>A simulated latency makes every call, including each {@link #getAll} and {@link #putAll}, cost one
+ * network round trip, which is useful to test batching; {@link #roundTrips()} counts them.
+ */
+public class InMemoryL2Cache implements L2Cache {
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final long latencyNanos;
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    public InMemoryL2Cache() {
+        this(Duration.ZERO);
+    }
+
+    /** @param latency delay added to every call, simulating a round trip to a remote cache */
+    public InMemoryL2Cache(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        roundTrip();
+        return read(new Key(cacheName, key));
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, Duration ttl) {
+        roundTrip();
+        write(cacheName, key, value, ttl);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        roundTrip();
+        entries.remove(new Key(cacheName, key));
+    }
+
+    @Override
+    public Map<String, Object> getAll(String cacheName, Collection<String> keys) {
+        roundTrip();
+        Map<String, Object> values = new HashMap<>();
+        for (String key : keys) {
+            Object value = read(new Key(cacheName, key));
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, ?> values, Duration ttl) {
+        roundTrip();
+        values.forEach((key, value) -> write(cacheName, key, value, ttl));
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, ?> values, Supplier<Duration> ttl) {
+        roundTrip();
+        values.forEach((key, value) -> write(cacheName, key, value, ttl.get()));
+    }
+
+    /** Number of entries held, including expired ones not read since. */
+    public int size() {
+        return entries.size();
+    }
+
+    /** Number of calls made so far; a multi-key call counts once. */
+    public long roundTrips() {
+        return roundTrips.get();
+    }
+
+    private Object read(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void write(String cacheName, String key, Object value, Duration ttl) {
+        long expiresAt = ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : System.currentTimeMillis() + ttl.toMillis();
+        entries.put(new Key(cacheName, key), new Entry(value, expiresAt));
+    }
+
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        if (latencyNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record Key(String cacheName, String key) {}
+
+    private record Entry(Object value, long expiresAtMillis) {}
+}
@@ -0,0 +1,121 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Broadcasts invalidations of local cache entries to the other instances over an
+ * {@link InvalidationTransport}.
+ *
+ * <p>Invalidations are buffered for up to {@code flushInterval} and sent as one message; repeated
+ * invalidations of the same key within a batch are coalesced into one carrying the newest version. A
+ * batch is sent early once it holds {@code maxBatchSize} keys. A zero interval publishes immediately.
+ */
+public class InvalidationBus implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final InvalidationTransport transport;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final String source = UUID.randomUUID().toString();
+    private final ScheduledExecutorService flusher;
+    private Map<Key, Long> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private boolean closed;
+
+    public InvalidationBus(InvalidationTransport transport) {
+        this(transport, Duration.ofMillis(10), 256);
+    }
+
+    /**
+     * @param flushInterval how long invalidations are buffered before being published
+     * @param maxBatchSize number of buffered keys that triggers an immediate publish
+     */
+    public InvalidationBus(InvalidationTransport transport, Duration flushInterval, int maxBatchSize) {
+        this.transport = transport;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smartcache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Receives invalidations published by other instances. */
+    @FunctionalInterface
+    public interface Listener {
+        void invalidate(String cacheName, String key, long version);
+    }
+
+    /** Delivers invalidations from other instances to {@code listener}; messages from this bus are skipped. */
+    public void subscribe(Listener listener) {
+        transport.subscribe(message -> {
+            if (source.equals(message.source())) {
+                return;
+            }
+            for (InvalidationMessage.Invalidation invalidation : message.invalidations()) {
+                listener.invalidate(invalidation.cacheName(), invalidation.key(), invalidation.version());
+            }
+        });
+    }
+
+    /** Queues an invalidation of {@code key} for entries older than {@code version}. */
+    public void publish(String cacheName, String key, long version) {
+        boolean flushNow;
+        synchronized (this) {
+            pending.merge(new Key(cacheName, key), version, Math::max);
+            flushNow = closed || flushIntervalMillis <= 0 || pending.size() >= maxBatchSize;
+            if (!flushNow && !flushScheduled) {
+                flushScheduled = true;
+                flusher.schedule(this::flush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /** Publishes all buffered invalidations now. */
+    public void flush() {
+        Map<Key, Long> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        List<InvalidationMessage.Invalidation> invalidations = new ArrayList<>(batch.size());
+        batch.forEach((key, version) ->
+                invalidations.add(new InvalidationMessage.Invalidation(key.cacheName(), key.key(), version)));
+        try {
+            transport.publish(new InvalidationMessage(source, invalidations));
+        } catch (RuntimeException e) {
+            log.warn("Could not publish {} cache invalidations: {}", invalidations.size(), e.toString());
+        }
+    }
+
+    /** Publishes buffered invalidations and stops the flush thread; the transport is left open. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private record Key(String cacheName, String key) {}
+}
@@ -0,0 +1,16 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Batch of invalidations published by one instance.
+ *
+ * @param source identifies the publishing {@link InvalidationBus}, which ignores its own messages
+ * @param invalidations at most one per cache name and key, carrying the newest version
+ */
+public record InvalidationMessage(String source, List<Invalidation> invalidations) implements Serializable {
+
+    /** Local copies of {@code key} older than {@code version} are stale. */
+    public record Invalidation(String cacheName, String key, long version) implements Serializable {}
+}
@@ -0,0 +1,19 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link InvalidationMessage}s between instances sharing an L2, e.g. over Redis pub/sub.
+ * Delivery is best effort; a lost message leaves a stale local entry until its L1 TTL expires.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    void publish(InvalidationMessage message);
+
+    /** Registers a listener for messages from every instance, including this one. */
+    void subscribe(Consumer<InvalidationMessage> listener);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shared second-level cache behind the local Caffeine cache of {@link SmartCache}, typically Redis.
+ * Implementations may throw runtime exceptions when the backend is unavailable; {@link SmartCache}
+ * treats them as misses so an outage of the shared cache never fails a read-through.
+ */
+public interface L2Cache {
+
+    /** Returns the cached value, or {@code null} on a miss. */
+    Object get(String cacheName, String key);
+
+    /** Stores a non-null value; a zero or negative {@code ttl} means no expiry. */
+    void put(String cacheName, String key, Object value, Duration ttl);
+
+    void evict(String cacheName, String key);
+
+    /**
+     * Returns the cached values of {@code keys}; missing keys are absent from the result. Backends that
+     * support it should answer in one round trip; the default calls {@link #get} per key.
+     */
+    default Map<String, Object> getAll(String cacheName, Collection<String> keys) {
+        Map<String, Object> values = new HashMap<>();
+        for (String key : keys) {
+            Object value = get(cacheName, key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Stores non-null values with the same {@code ttl}. Backends that support it should write them in
+     * one round trip; the default calls {@link #put} per entry.
+     */
+    default void putAll(String cacheName, Map<String, ?> values, Duration ttl) {
+        values.forEach((key, value) -> put(cacheName, key, value, ttl));
+    }
+
+    /**
+     * Stores non-null values, each with its own time-to-live taken from {@code ttl} (e.g. a jittered
+     * TTL). Backends that support it should write them in one round trip; the default calls
+     * {@link #put} per entry.
+     */
+    default void putAll(String cacheName, Map<String, ?> values, Supplier<Duration> ttl) {
+        values.forEach((key, value) -> put(cacheName, key, value, ttl.get()));
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationTransport} inside one JVM that delivers messages synchronously to every
+ * subscriber; share one instance between several {@link SmartCache}s to simulate a cluster in tests.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> listener : listeners) {
+            listener.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+}
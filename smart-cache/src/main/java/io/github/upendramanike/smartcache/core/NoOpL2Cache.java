@@ -0,0 +1,20 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+
+/** {@link L2Cache} that stores nothing, leaving {@link SmartCache} with its local level only. */
+public class NoOpL2Cache implements L2Cache {
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return null;
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, Duration ttl) {
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+    }
+}
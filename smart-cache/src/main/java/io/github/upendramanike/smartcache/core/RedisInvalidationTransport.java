@@ -0,0 +1,50 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.util.function.Consumer;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/** {@link InvalidationTransport} over a Redis pub/sub channel. */
+public class RedisInvalidationTransport implements InvalidationTransport {
+
+    private final RedisTemplate<String, Object> redis;
+    private final ChannelTopic channel;
+    private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+
+    /**
+     * @param redis template whose value serializer can handle {@link InvalidationMessage}
+     * @param channel pub/sub channel shared by all instances of the application
+     */
+    public RedisInvalidationTransport(RedisTemplate<String, Object> redis, String channel) {
+        this.redis = redis;
+        this.channel = new ChannelTopic(channel);
+        container.setConnectionFactory(redis.getRequiredConnectionFactory());
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        redis.convertAndSend(channel.getTopic(), message);
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        container.addMessageListener((message, pattern) -> {
+            if (redis.getValueSerializer().deserialize(message.getBody()) instanceof InvalidationMessage received) {
+                listener.accept(received);
+            }
+        }, channel);
+    }
+
+    @Override
+    public void close() {
+        container.stop();
+        try {
+            container.destroy();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+/**
+ * Redis-backed {@link L2Cache}. Entries are stored under {@code keyPrefix + cacheName + "::" + key}
+ * with the level-two TTL as Redis expiry, so every instance shares one copy of each value.
+ * {@link #getAll} is a single {@code MGET}; {@link #putAll} pipelines one {@code SET} per entry.
+ */
+public class RedisL2Cache implements L2Cache {
+
+    private final RedisTemplate<String, Object> redis;
+    private final String keyPrefix;
+
+    /**
+     * @param redis template whose value serializer can handle the cached values
+     * @param keyPrefix prefix of every Redis key, e.g. {@code "smartcache:"}
+     */
+    public RedisL2Cache(RedisTemplate<String, Object> redis, String keyPrefix) {
+        this.redis = redis;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return redis.opsForValue().get(redisKey(cacheName, key));
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, Duration ttl) {
+        set(redis, redisKey(cacheName, key), value, ttl);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        redis.delete(redisKey(cacheName, key));
+    }
+
+    @Override
+    public Map<String, Object> getAll(String cacheName, Collection<String> keys) {
+        List<String> requested = new ArrayList<>(keys);
+        List<String> redisKeys = new ArrayList<>(requested.size());
+        for (String key : requested) {
+            redisKeys.add(redisKey(cacheName, key));
+        }
+        List<Object> found = redis.opsForValue().multiGet(redisKeys);
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; found != null && i < requested.size(); i++) {
+            if (found.get(i) != null) {
+                values.put(requested.get(i), found.get(i));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, ?> values, Duration ttl) {
+        putAll(cacheName, values, () -> ttl);
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, ?> values, Supplier<Duration> ttl) {
+        redis.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> pipeline = (RedisOperations<String, Object>) operations;
+                values.forEach((key, value) -> set(pipeline, redisKey(cacheName, key), value, ttl.get()));
+                return null;
+            }
+        });
+    }
+
+    String redisKey(String cacheName, String key) {
+        return keyPrefix + cacheName + "::" + key;
+    }
+
+    private static void set(RedisOperations<String, Object> operations, String key, Object value, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            operations.opsForValue().set(key, value);
+        } else {
+            operations.opsForValue().set(key, value, ttl);
+        }
+    }
+}
@@ -0,0 +1,640 @@
+package io.github.upendramanike.smartcache.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Two-level cache-aside engine: a local Caffeine cache (L1) per cache name in front of a shared
+ * {@link L2Cache} (L2), each level with its own TTL.
+ *
+ * <p>{@link #get(String, String, Supplier)} reads through both levels: an L1 miss consults L2, and an L2
+ * miss invokes the loader and writes its result to both levels. Concurrent L1 misses for the same key
+ * share one lookup. {@link #put} and {@link #evict} write through to both levels. L2 failures are
+ * logged and treated as misses.
+ *
+ * <p>With an {@link InvalidationBus}, writes and evictions also invalidate the L1 copies held by
+ * other instances. Every entry is {@linkplain Versioned versioned} with the time it was written or its
+ * load started, so an invalidation only removes older copies: late or reordered invalidations never
+ * discard newer data, and a load racing with an invalidation does not repopulate L1 with the value it
+ * replaced. Versions are derived from the wall clock, so instances should have synchronized clocks.
+ *
+ * <p>With a {@link HotKeyPolicy}, a {@link HotKeyDetector} tracks the most frequently read keys. Hot
+ * keys are pinned locally, outside the size and TTL bounds of L1, and refreshed from L2 every
+ * {@link HotKeyPolicy#refreshInterval()} in the background, so their readers neither wait for L2 nor
+ * hit it on every L1 expiry. Keys that cool down, or that L2 no longer has, are unpinned; loaders are
+ * only kept for the refresh if {@link HotKeyPolicy#reloadFromLoader()} opts in.
+ *
+ * <p>Meters, tagged with {@code cache}: the Caffeine statistics of each L1 ({@code cache.gets} etc.,
+ * tagged {@code level=l1}), {@code smartcache.l2.requests} by {@code result} (hit, miss, error),
+ * {@code smartcache.loads} timing loader calls by {@code outcome} (success, failure) and
+ * {@code smartcache.invalidations} received from other instances by {@code result} (applied, ignored),
+ * and for hot keys {@code smartcache.hotkeys.hits} served from pinned entries,
+ * {@code smartcache.hotkeys.pinned} and {@code smartcache.hotkeys.refreshes} by {@code outcome}.
+ */
+public class SmartCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SmartCache.class);
+
+    /** How long a received invalidation keeps blocking older values from entering L1. */
+    private static final Duration TOMBSTONE_TTL = Duration.ofSeconds(30);
+
+    private final ConcurrentHashMap<String, Region> regions = new ConcurrentHashMap<>();
+    private final AtomicLong lastVersion = new AtomicLong();
+    private final Function<String, CacheSettings> settings;
+    private final L2Cache l2;
+    private final MeterRegistry registry;
+    private final InvalidationBus bus;
+    private final HotKeyDetector hotKeys;
+    private final boolean reloadHotKeysFromLoader;
+    private final ScheduledExecutorService maintenance;
+
+    /**
+     * @param settings per-level settings of each cache name, resolved once when the name is first used
+     * @param l2 shared second level; use {@link NoOpL2Cache} for a local cache only
+     * @param registry registry receiving the cache meters
+     */
+    public SmartCache(Function<String, CacheSettings> settings, L2Cache l2, MeterRegistry registry) {
+        this(settings, l2, registry, null);
+    }
+
+    /** @param bus broadcasts local writes to, and receives invalidations from, other instances; may be {@code null} */
+    public SmartCache(Function<String, CacheSettings> settings, L2Cache l2, MeterRegistry registry, InvalidationBus bus) {
+        this(settings, l2, registry, bus, null);
+    }
+
+    /** @param hotKeyPolicy enables hot-key detection and pinning; may be {@code null} */
+    public SmartCache(Function<String, CacheSettings> settings, L2Cache l2, MeterRegistry registry,
+            InvalidationBus bus, HotKeyPolicy hotKeyPolicy) {
+        this.settings = settings;
+        this.l2 = l2;
+        this.registry = registry;
+        this.bus = bus;
+        this.reloadHotKeysFromLoader = hotKeyPolicy != null && hotKeyPolicy.reloadFromLoader();
+        if (hotKeyPolicy != null) {
+            this.hotKeys = new HotKeyDetector(hotKeyPolicy);
+            this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "smartcache-hotkeys");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, hotKeyPolicy.refreshInterval().toMillis());
+            maintenance.scheduleWithFixedDelay(this::refreshHotKeys, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.hotKeys = null;
+            this.maintenance = null;
+        }
+        if (bus != null) {
+            bus.subscribe(this::invalidateLocal);
+        }
+    }
+
+    /**
+     * Returns the value cached under {@code key}, loading it with {@code loader} on a miss in both
+     * levels. A {@code null} result is returned but not cached; exceptions from the loader propagate.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String key, Supplier<? extends T> loader) {
+        Region region = region(cacheName);
+        boolean hot = false;
+        if (hotKeys != null) {
+            hot = hotKeys.record(cacheName, key);
+            Pinned pinned = region.pinned.get(key);
+            if (pinned != null) {
+                region.hotHits.increment();
+                return (T) pinned.entry.value();
+            }
+        }
+        Versioned entry = region.l1.get(key, k -> {
+            Versioned value = readL2(region, k);
+            if (value == null) {
+                long version = nextVersion();
+                Object loaded = load(region, loader);
+                if (loaded != null) {
+                    value = new Versioned(loaded, version);
+                    writeL2(region, k, value);
+                }
+            }
+            return value;
+        });
+        if (entry == null) {
+            return null;
+        }
+        if (!dropIfInvalidated(region, key, entry) && hot) {
+            region.pinned.putIfAbsent(key, new Pinned(entry, reloadHotKeysFromLoader ? loader : null));
+        }
+        return (T) entry.value();
+    }
+
+    /** Returns the cached value from either level without loading it, or {@code null} on a miss. */
+    public Object getIfPresent(String cacheName, String key) {
+        Region region = region(cacheName);
+        if (hotKeys != null) {
+            Pinned pinned = region.pinned.get(key);
+            if (pinned != null) {
+                region.hotHits.increment();
+                return pinned.entry.value();
+            }
+        }
+        Versioned entry = region.l1.getIfPresent(key);
+        if (entry == null) {
+            entry = readL2(region, key);
+            if (entry == null) {
+                return null;
+            }
+            region.l1.put(key, entry);
+            dropIfInvalidated(region, key, entry);
+        }
+        return entry.value();
+    }
+
+    /**
+     * Multi-key read-through: returns the values of {@code keys} found locally, then those found in L2
+     * with one {@link L2Cache#getAll} call, and loads the rest with a single {@code loader} call whose
+     * results are written to L2 with one {@link L2Cache#putAll}. Keys without a value are absent from
+     * the result, which follows the order of {@code keys}. Unlike {@link #get}, concurrent misses of the
+     * same keys are not coalesced.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getAll(String cacheName, Collection<String> keys,
+            Function<? super Set<String>, ? extends Map<String, ? extends T>> loader) {
+        Region region = region(cacheName);
+        Map<String, Object> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (hotKeys != null) {
+                hotKeys.record(cacheName, key);
+                Pinned pinned = region.pinned.get(key);
+                if (pinned != null) {
+                    region.hotHits.increment();
+                    found.put(key, pinned.entry.value());
+                    continue;
+                }
+            }
+            Versioned entry = region.l1.getIfPresent(key);
+            if (entry != null) {
+                found.put(key, entry.value());
+            } else {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            readAllL2(region, missing).forEach((key, entry) -> {
+                region.l1.put(key, entry);
+                dropIfInvalidated(region, key, entry);
+                found.put(key, entry.value());
+                missing.remove(key);
+            });
+        }
+        if (!missing.isEmpty()) {
+            long version = nextVersion();
+            Map<String, ?> loaded = load(region, () -> loader.apply(Set.copyOf(missing)));
+            Map<String, Versioned> entries = new HashMap<>();
+            if (loaded != null) {
+                loaded.forEach((key, value) -> {
+                    if (value != null && missing.contains(key)) {
+                        entries.put(key, new Versioned(value, version));
+                        found.put(key, value);
+                    }
+                });
+            }
+            writeAllL2(region, entries);
+            region.l1.putAll(entries);
+        }
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            Object value = found.get(key);
+            if (value != null) {
+                result.put(key, (T) value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores all non-null {@code values} in both levels, writing L2 with one {@link L2Cache#putAll}
+     * call, and invalidates other instances' copies.
+     */
+    public void putAll(String cacheName, Map<String, ?> values) {
+        Region region = region(cacheName);
+        long version = nextVersion();
+        Map<String, Versioned> entries = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (value != null) {
+                entries.put(key, new Versioned(value, version));
+            }
+        });
+        writeAllL2(region, entries);
+        region.l1.putAll(entries);
+        entries.forEach((key, entry) -> {
+            Pinned pinned = region.pinned.get(key);
+            if (pinned != null) {
+                pinned.entry = entry;
+            }
+            publish(cacheName, key, version);
+        });
+    }
+
+    /** Stores {@code value} in both levels and invalidates other instances' copies; {@code null} evicts. */
+    public void put(String cacheName, String key, Object value) {
+        if (value == null) {
+            evict(cacheName, key);
+            return;
+        }
+        Region region = region(cacheName);
+        Versioned entry = new Versioned(value, nextVersion());
+        writeL2(region, key, entry);
+        region.l1.put(key, entry);
+        Pinned pinned = region.pinned.get(key);
+        if (pinned != null) {
+            pinned.entry = entry;
+        }
+        publish(cacheName, key, entry.version());
+    }
+
+    /** Removes {@code key} from both levels and from other instances' local caches. */
+    public void evict(String cacheName, String key) {
+        Region region = region(cacheName);
+        long version = nextVersion();
+        region.l1.invalidate(key);
+        region.pinned.remove(key);
+        try {
+            l2.evict(cacheName, key);
+        } catch (RuntimeException e) {
+            region.l2Errors.increment();
+            log.warn("L2 evict failed for {}::{}: {}", cacheName, key, e.toString());
+        }
+        publish(cacheName, key, version);
+    }
+
+    /**
+     * Drops the local copy of {@code key} if it is older than {@code version}; called for invalidations
+     * received from other instances. Returns whether a copy was dropped.
+     */
+    public boolean invalidateLocal(String cacheName, String key, long version) {
+        Region region = regions.get(cacheName);
+        if (region == null) {
+            return false;
+        }
+        region.tombstones.asMap().merge(key, version, Math::max);
+        boolean[] dropped = new boolean[1];
+        region.l1.asMap().computeIfPresent(key, (k, entry) -> {
+            dropped[0] = entry.version() < version;
+            return dropped[0] ? null : entry;
+        });
+        region.pinned.computeIfPresent(key, (k, pinned) -> {
+            if (pinned.entry.version() >= version) {
+                return pinned;
+            }
+            dropped[0] = true;
+            return null;
+        });
+        (dropped[0] ? region.invalidationsApplied : region.invalidationsIgnored).increment();
+        return dropped[0];
+    }
+
+    /**
+     * Copies those of {@code keys} that L2 holds into the local level of {@code cacheName}, with one
+     * {@link L2Cache#getAll} call, and returns how many it copied. Keys already cached locally are
+     * skipped. Used by {@link CacheWarmer} to warm L1 at startup.
+     */
+    public int warm(String cacheName, Collection<String> keys) {
+        Region region = region(cacheName);
+        Set<String> missing = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (!region.l1.asMap().containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        int[] warmed = new int[1];
+        readAllL2(region, missing).forEach((key, entry) -> {
+            region.l1.asMap().putIfAbsent(key, entry);
+            if (!dropIfInvalidated(region, key, entry)) {
+                warmed[0]++;
+            }
+        });
+        return warmed[0];
+    }
+
+    /**
+     * Up to {@code limit} locally cached keys of {@code cacheName}, most used first: pinned hot keys,
+     * then the L1 entries that Caffeine's frequency sketch ranks hottest (any L1 entries when L1 has
+     * no size bound).
+     */
+    public List<String> hottestKeys(String cacheName, int limit) {
+        Region region = regions.get(cacheName);
+        if (region == null || limit <= 0) {
+            return List.of();
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        Set<String> l1Keys = region.l1.policy().eviction()
+                .map(eviction -> eviction.hottest(limit).keySet())
+                .orElseGet(() -> region.l1.asMap().keySet());
+        for (Set<String> source : List.of(region.pinned.keySet(), l1Keys)) {
+            for (String key : source) {
+                if (keys.size() == limit) {
+                    return List.copyOf(keys);
+                }
+                keys.add(key);
+            }
+        }
+        return List.copyOf(keys);
+    }
+
+    /** Names of the caches used so far. */
+    public Set<String> cacheNames() {
+        return Set.copyOf(regions.keySet());
+    }
+
+    /** Number of entries in the local level of {@code cacheName}. */
+    public long localSize(String cacheName) {
+        Region region = regions.get(cacheName);
+        return region == null ? 0 : region.l1.estimatedSize();
+    }
+
+    /** Hot keys currently tracked, hottest first; empty without a {@link HotKeyPolicy}. */
+    public List<HotKeyDetector.HotKey> hotKeys() {
+        return hotKeys == null ? List.of() : hotKeys.topKeys();
+    }
+
+    /** Whether {@code key} is currently pinned as a hot key. */
+    public boolean isPinned(String cacheName, String key) {
+        Region region = regions.get(cacheName);
+        return region != null && region.pinned.containsKey(key);
+    }
+
+    /** Publishes pending invalidations, closes the {@link InvalidationBus} and stops hot-key refreshes. */
+    @Override
+    public void close() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+        if (bus != null) {
+            bus.close();
+        }
+    }
+
+    private Region region(String cacheName) {
+        Region region = regions.get(cacheName);
+        return region != null ? region : regions.computeIfAbsent(cacheName, Region::new);
+    }
+
+    /** Monotonic per instance and close to wall-clock time, so versions are comparable across instances. */
+    private long nextVersion() {
+        long now = System.currentTimeMillis() << 12;
+        return lastVersion.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    private void publish(String cacheName, String key, long version) {
+        if (bus != null) {
+            bus.publish(cacheName, key, version);
+        }
+    }
+
+    /**
+     * Removes an entry that entered L1 after a newer invalidation of its key was received; returns
+     * whether it did.
+     */
+    private boolean dropIfInvalidated(Region region, String key, Versioned entry) {
+        Long invalidated = region.tombstones.getIfPresent(key);
+        if (invalidated != null && entry.version() < invalidated) {
+            region.l1.asMap().remove(key, entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Unpins keys that are no longer hot and refreshes the others from L2, unpinning those it no longer
+     * has unless their loader was kept; runs on the maintenance thread.
+     */
+    private void refreshHotKeys() {
+        regions.values().forEach(region -> region.pinned.forEach((key, pinned) -> {
+            if (!hotKeys.isHot(region.name, key)) {
+                region.pinned.remove(key, pinned);
+                region.l1.put(key, pinned.entry);
+                return;
+            }
+            try {
+                Versioned fresh = readL2(region, key);
+                if (fresh == null && pinned.loader != null) {
+                    long version = nextVersion();
+                    Object loaded = load(region, pinned.loader);
+                    if (loaded != null) {
+                        fresh = new Versioned(loaded, version);
+                        writeL2(region, key, fresh);
+                    }
+                }
+                Long invalidated = region.tombstones.getIfPresent(key);
+                if (fresh == null || (invalidated != null && fresh.version() < invalidated)) {
+                    region.pinned.remove(key, pinned);
+                } else if (fresh.version() >= pinned.entry.version()) {
+                    pinned.entry = fresh;
+                }
+                region.hotRefreshSuccess.increment();
+            } catch (RuntimeException e) {
+                region.hotRefreshFailure.increment();
+                log.warn("Refresh of hot key {}::{} failed: {}", region.name, key, e.toString());
+            }
+        }));
+    }
+
+    private Versioned readL2(Region region, String key) {
+        Object value;
+        try {
+            value = l2.get(region.name, key);
+        } catch (RuntimeException e) {
+            region.l2Errors.increment();
+            log.warn("L2 read failed for {}::{}: {}", region.name, key, e.toString());
+            return null;
+        }
+        (value == null ? region.l2Misses : region.l2Hits).increment();
+        if (value == null || value instanceof Versioned) {
+            return (Versioned) value;
+        }
+        return new Versioned(value, 0);
+    }
+
+    private Map<String, Versioned> readAllL2(Region region, Set<String> keys) {
+        Map<String, Object> values;
+        try {
+            values = l2.getAll(region.name, keys);
+        } catch (RuntimeException e) {
+            region.l2Errors.increment(keys.size());
+            log.warn("L2 read of {} keys failed for {}: {}", keys.size(), region.name, e.toString());
+            return Map.of();
+        }
+        Map<String, Versioned> entries = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (value != null) {
+                entries.put(key, value instanceof Versioned versioned ? versioned : new Versioned(value, 0));
+            }
+        });
+        region.l2Hits.increment(entries.size());
+        region.l2Misses.increment(keys.size() - entries.size());
+        return entries;
+    }
+
+    private void writeAllL2(Region region, Map<String, Versioned> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            if (region.jitter == TtlJitter.NONE) {
+                l2.putAll(region.name, entries, region.settings.l2Ttl());
+            } else {
+                l2.putAll(region.name, entries, () -> region.jitter.apply(region.settings.l2Ttl()));
+            }
+        } catch (RuntimeException e) {
+            region.l2Errors.increment();
+            log.warn("L2 write of {} keys failed for {}: {}", entries.size(), region.name, e.toString());
+        }
+    }
+
+    private void writeL2(Region region, String key, Versioned value) {
+        try {
+            l2.put(region.name, key, value, region.jitter.apply(region.settings.l2Ttl()));
+        } catch (RuntimeException e) {
+            region.l2Errors.increment();
+            log.warn("L2 write failed for {}::{}: {}", region.name, key, e.toString());
+        }
+    }
+
+    private <T> T load(Region region, Supplier<T> loader) {
+        long start = System.nanoTime();
+        try {
+            T value = loader.get();
+            region.loadSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        } catch (RuntimeException | Error e) {
+            region.loadFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /** Expires local entries a jittered TTL after they were last written. */
+    private record JitteredExpiry(Duration ttl, TtlJitter jitter) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return jitter.apply(ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return jitter.apply(ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Local copy of a hot key, kept outside L1 and refreshed in the background. {@code loader} is
+     * {@code null} unless the policy opts in to reloading through it.
+     */
+    private static final class Pinned {
+        volatile Versioned entry;
+        final Supplier<?> loader;
+
+        Pinned(Versioned entry, Supplier<?> loader) {
+            this.entry = entry;
+            this.loader = loader;
+        }
+    }
+
+    /** State and meters of one cache name. */
+    private final class Region {
+        final String name;
+        final CacheSettings settings;
+        final TtlJitter jitter;
+        final Cache<String, Versioned> l1;
+        final Cache<String, Long> tombstones;
+        final ConcurrentHashMap<String, Pinned> pinned = new ConcurrentHashMap<>();
+        final Counter l2Hits;
+        final Counter l2Misses;
+        final Counter l2Errors;
+        final Counter invalidationsApplied;
+        final Counter invalidationsIgnored;
+        final Counter hotHits;
+        final Counter hotRefreshSuccess;
+        final Counter hotRefreshFailure;
+        final Timer loadSuccess;
+        final Timer loadFailure;
+
+        Region(String name) {
+            this.name = name;
+            this.settings = SmartCache.this.settings.apply(name);
+            this.jitter = TtlJitter.uniform(settings.ttlJitter());
+            Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+            if (settings.l1MaximumSize() > 0) {
+                builder.maximumSize(settings.l1MaximumSize());
+            }
+            Duration l1Ttl = settings.l1Ttl();
+            if (!l1Ttl.isZero() && !l1Ttl.isNegative()) {
+                if (jitter == TtlJitter.NONE) {
+                    builder.expireAfterWrite(l1Ttl);
+                } else {
+                    builder.expireAfter(new JitteredExpiry(l1Ttl, jitter));
+                }
+            }
+            this.l1 = CaffeineCacheMetrics.monitor(registry, builder.<String, Versioned>build(), name, "level", "l1");
+            this.tombstones = Caffeine.newBuilder().expireAfterWrite(TOMBSTONE_TTL).maximumSize(100_000).build();
+            this.l2Hits = l2Counter("hit");
+            this.l2Misses = l2Counter("miss");
+            this.l2Errors = l2Counter("error");
+            this.invalidationsApplied = invalidationCounter("applied");
+            this.invalidationsIgnored = invalidationCounter("ignored");
+            this.loadSuccess = loadTimer("success");
+            this.loadFailure = loadTimer("failure");
+            this.hotHits = Counter.builder("smartcache.hotkeys.hits").tag("cache", name).register(registry);
+            this.hotRefreshSuccess = hotRefreshCounter("success");
+            this.hotRefreshFailure = hotRefreshCounter("failure");
+            Gauge.builder("smartcache.hotkeys.pinned", pinned, Map::size).tag("cache", name).register(registry);
+        }
+
+        private Counter hotRefreshCounter(String outcome) {
+            return Counter.builder("smartcache.hotkeys.refreshes").tag("cache", name).tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        private Counter l2Counter(String result) {
+            return Counter.builder("smartcache.l2.requests").tag("cache", name).tag("result", result).register(registry);
+        }
+
+        private Counter invalidationCounter(String result) {
+            return Counter.builder("smartcache.invalidations").tag("cache", name).tag("result", result).register(registry);
+        }
+
+        private Timer loadTimer(String outcome) {
+            return Timer.builder("smartcache.loads").tag("cache", name).tag("outcome", outcome).register(registry);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves cache keys from SpEL expressions evaluated against method arguments, which are available
+ * by name ({@code #id}) and position ({@code #p0}, {@code #a0}). Expressions are parsed once per
+ * method and expression and compiled to bytecode by the SpEL compiler in
+ * {@link SpelCompilerMode#MIXED mixed} mode, which falls back to interpretation if an argument's type
+ * changes; caching per method keeps the types each compiled expression sees stable.
+ */
+public class SpelKeyResolver {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, ClassUtils.getDefaultClassLoader()));
+    private final ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
+    private final ConcurrentHashMap<ExpressionKey, Expression> expressions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the key for an invocation. A blank expression derives the key from the arguments: the
+     * single argument's string form, or the string form of all arguments.
+     */
+    public String key(String expression, Method method, Object[] args) {
+        if (!StringUtils.hasText(expression)) {
+            return args.length == 1 ? String.valueOf(args[0]) : Arrays.deepToString(args);
+        }
+        Expression parsed = expressions.computeIfAbsent(
+                new ExpressionKey(method, expression), key -> parser.parseExpression(key.expression()));
+        Object value = parsed.getValue(new MethodBasedEvaluationContext(null, method, args, discoverer));
+        return String.valueOf(value);
+    }
+
+    private record ExpressionKey(Method method, String expression) {}
+}
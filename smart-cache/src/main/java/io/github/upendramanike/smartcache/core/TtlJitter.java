@@ -0,0 +1,47 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the time-to-live of each entry from its configured TTL. Entries written together, e.g. when
+ * caches are warmed after a deploy, then expire across a window instead of at the same moment, so
+ * the reloads reach the backend gradually. {@link SmartCache} builds the jitter of each cache with
+ * {@link #uniform(double)} from its {@link CacheSettings#ttlJitter()}.
+ */
+@FunctionalInterface
+public interface TtlJitter {
+
+    /** Uses the configured TTL unchanged. */
+    TtlJitter NONE = ttl -> ttl;
+
+    /** Shortest TTL {@link #uniform(double)} returns for a positive one. */
+    Duration MINIMUM = Duration.ofMillis(1);
+
+    /** Returns the TTL to store one entry with. */
+    Duration apply(Duration ttl);
+
+    /**
+     * Shortens each TTL by a uniformly distributed random amount of up to {@code ratio} of it, so
+     * entries never outlive their configured TTL. A jittered TTL is at least one millisecond, even with a
+     * ratio of 1, since a zero TTL means no expiry. Zero and negative TTLs (no expiry) are left as they are.
+     *
+     * @param ratio fraction of the TTL to spread expiry over, from 0 (no jitter) to 1
+     */
+    static TtlJitter uniform(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("ratio must be between 0 and 1");
+        }
+        if (ratio == 0) {
+            return NONE;
+        }
+        return ttl -> {
+            long spreadMillis = (long) (ttl.toMillis() * ratio);
+            if (spreadMillis <= 0) {
+                return ttl;
+            }
+            Duration jittered = ttl.minusMillis(ThreadLocalRandom.current().nextLong(spreadMillis + 1));
+            return jittered.compareTo(MINIMUM) < 0 ? MINIMUM : jittered;
+        };
+    }
+}
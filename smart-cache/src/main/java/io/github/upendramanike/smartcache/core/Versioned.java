@@ -0,0 +1,9 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.io.Serializable;
+
+/**
+ * A cached value together with the version assigned when it was written or loaded. Versions order
+ * writes across instances, so an invalidation only removes entries older than the write it announces.
+ */
+public record Versioned(Object value, long version) implements Serializable {}
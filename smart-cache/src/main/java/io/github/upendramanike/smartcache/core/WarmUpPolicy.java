@@ -0,0 +1,16 @@
+package io.github.upendramanike.smartcache.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for {@link CacheWarmer}.
+ *
+ * @param file snapshot file; must not be shared by concurrently running instances
+ * @param hottestPerCache keys snapshotted per cache name
+ * @param snapshotInterval time between snapshots; zero snapshots only on close
+ * @param parallelism threads reading snapshotted keys from L2 at startup
+ * @param timeout longest time startup waits for the warm-up
+ */
+public record WarmUpPolicy(Path file, int hottestPerCache, Duration snapshotInterval, int parallelism,
+        Duration timeout) {}
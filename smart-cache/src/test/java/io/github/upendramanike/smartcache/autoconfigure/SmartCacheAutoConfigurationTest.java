@@ -0,0 +1,38 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.smartcache.core.InMemoryL2Cache;
+import io.github.upendramanike.smartcache.core.InvalidationTransport;
+import io.github.upendramanike.smartcache.core.L2Cache;
+import io.github.upendramanike.smartcache.core.LoopbackInvalidationTransport;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class SmartCacheAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(SmartCacheAutoConfiguration.class));
+
+    @Test
+    void selectsL2CacheFromRelaxedlyBoundType() {
+        for (String type : new String[] {"in-memory", "in_memory", "IN_MEMORY"}) {
+            runner.withPropertyValues("smartcache.l2.type=" + type)
+                    .run(context -> assertThat(context).getBean(L2Cache.class).isInstanceOf(InMemoryL2Cache.class));
+        }
+        runner.withPropertyValues("smartcache.l2.type=none")
+                .run(context -> assertThat(context).doesNotHaveBean(L2Cache.class));
+    }
+
+    @Test
+    void selectsInvalidationTransportFromRelaxedlyBoundType() {
+        for (String transport : new String[] {"loopback", "LOOPBACK", "Loopback"}) {
+            runner.withPropertyValues("smartcache.invalidation.transport=" + transport)
+                    .run(context -> assertThat(context).getBean(InvalidationTransport.class)
+                            .isInstanceOf(LoopbackInvalidationTransport.class));
+        }
+        runner.withPropertyValues("smartcache.invalidation.transport=none")
+                .run(context -> assertThat(context).doesNotHaveBean(InvalidationTransport.class));
+    }
+}
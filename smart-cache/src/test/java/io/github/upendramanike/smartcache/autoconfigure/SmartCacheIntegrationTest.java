@@ -0,0 +1,76 @@
+package io.github.upendramanike.smartcache.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.upendramanike.smartcache.annotations.SmartCacheEvict;
+import io.github.upendramanike.smartcache.annotations.SmartCachePut;
+import io.github.upendramanike.smartcache.annotations.SmartCacheable;
+import io.github.upendramanike.smartcache.core.InMemoryL2Cache;
+import io.github.upendramanike.smartcache.core.L2Cache;
+import io.github.upendramanike.smartcache.core.Versioned;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest(classes = SmartCacheIntegrationTest.App.class)
+@TestPropertySource(properties = {"smartcache.l2.type=in-memory", "smartcache.caches.products.l1-maximum-size=100"})
+class SmartCacheIntegrationTest {
+
+    @Autowired ProductService service;
+    @Autowired L2Cache l2;
+
+    @Test
+    void cacheableLoadsOnce() {
+        assertThat(service.find(1L)).isEqualTo("product-1");
+        assertThat(service.find(1L)).isEqualTo("product-1");
+        assertThat(service.loads()).isEqualTo(1);
+        assertThat(l2).isInstanceOf(InMemoryL2Cache.class);
+        assertThat(((Versioned) l2.get("products", "1")).value()).isEqualTo("product-1");
+    }
+
+    @Test
+    void putReplacesAndEvictRemoves() {
+        service.rename(2L, "renamed");
+        assertThat(service.find(2L)).isEqualTo("renamed");
+        service.delete(2L);
+        assertThat(l2.get("products", "2")).isNull();
+    }
+
+    @Configuration
+    @ImportAutoConfiguration(SmartCacheAutoConfiguration.class)
+    static class App {
+        @Bean
+        ProductService productService() {
+            return new ProductService();
+        }
+    }
+
+    static class ProductService {
+
+        final AtomicInteger loads = new AtomicInteger();
+
+        int loads() {
+            return loads.get();
+        }
+
+        @SmartCacheable(cacheName = "products", key = "#id")
+        public String find(Long id) {
+            loads.incrementAndGet();
+            return "product-" + id;
+        }
+
+        @SmartCachePut(cacheName = "products", key = "#id")
+        public String rename(Long id, String name) {
+            return name;
+        }
+
+        @SmartCacheEvict(cacheName = "products", key = "#id")
+        public void delete(Long id) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.upendramanike.smartcache.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class BatchingL2CacheTest {
+
+    private final InMemoryL2Cache remote = new InMemoryL2Cache(Duration.ofMillis(20));
+
+    @Test
+    void concurrentReadsShareOneRoundTrip() throws Exception {
+        for (int i = 0; i < 16; i++) {
+            remote.put("c", "k" + i, "v" + i, Duration.ofMinutes(1));
+        }
+        long before = remote.roundTrips();
+        BatchingL2Cache batching = new BatchingL2Cache(remote, Duration.ofMillis(50), 64);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> reads = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String key = "k" + i;
+                reads.add(pool.submit(() -> {
+                    start.await();
+                    return batching.get("c", key);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < 16; i++) {
+                assertThat(reads.get(i).get()).isEqualTo("v" + i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(remote.roundTrips() - before).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() {
+        remote.put("c", "k", "v", Duration.ofMinutes(1));
+        BatchingL2Cache batching = new BatchingL2Cache(remote, Duration.ofSeconds(10), 1);
+        long start = System.nanoTime();
+        assertThat(batching.get("c", "k")).isEqualTo("v");
+        assertThat(batching.get("c", "missing")).isNull();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void failuresReachEveryReader() {
+        L2Cache broken = new NoOpL2Cache() {
+            @Override
+            public Map<String, Object> getAll(String cacheName, Collection<String> keys) {
+                throw new IllegalStateException("down");
+            }
+        };
+        BatchingL2Cache batching = new BatchingL2Cache(broken, Duration.ZERO, 8);
+        assertThatThrownBy(() -> batching.get("c", "k")).isInstanceOf(IllegalStateException.class);
+    }
+}
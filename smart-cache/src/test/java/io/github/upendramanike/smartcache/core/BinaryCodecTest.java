@@ -0,0 +1,49 @@
+package io.github.upendramanike.smartcache.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.upendramanike.codec.BinaryCodec;
+import io.github.upendramanike.codec.CompressingCodec;
+import io.github.upendramanike.codec.JavaSerializationCodec;
+import io.github.upendramanike.codec.ValueCodec;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class BinaryCodecTest {
+
+    private final ValueCodec codec = new CompressingCodec(new BinaryCodec(), 256);
+
+    record Product(String sku, String name, long priceCents, List<String> tags) implements Serializable {
+    }
+
+    @Test
+    void roundTripsSharedEntriesAndInvalidations() {
+        Versioned entry = new Versioned(new Product("p-1", "Kettle", 2999, List.of("kitchen")), 7);
+        InvalidationMessage message = new InvalidationMessage("node-1",
+                List.of(new InvalidationMessage.Invalidation("products", "p-1", 7)));
+        assertThat(codec.decode(codec.encode(entry))).isEqualTo(entry);
+        assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+        assertThat(codec.encode(entry).length).isLessThan(new JavaSerializationCodec().encode(entry).length / 2);
+    }
+
+    @Test
+    void compressesLargeValues() {
+        Map<String, String> large = Map.of("description", "Stainless steel kettle, 1.7 litres. ".repeat(100));
+        byte[] encoded = codec.encode(large);
+        assertThat(encoded.length).isLessThan(600);
+        assertThat(codec.decode(encoded)).isEqualTo(large);
+    }
+
+    @Test
+    void redisSerializerMapsNullsAndFailures() {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codec);
+        assertThat(serializer.deserialize(serializer.serialize(null))).isNull();
+        assertThat(serializer.deserialize(serializer.serialize("v"))).isEqualTo("v");
+        assertThatThrownBy(() -> serializer.serialize(new Object())).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serializer.deserialize(new byte[] {9, 9})).isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.upendramanike.smartcache.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CacheWarmerTest {
+
+    @TempDir
+    Path dir;
+
+    private final InMemoryL2Cache l2 = new InMemoryL2Cache();
+
+    @Test
+    void newInstanceStartsWithSnapshottedKeysInL1() throws Exception {
+        SmartCache running = new SmartCache(name -> CacheSettings.DEFAULTS, l2, new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) {
+            running.put("products", "p" + i, "product-" + i);
+        }
+        running.put("prices", "sku", 10L);
+        assertThat(new CacheWarmer(running, policy(3)).snapshot()).isEqualTo(4);
+        running.evict("products", "p0");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SmartCache restarted = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry);
+        CacheWarmer warmer = new CacheWarmer(restarted, policy(3));
+        int warmed = warmer.warm();
+        assertThat(restarted.localSize("products") + restarted.localSize("prices")).isEqualTo(warmed);
+        assertThat(restarted.localSize("prices")).isEqualTo(1);
+        double l2Hits = registry.get("smartcache.l2.requests").tag("cache", "prices").tag("result", "hit")
+                .counter().count();
+        assertThat(restarted.getIfPresent("prices", "sku")).isEqualTo(10L);
+        assertThat(registry.get("smartcache.l2.requests").tag("cache", "prices").tag("result", "hit")
+                .counter().count()).isEqualTo(l2Hits);
+        assertThat(restarted.isPinned("products", "p0")).isFalse();
+    }
+
+    @Test
+    void closeTakesFinalSnapshotAndStartWarms() {
+        SmartCache running = new SmartCache(name -> CacheSettings.DEFAULTS, l2, new SimpleMeterRegistry());
+        CacheWarmer warmer = new CacheWarmer(running, policy(10));
+        warmer.start();
+        running.put("c", "k", "v");
+        warmer.close();
+
+        SmartCache restarted = new SmartCache(name -> CacheSettings.DEFAULTS, l2, new SimpleMeterRegistry());
+        new CacheWarmer(restarted, policy(10)).start();
+        assertThat(restarted.localSize("c")).isEqualTo(1);
+    }
+
+    @Test
+    void missingOrCorruptSnapshotWarmsNothing() throws Exception {
+        SmartCache cache = new SmartCache(name -> CacheSettings.DEFAULTS, l2, new SimpleMeterRegistry());
+        CacheWarmer warmer = new CacheWarmer(cache, policy(10));
+        assertThat(warmer.warm()).isZero();
+        Files.write(dir.resolve("warm-up.snapshot"), new byte[] {0x53, 0x43, 0x57, 0x53, 1, -1, -1, -1, -1});
+        assertThat(warmer.warm()).isZero();
+    }
+
+    private WarmUpPolicy policy(int hottestPerCache) {
+        return new WarmUpPolicy(dir.resolve("warm-up.snapshot"), hottestPerCache, Duration.ZERO, 2,
+                Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.upendramanike.smartcache.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class HotKeyDetectorTest {
+
+    @Test
+    void tracksMostFrequentKeysOnly() {
+        HotKeyDetector detector = new HotKeyDetector(new HotKeyPolicy(2, 10, 1024, Duration.ofSeconds(1)));
+        for (int i = 0; i < 2000; i++) {
+            detector.record("c", "hot-" + (i % 2));
+            detector.record("c", "cold-" + i);
+            if (i % 4 == 0) {
+                detector.record("c", "warm");
+            }
+        }
+        assertThat(detector.isHot("c", "hot-0")).isTrue();
+        assertThat(detector.isHot("c", "hot-1")).isTrue();
+        assertThat(detector.isHot("c", "warm")).isFalse();
+        assertThat(detector.isHot("c", "cold-5")).isFalse();
+        assertThat(detector.topKeys()).extracting(HotKeyDetector.HotKey::key).containsExactlyInAnyOrder("hot-0", "hot-1");
+    }
+
+    @Test
+    void keysCoolDownAfterTheirTrafficStops() {
+        HotKeyDetector detector = new HotKeyDetector(new HotKeyPolicy(4, 10, 64, Duration.ofSeconds(1)));
+        for (int i = 0; i < 100; i++) {
+            detector.record("c", "burst");
+        }
+        assertThat(detector.isHot("c", "burst")).isTrue();
+        for (int i = 0; i < 64 * 10 * 6; i++) {
+            detector.record("c", "other-" + i);
+        }
+        assertThat(detector.isHot("c", "burst")).isFalse();
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.upendramanike.smartcache.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class InvalidationBusTest {
+
+    private final LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+    private final List<InvalidationMessage> sent = new CopyOnWriteArrayList<>();
+
+    @Test
+    void coalescesRepeatedKeysIntoOneBatch() {
+        transport.subscribe(sent::add);
+        InvalidationBus bus = new InvalidationBus(transport, Duration.ofHours(1), 100);
+        bus.publish("c", "a", 1);
+        bus.publish("c", "b", 2);
+        bus.publish("c", "a", 5);
+        bus.publish("c", "a", 3);
+        assertThat(sent).isEmpty();
+        bus.flush();
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).invalidations()).containsExactly(
+                new InvalidationMessage.Invalidation("c", "a", 5),
+                new InvalidationMessage.Invalidation("c", "b", 2));
+        bus.close();
+    }
+
+    @Test
+    void publishesWhenBatchIsFullOrIntervalElapses() throws InterruptedException {
+        transport.subscribe(sent::add);
+        InvalidationBus bus = new InvalidationBus(transport, Duration.ofMillis(20), 2);
+        bus.publish("c", "a", 1);
+        bus.publish("c", "b", 1);
+        assertThat(sent).hasSize(1);
+        bus.publish("c", "c", 1);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (sent.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(sent).hasSize(2);
+        bus.close();
+    }
+
+    @Test
+    void skipsItsOwnMessages() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        InvalidationBus self = new InvalidationBus(transport, Duration.ZERO, 10);
+        InvalidationBus other = new InvalidationBus(transport, Duration.ZERO, 10);
+        self.subscribe((cacheName, key, version) -> received.add("self:" + key));
+        other.subscribe((cacheName, key, version) -> received.add("other:" + key));
+        self.publish("c", "k", 1);
+        assertThat(received).containsExactly("other:k");
+        self.close();
+        other.close();
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.upendramanike.smartcache.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SmartCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InMemoryL2Cache l2 = new InMemoryL2Cache();
+    private final SmartCache cache = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void readsThroughBothLevels() {
+        assertThat(cache.get("c", "k", this::load)).isEqualTo("v1");
+        assertThat(cache.get("c", "k", this::load)).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(sharedValue("c", "k")).isEqualTo("v1");
+        assertThat(registry.get("smartcache.loads").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void localMissIsServedFromSharedLevel() {
+        SmartCache otherInstance = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry);
+        cache.get("c", "k", this::load);
+        assertThat(otherInstance.get("c", "k", this::load)).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("smartcache.l2.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void putAndEvictWriteThrough() {
+        cache.put("c", "k", "stored");
+        assertThat(sharedValue("c", "k")).isEqualTo("stored");
+        assertThat(cache.getIfPresent("c", "k")).isEqualTo("stored");
+        cache.evict("c", "k");
+        assertThat(l2.get("c", "k")).isNull();
+        assertThat(cache.getIfPresent("c", "k")).isNull();
+    }
+
+    @Test
+    void sharedLevelFailuresAreTreatedAsMisses() {
+        L2Cache broken = new L2Cache() {
+            @Override
+            public Object get(String cacheName, String key) {
+                throw new IllegalStateException("down");
+            }
+
+            @Override
+            public void put(String cacheName, String key, Object value, Duration ttl) {
+                throw new IllegalStateException("down");
+            }
+
+            @Override
+            public void evict(String cacheName, String key) {
+                throw new IllegalStateException("down");
+            }
+        };
+        SmartCache resilient = new SmartCache(name -> CacheSettings.DEFAULTS, broken, registry);
+        assertThat(resilient.get("c", "k", this::load)).isEqualTo("v1");
+        assertThat(resilient.get("c", "k", this::load)).isEqualTo("v1");
+        assertThat(registry.get("smartcache.l2.requests").tag("result", "error").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void loaderFailuresPropagateAndAreNotCached() {
+        assertThatThrownBy(() -> cache.get("c", "k", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get("c", "k", this::load)).isEqualTo("v1");
+    }
+
+    @Test
+    void writesInvalidateOtherInstancesLocalCopies() {
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        SmartCache a = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry,
+                new InvalidationBus(transport, Duration.ZERO, 16));
+        SmartCache b = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry,
+                new InvalidationBus(transport, Duration.ZERO, 16));
+        assertThat(b.get("c", "k", this::load)).isEqualTo("v1");
+        a.put("c", "k", "updated");
+        assertThat(b.localSize("c")).isZero();
+        assertThat(b.get("c", "k", this::load)).isEqualTo("updated");
+        a.evict("c", "k");
+        assertThat(b.get("c", "k", this::load)).isEqualTo("v2");
+    }
+
+    @Test
+    void staleInvalidationsDoNotDropNewerEntries() {
+        cache.put("c", "k", "old");
+        long staleVersion = ((Versioned) l2.get("c", "k")).version();
+        cache.put("c", "k", "new");
+        assertThat(cache.invalidateLocal("c", "k", staleVersion)).isFalse();
+        assertThat(cache.localSize("c")).isEqualTo(1);
+        long newer = ((Versioned) l2.get("c", "k")).version() + 1;
+        assertThat(cache.invalidateLocal("c", "k", newer)).isTrue();
+        assertThat(registry.get("smartcache.invalidations").tag("result", "ignored").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loadsOlderThanAReceivedInvalidationAreNotKeptLocally() {
+        cache.get("c", "other", this::load);
+        l2.put("c", "k", new Versioned("stale", 1), Duration.ofMinutes(1));
+        cache.invalidateLocal("c", "k", 2);
+        assertThat(cache.get("c", "k", this::load)).isEqualTo("stale");
+        assertThat(cache.localSize("c")).isEqualTo(1);
+    }
+
+    @Test
+    void hotKeysArePinnedAndRefreshedFromSharedLevel() throws InterruptedException {
+        SmartCache hot = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry, null,
+                new HotKeyPolicy(4, 5, 256, Duration.ofMillis(20)));
+        for (int i = 0; i < 10; i++) {
+            assertThat(hot.get("c", "k", this::load)).isEqualTo("v1");
+        }
+        assertThat(hot.isPinned("c", "k")).isTrue();
+        assertThat(hot.hotKeys()).extracting(HotKeyDetector.HotKey::key).containsExactly("k");
+        l2.put("c", "k", new Versioned("changed", Long.MAX_VALUE), Duration.ofMinutes(1));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!"changed".equals(hot.get("c", "k", this::load)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(hot.get("c", "k", this::load)).isEqualTo("changed");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("smartcache.hotkeys.hits").counter().count()).isPositive();
+        hot.close();
+    }
+
+    @Test
+    void hotKeysMissingFromSharedLevelAreUnpinnedWithoutCallingTheLoader() throws InterruptedException {
+        SmartCache hot = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry, null,
+                new HotKeyPolicy(4, 5, 256, Duration.ofMillis(20)));
+        for (int i = 0; i < 10; i++) {
+            hot.get("c", "k", this::load);
+        }
+        assertThat(hot.isPinned("c", "k")).isTrue();
+        l2.evict("c", "k");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (hot.isPinned("c", "k") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(hot.isPinned("c", "k")).isFalse();
+        assertThat(loads).hasValue(1);
+        hot.close();
+    }
+
+    @Test
+    void hotKeysCanOptInToReloadingThroughTheLoader() throws InterruptedException {
+        SmartCache hot = new SmartCache(name -> CacheSettings.DEFAULTS, l2, registry, null,
+                new HotKeyPolicy(4, 5, 256, Duration.ofMillis(20), true));
+        for (int i = 0; i < 10; i++) {
+            hot.get("c", "k", this::load);
+        }
+        l2.evict("c", "k");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (loads.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(loads.get()).isGreaterThanOrEqualTo(2);
+        assertThat(hot.isPinned("c", "k")).isTrue();
+        assertThat(hot.get("c", "k", this::load)).startsWith("v");
+        hot.close();
+    }
+
+    @Test
+    void getAllUsesOneSharedRoundTripAndOneLoaderCall() {
+        InMemoryL2Cache remote = new InMemoryL2Cache(Duration.ofMillis(5));
+        SmartCache multi = new SmartCache(name -> CacheSettings.DEFAULTS, remote, registry);
+        multi.put("c", "a", "A");
+        SmartCache other = new SmartCache(name -> CacheSettings.DEFAULTS, remote, registry);
+        other.put("c", "b", "B");
+        long before = remote.roundTrips();
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Map<String, String> values = multi.getAll("c", List.of("a", "b", "c", "d"), missing -> {
+            loaderCalls.incrementAndGet();
+            assertThat(missing).containsExactlyInAnyOrder("c", "d");
+            return Map.of("c", "C");
+        });
+        assertThat(values).containsExactly(Map.entry("a", "A"), Map.entry("b", "B"), Map.entry("c", "C"));
+        assertThat(loaderCalls).hasValue(1);
+        assertThat(remote.roundTrips() - before).isEqualTo(2);
+        assertThat(multi.getAll("c", List.of("a", "b", "c"), missing -> Map.of())).hasSize(3);
+        assertThat(remote.roundTrips() - before).isEqualTo(2);
+    }
+
+    @Test
+    void ttlJitterSpreadsSharedExpiryWithoutExtendingIt() {
+        List<Duration> ttls = new CopyOnWriteArrayList<>();
+        L2Cache recording = new InMemoryL2Cache() {
+            @Override
+            public void put(String cacheName, String key, Object value, Duration ttl) {
+                ttls.add(ttl);
+                super.put(cacheName, key, value, ttl);
+            }
+        };
+        CacheSettings jittered = new CacheSettings(Duration.ofMinutes(1), 100, Duration.ofMinutes(10), 0.5);
+        SmartCache spread = new SmartCache(name -> jittered, recording, registry);
+        for (int i = 0; i < 50; i++) {
+            spread.put("c", "k" + i, "v");
+        }
+        assertThat(ttls).hasSize(50)
+                .allSatisfy(ttl -> assertThat(ttl).isBetween(Duration.ofMinutes(5), Duration.ofMinutes(10)));
+        assertThat(ttls.stream().distinct().count()).isGreaterThan(1);
+        assertThat(spread.getIfPresent("c", "k0")).isEqualTo("v");
+        assertThatThrownBy(() -> new CacheSettings(Duration.ZERO, 0, Duration.ZERO, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Object sharedValue(String cacheName, String key) {
+        return ((Versioned) l2.get(cacheName, key)).value();
+    }
+
+    private String load() {
+        return "v" + loads.incrementAndGet();
+    }
+}
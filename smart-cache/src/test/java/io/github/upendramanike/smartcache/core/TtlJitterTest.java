@@ -0,0 +1,27 @@
+package io.github.upendramanike.smartcache.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TtlJitterTest {
+
+    @Test
+    void uniformJitterStaysWithinRatioBelowTheTtl() {
+        TtlJitter jitter = TtlJitter.uniform(0.1);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(jitter.apply(Duration.ofSeconds(300)))
+                    .isBetween(Duration.ofSeconds(270), Duration.ofSeconds(300));
+        }
+    }
+
+    @Test
+    void fullRatioNeverTurnsTheTtlIntoNoExpiry() {
+        TtlJitter jitter = TtlJitter.uniform(1);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(jitter.apply(Duration.ofMillis(3))).isBetween(TtlJitter.MINIMUM, Duration.ofMillis(3));
+        }
+        assertThat(jitter.apply(Duration.ZERO)).isEqualTo(Duration.ZERO);
+    }
+}
@@ -0,0 +1,823 @@
+package io.github.upendramanike.codec;
+
+import java.io.Externalizable;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact binary {@link ValueCodec} for records, plain serializable classes and common JDK value types.
+ *
+ * <p>Strings, boxed primitives, {@code byte[]}, enums, {@link UUID}, {@link Instant}, {@link LocalDate},
+ * {@link LocalDateTime}, {@link BigInteger}, {@link BigDecimal} and the standard {@code java.util} lists,
+ * sets and maps are written as a one-byte tag followed by variable-length integers or raw bytes.
+ * Records and other classes are written field by field from a per-class schema whose accessors and
+ * constructor are resolved once and cached. A class name is written once per value together with a
+ * fingerprint of its fields, so a value encoded before the class changed fails to decode instead of
+ * being misread.
+ *
+ * <p>Like Java serialization, only {@link Serializable} values are accepted. Classes with custom
+ * serialization ({@code writeObject}, {@code readResolve}, ...), without a no-arg constructor or with
+ * inaccessible fields, arrays other than {@code byte[]}, sorted or concurrent collections, and object
+ * graphs nested deeper than {@value #MAX_DEPTH} levels (including cyclic ones) are written with Java
+ * serialization instead. Shared references are not preserved, and lists, sets and maps are decoded
+ * as {@link ArrayList}, {@link LinkedHashSet} and {@link LinkedHashMap}.
+ */
+public class BinaryCodec implements ValueCodec {
+
+    private static final int FORMAT = 0x42;
+    private static final int MAX_DEPTH = 256;
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int FLOAT = 6;
+    private static final int SHORT = 7;
+    private static final int BYTE = 8;
+    private static final int CHAR = 9;
+    private static final int STRING = 10;
+    private static final int BYTES = 11;
+    private static final int UUID_TAG = 12;
+    private static final int INSTANT = 13;
+    private static final int LOCAL_DATE = 14;
+    private static final int LOCAL_DATE_TIME = 15;
+    private static final int BIG_INTEGER = 16;
+    private static final int BIG_DECIMAL = 17;
+    private static final int LIST = 18;
+    private static final int SET = 19;
+    private static final int MAP = 20;
+    private static final int ENUM = 21;
+    private static final int OBJECT = 22;
+    private static final int SERIALIZED = 23;
+
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Class<?>, Kind> BUILTINS = builtins();
+    private static final Set<String> SERIALIZATION_HOOKS =
+            Set.of("writeObject", "readObject", "readObjectNoData", "writeReplace", "readResolve");
+
+    private static final ClassValue<Schema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected Schema computeValue(Class<?> type) {
+            return Schema.of(type);
+        }
+    };
+
+    private final ClassLoader classLoader;
+    private final ValueCodec serialization = new JavaSerializationCodec();
+    private final ConcurrentHashMap<String, Schema> schemasByName = new ConcurrentHashMap<>();
+
+    /** Creates a codec resolving classes through the thread context class loader of the caller. */
+    public BinaryCodec() {
+        this(Thread.currentThread().getContextClassLoader());
+    }
+
+    /** @param classLoader loader used to resolve the classes of decoded records and objects */
+    public BinaryCodec(ClassLoader classLoader) {
+        this.classLoader = classLoader != null ? classLoader : BinaryCodec.class.getClassLoader();
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        Output out = new Output();
+        out.writeByte(FORMAT);
+        try {
+            writeValue(out, value);
+        } catch (GraphTooDeep e) {
+            out = new Output();
+            out.writeByte(FORMAT);
+            out.writeByte(SERIALIZED);
+            out.writeBytes(serialization.encode(value));
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        Input in = new Input(bytes);
+        try {
+            if (in.readByte() != FORMAT) {
+                throw new IllegalArgumentException("Not encoded by " + getClass().getSimpleName());
+            }
+            return readValue(in);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated value", e);
+        }
+    }
+
+    private void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        Schema schema = SCHEMAS.get(value.getClass());
+        switch (schema.kind) {
+            case BOOLEAN -> out.writeByte((Boolean) value ? TRUE : FALSE);
+            case INT -> {
+                out.writeByte(INT);
+                out.writeZigZag((Integer) value);
+            }
+            case LONG -> {
+                out.writeByte(LONG);
+                out.writeZigZag((Long) value);
+            }
+            case DOUBLE -> {
+                out.writeByte(DOUBLE);
+                out.writeLong(Double.doubleToRawLongBits((Double) value));
+            }
+            case FLOAT -> {
+                out.writeByte(FLOAT);
+                out.writeInt(Float.floatToRawIntBits((Float) value));
+            }
+            case SHORT -> {
+                out.writeByte(SHORT);
+                out.writeZigZag((Short) value);
+            }
+            case BYTE -> {
+                out.writeByte(BYTE);
+                out.writeByte((Byte) value);
+            }
+            case CHAR -> {
+                out.writeByte(CHAR);
+                out.writeVarInt((Character) value);
+            }
+            case STRING -> {
+                out.writeByte(STRING);
+                out.writeString((String) value);
+            }
+            case BYTES -> {
+                out.writeByte(BYTES);
+                out.writeBytes((byte[]) value);
+            }
+            case UUID -> {
+                UUID uuid = (UUID) value;
+                out.writeByte(UUID_TAG);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            case INSTANT -> {
+                Instant instant = (Instant) value;
+                out.writeByte(INSTANT);
+                out.writeZigZag(instant.getEpochSecond());
+                out.writeVarInt(instant.getNano());
+            }
+            case LOCAL_DATE -> {
+                out.writeByte(LOCAL_DATE);
+                out.writeZigZag(((LocalDate) value).toEpochDay());
+            }
+            case LOCAL_DATE_TIME -> {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                out.writeByte(LOCAL_DATE_TIME);
+                out.writeZigZag(dateTime.toLocalDate().toEpochDay());
+                out.writeVarLong(dateTime.toLocalTime().toNanoOfDay());
+            }
+            case BIG_INTEGER -> {
+                out.writeByte(BIG_INTEGER);
+                out.writeBytes(((BigInteger) value).toByteArray());
+            }
+            case BIG_DECIMAL -> {
+                BigDecimal decimal = (BigDecimal) value;
+                out.writeByte(BIG_DECIMAL);
+                out.writeZigZag(decimal.scale());
+                out.writeBytes(decimal.unscaledValue().toByteArray());
+            }
+            case LIST, SET -> {
+                Collection<?> collection = (Collection<?>) value;
+                out.writeByte(schema.kind == Kind.LIST ? LIST : SET);
+                out.writeVarInt(collection.size());
+                out.enter();
+                for (Object element : collection) {
+                    writeValue(out, element);
+                }
+                out.depth--;
+            }
+            case MAP -> {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.writeByte(MAP);
+                out.writeVarInt(map.size());
+                out.enter();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+                out.depth--;
+            }
+            case ENUM -> {
+                out.writeByte(ENUM);
+                writeClass(out, schema);
+                out.writeString(((Enum<?>) value).name());
+            }
+            case OBJECT -> {
+                out.writeByte(OBJECT);
+                writeClass(out, schema);
+                out.enter();
+                for (Property property : schema.properties) {
+                    Object field = property.get(value);
+                    if (property.primitive == null) {
+                        writeValue(out, field);
+                    } else {
+                        writePrimitive(out, property.primitive, field);
+                    }
+                }
+                out.depth--;
+            }
+            case SERIALIZED -> {
+                out.writeByte(SERIALIZED);
+                out.writeBytes(serialization.encode(value));
+            }
+            default -> throw new IllegalArgumentException("Not serializable: " + value.getClass().getName());
+        }
+    }
+
+    private Object readValue(Input in) {
+        int tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return (int) in.readZigZag();
+            case LONG:
+                return in.readZigZag();
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case FLOAT:
+                return Float.intBitsToFloat(in.readInt());
+            case SHORT:
+                return (short) in.readZigZag();
+            case BYTE:
+                return (byte) in.readByte();
+            case CHAR:
+                return (char) in.readVarInt();
+            case STRING:
+                return in.readString();
+            case BYTES:
+                return in.readBytes();
+            case UUID_TAG:
+                return new UUID(in.readLong(), in.readLong());
+            case INSTANT:
+                return Instant.ofEpochSecond(in.readZigZag(), in.readVarInt());
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(in.readZigZag());
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.of(LocalDate.ofEpochDay(in.readZigZag()), LocalTime.ofNanoOfDay(in.readVarLong()));
+            case BIG_INTEGER:
+                return new BigInteger(in.readBytes());
+            case BIG_DECIMAL: {
+                int scale = (int) in.readZigZag();
+                return new BigDecimal(new BigInteger(in.readBytes()), scale);
+            }
+            case LIST: {
+                int size = in.readLength();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case SET: {
+                int size = in.readLength();
+                Set<Object> set = new LinkedHashSet<>(capacityFor(size));
+                for (int i = 0; i < size; i++) {
+                    set.add(readValue(in));
+                }
+                return set;
+            }
+            case MAP: {
+                int size = in.readLength();
+                Map<Object, Object> map = new LinkedHashMap<>(capacityFor(size));
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(in), readValue(in));
+                }
+                return map;
+            }
+            case ENUM:
+                return readEnum(readClass(in, Kind.ENUM), in.readString());
+            case OBJECT:
+                return readObject(in, readClass(in, Kind.OBJECT));
+            case SERIALIZED:
+                return serialization.decode(in.readBytes());
+            default:
+                throw new IllegalArgumentException("Unknown tag " + tag);
+        }
+    }
+
+    private Object readObject(Input in, Schema schema) {
+        Property[] properties = schema.properties;
+        try {
+            if (schema.record) {
+                Object[] components = new Object[properties.length];
+                for (int i = 0; i < properties.length; i++) {
+                    components[i] = readProperty(in, properties[i]);
+                }
+                return (Object) schema.constructor.invokeExact(components);
+            }
+            Object object = (Object) schema.constructor.invokeExact();
+            for (Property property : properties) {
+                property.setter.invokeExact(object, readProperty(in, property));
+            }
+            return object;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot create " + schema.type.getName(), e);
+        }
+    }
+
+    private Object readProperty(Input in, Property property) {
+        return property.primitive == null ? readValue(in) : readPrimitive(in, property.primitive);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readEnum(Schema schema, String name) {
+        return Enum.valueOf((Class) schema.type, name);
+    }
+
+    private static void writePrimitive(Output out, Kind kind, Object value) {
+        switch (kind) {
+            case BOOLEAN -> out.writeByte((Boolean) value ? 1 : 0);
+            case INT -> out.writeZigZag((Integer) value);
+            case LONG -> out.writeZigZag((Long) value);
+            case DOUBLE -> out.writeLong(Double.doubleToRawLongBits((Double) value));
+            case FLOAT -> out.writeInt(Float.floatToRawIntBits((Float) value));
+            case SHORT -> out.writeZigZag((Short) value);
+            case BYTE -> out.writeByte((Byte) value);
+            case CHAR -> out.writeVarInt((Character) value);
+            default -> throw new IllegalStateException(kind.name());
+        }
+    }
+
+    private static Object readPrimitive(Input in, Kind kind) {
+        return switch (kind) {
+            case BOOLEAN -> in.readByte() != 0;
+            case INT -> (int) in.readZigZag();
+            case LONG -> in.readZigZag();
+            case DOUBLE -> Double.longBitsToDouble(in.readLong());
+            case FLOAT -> Float.intBitsToFloat(in.readInt());
+            case SHORT -> (short) in.readZigZag();
+            case BYTE -> (byte) in.readByte();
+            case CHAR -> (char) in.readVarInt();
+            default -> throw new IllegalStateException(kind.name());
+        };
+    }
+
+    /** Writes a class definition on its first use within a value and a back-reference afterwards. */
+    private static void writeClass(Output out, Schema schema) {
+        if (out.classes == null) {
+            out.classes = new IdentityHashMap<>();
+        }
+        Integer reference = out.classes.get(schema);
+        if (reference != null) {
+            out.writeVarInt(reference);
+            return;
+        }
+        out.classes.put(schema, out.classes.size() + 1);
+        out.writeVarInt(0);
+        out.writeString(schema.type.getName());
+        out.writeInt(schema.fingerprint);
+    }
+
+    private Schema readClass(Input in, Kind expected) {
+        int reference = in.readVarInt();
+        Schema schema;
+        if (reference != 0) {
+            if (in.classes == null || reference > in.classes.size()) {
+                throw new IllegalArgumentException("Unknown class reference " + reference);
+            }
+            schema = in.classes.get(reference - 1);
+        } else {
+            String name = in.readString();
+            int fingerprint = in.readInt();
+            schema = schemaFor(name);
+            if (schema.fingerprint != fingerprint) {
+                throw new IllegalArgumentException(name + " has changed since the value was encoded");
+            }
+            if (in.classes == null) {
+                in.classes = new ArrayList<>(4);
+            }
+            in.classes.add(schema);
+        }
+        if (schema.kind != expected) {
+            throw new IllegalArgumentException(schema.type.getName() + " cannot be decoded as " + expected);
+        }
+        return schema;
+    }
+
+    private Schema schemaFor(String className) {
+        Schema schema = schemasByName.get(className);
+        if (schema == null) {
+            try {
+                schema = SCHEMAS.get(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new IllegalArgumentException("Cannot load " + className, e);
+            }
+            schemasByName.putIfAbsent(className, schema);
+        }
+        return schema;
+    }
+
+    private static int capacityFor(int size) {
+        return (int) Math.min(1 << 30, (long) (size / 0.75f) + 1);
+    }
+
+    private static Map<Class<?>, Kind> builtins() {
+        Map<Class<?>, Kind> kinds = new HashMap<>();
+        kinds.put(Boolean.class, Kind.BOOLEAN);
+        kinds.put(Integer.class, Kind.INT);
+        kinds.put(Long.class, Kind.LONG);
+        kinds.put(Double.class, Kind.DOUBLE);
+        kinds.put(Float.class, Kind.FLOAT);
+        kinds.put(Short.class, Kind.SHORT);
+        kinds.put(Byte.class, Kind.BYTE);
+        kinds.put(Character.class, Kind.CHAR);
+        kinds.put(String.class, Kind.STRING);
+        kinds.put(byte[].class, Kind.BYTES);
+        kinds.put(UUID.class, Kind.UUID);
+        kinds.put(Instant.class, Kind.INSTANT);
+        kinds.put(LocalDate.class, Kind.LOCAL_DATE);
+        kinds.put(LocalDateTime.class, Kind.LOCAL_DATE_TIME);
+        kinds.put(BigInteger.class, Kind.BIG_INTEGER);
+        kinds.put(BigDecimal.class, Kind.BIG_DECIMAL);
+        kinds.put(ArrayList.class, Kind.LIST);
+        kinds.put(HashSet.class, Kind.SET);
+        kinds.put(LinkedHashSet.class, Kind.SET);
+        kinds.put(HashMap.class, Kind.MAP);
+        kinds.put(LinkedHashMap.class, Kind.MAP);
+        return Map.copyOf(kinds);
+    }
+
+    private static Kind primitiveKind(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        return BUILTINS.get(MethodType.methodType(type).wrap().returnType());
+    }
+
+    private enum Kind {
+        BOOLEAN, INT, LONG, DOUBLE, FLOAT, SHORT, BYTE, CHAR, STRING, BYTES, UUID, INSTANT, LOCAL_DATE,
+        LOCAL_DATE_TIME, BIG_INTEGER, BIG_DECIMAL, LIST, SET, MAP, ENUM, OBJECT, SERIALIZED, UNSUPPORTED
+    }
+
+    /** How values of one class are written, resolved once per class. */
+    private static final class Schema {
+
+        final Class<?> type;
+        final Kind kind;
+        final boolean record;
+        final Property[] properties;
+        final MethodHandle constructor;
+        final int fingerprint;
+
+        private Schema(Class<?> type, Kind kind, boolean record, Property[] properties, MethodHandle constructor) {
+            this.type = type;
+            this.kind = kind;
+            this.record = record;
+            this.properties = properties;
+            this.constructor = constructor;
+            int hash = type.getName().hashCode();
+            for (Property property : properties) {
+                hash = 31 * hash + property.name.hashCode();
+                hash = 31 * hash + property.type.getName().hashCode();
+            }
+            this.fingerprint = hash;
+        }
+
+        private Schema(Class<?> type, Kind kind) {
+            this(type, kind, false, new Property[0], null);
+        }
+
+        static Schema of(Class<?> type) {
+            Kind builtin = BUILTINS.get(type);
+            if (builtin != null) {
+                return new Schema(type, builtin);
+            }
+            if (type.isEnum()) {
+                return new Schema(type, Kind.ENUM);
+            }
+            if (type.getSuperclass() != null && type.getSuperclass().isEnum()) {
+                return SCHEMAS.get(type.getSuperclass());
+            }
+            if (!Serializable.class.isAssignableFrom(type)) {
+                return new Schema(type, Kind.UNSUPPORTED);
+            }
+            Kind collection = collectionKind(type);
+            if (collection != null) {
+                return new Schema(type, collection);
+            }
+            if (type.isArray() || type.isHidden() || hasCustomSerialization(type)) {
+                return new Schema(type, Kind.SERIALIZED);
+            }
+            try {
+                Schema schema = type.isRecord() ? ofRecord(type) : ofClass(type);
+                return schema != null ? schema : new Schema(type, Kind.SERIALIZED);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return new Schema(type, Kind.SERIALIZED);
+            }
+        }
+
+        /** Lists, sets and maps that decode to a type assignable wherever the original was used. */
+        private static Kind collectionKind(Class<?> type) {
+            if (!type.getPackageName().equals("java.util") || Modifier.isPublic(type.getModifiers())) {
+                return null;
+            }
+            if (List.class.isAssignableFrom(type)) {
+                return Kind.LIST;
+            }
+            if (Set.class.isAssignableFrom(type)
+                    && !SortedSet.class.isAssignableFrom(type) && !EnumSet.class.isAssignableFrom(type)) {
+                return Kind.SET;
+            }
+            if (Map.class.isAssignableFrom(type) && !SortedMap.class.isAssignableFrom(type)) {
+                return Kind.MAP;
+            }
+            return null;
+        }
+
+        private static boolean hasCustomSerialization(Class<?> type) {
+            if (Externalizable.class.isAssignableFrom(type)) {
+                return true;
+            }
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Method method : c.getDeclaredMethods()) {
+                    if (SERIALIZATION_HOOKS.contains(method.getName()) && !Modifier.isStatic(method.getModifiers())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static Schema ofRecord(Class<?> type) throws ReflectiveOperationException {
+            RecordComponent[] components = type.getRecordComponents();
+            Property[] properties = new Property[components.length];
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                Method accessor = components[i].getAccessor();
+                if (!accessor.trySetAccessible()) {
+                    return null;
+                }
+                types[i] = components[i].getType();
+                properties[i] = new Property(components[i].getName(), types[i], LOOKUP.unreflect(accessor), null);
+            }
+            Constructor<?> canonical = type.getDeclaredConstructor(types);
+            if (!canonical.trySetAccessible()) {
+                return null;
+            }
+            MethodHandle constructor = LOOKUP.unreflectConstructor(canonical)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new Schema(type, Kind.OBJECT, true, properties, constructor);
+        }
+
+        private static Schema ofClass(Class<?> type) throws ReflectiveOperationException {
+            if (Modifier.isAbstract(type.getModifiers())) {
+                return null;
+            }
+            Constructor<?> noArg = type.getDeclaredConstructor();
+            if (!noArg.trySetAccessible()) {
+                return null;
+            }
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = type; c != null && Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                hierarchy.add(0, c);
+            }
+            List<Property> properties = new ArrayList<>();
+            for (Class<?> c : hierarchy) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                        continue;
+                    }
+                    if (!field.trySetAccessible()) {
+                        return null;
+                    }
+                    properties.add(new Property(field.getName(), field.getType(),
+                            LOOKUP.unreflectGetter(field), LOOKUP.unreflectSetter(field)));
+                }
+            }
+            MethodHandle constructor = LOOKUP.unreflectConstructor(noArg).asType(MethodType.methodType(Object.class));
+            return new Schema(type, Kind.OBJECT, false, properties.toArray(new Property[0]), constructor);
+        }
+    }
+
+    private static final class Property {
+
+        final String name;
+        final Class<?> type;
+        final Kind primitive;
+        final MethodHandle getter;
+        final MethodHandle setter;
+
+        Property(String name, Class<?> type, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.primitive = primitiveKind(type);
+            this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = setter == null ? null
+                    : setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException("Cannot read " + name, e);
+            }
+        }
+    }
+
+    /** Growable little-endian output buffer for one {@link #encode} call. */
+    private static final class Output {
+
+        byte[] buffer = new byte[64];
+        int position;
+        int depth;
+        IdentityHashMap<Schema, Integer> classes;
+
+        void enter() {
+            if (++depth > MAX_DEPTH) {
+                throw GraphTooDeep.INSTANCE;
+            }
+        }
+
+        void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            INTS.set(buffer, position, value);
+            position += 4;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            LONGS.set(buffer, position, value);
+            position += 8;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Input {
+
+        final byte[] buffer;
+        int position;
+        List<Schema> classes;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            return buffer[position++];
+        }
+
+        int readInt() {
+            int value = (int) INTS.get(buffer, position);
+            position += 4;
+            return value;
+        }
+
+        long readLong() {
+            long value = (long) LONGS.get(buffer, position);
+            position += 8;
+            return value;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed variable-length integer");
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /** Reads a length that cannot exceed the remaining input, so corrupt data never over-allocates. */
+        int readLength() {
+            long length = readVarLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new IllegalArgumentException("Invalid length " + length);
+            }
+            return (int) length;
+        }
+
+        byte[] readBytes() {
+            int length = readLength();
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() {
+            int length = readLength();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+
+    /** Thrown when a graph is too deep for the binary form; the whole value is then Java-serialized. */
+    private static final class GraphTooDeep extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        static final GraphTooDeep INSTANCE = new GraphTooDeep();
+
+        private GraphTooDeep() {
+            super(null, null, false, false);
+        }
+    }
+}
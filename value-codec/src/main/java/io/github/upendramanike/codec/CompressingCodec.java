@@ -0,0 +1,72 @@
+package io.github.upendramanike.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * {@link ValueCodec} decorator that compresses encoded values of at least {@code threshold} bytes with
+ * an LZ4 block compressor, so large values take less off-heap memory, disk or network bandwidth.
+ * Values that do not shrink are stored uncompressed. Every value starts with a one-byte header, so
+ * changing the threshold keeps previously stored values readable.
+ */
+public class CompressingCodec implements ValueCodec {
+
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final byte RAW = 0;
+    private static final byte LZ4 = 1;
+    private static final int LZ4_HEADER = 5;
+
+    private final ValueCodec delegate;
+    private final int threshold;
+
+    /**
+     * @param delegate codec producing the bytes to compress
+     * @param threshold encoded size in bytes from which values are compressed
+     */
+    public CompressingCodec(ValueCodec delegate, int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        byte[] plain = delegate.encode(value);
+        if (plain.length >= threshold) {
+            byte[] compressed = Lz4Compressor.compress(plain, LZ4_HEADER);
+            if (compressed != null) {
+                compressed[0] = LZ4;
+                INTS.set(compressed, 1, plain.length);
+                return compressed;
+            }
+        }
+        byte[] raw = new byte[plain.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(plain, 0, raw, 1, plain.length);
+        return raw;
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Empty value");
+        }
+        return switch (bytes[0]) {
+            case RAW -> delegate.decode(Arrays.copyOfRange(bytes, 1, bytes.length));
+            case LZ4 -> {
+                if (bytes.length < LZ4_HEADER) {
+                    throw new IllegalArgumentException("Truncated value");
+                }
+                int originalLength = (int) INTS.get(bytes, 1);
+                yield delegate.decode(
+                        Lz4Compressor.decompress(bytes, LZ4_HEADER, bytes.length - LZ4_HEADER, originalLength));
+            }
+            default -> throw new IllegalArgumentException("Unknown compression header " + bytes[0]);
+        };
+    }
+}
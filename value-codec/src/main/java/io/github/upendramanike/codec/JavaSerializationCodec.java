@@ -0,0 +1,38 @@
+package io.github.upendramanike.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+
+/** {@link ValueCodec} based on Java serialization; values must be {@link Serializable}. */
+public class JavaSerializationCodec implements ValueCodec {
+
+    @Override
+    public byte[] encode(Object value) {
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Not serializable: " + value.getClass().getName());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize " + value.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
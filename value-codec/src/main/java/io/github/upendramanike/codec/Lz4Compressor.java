@@ -0,0 +1,156 @@
+package io.github.upendramanike.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Pure-Java compressor producing the LZ4 block format: greedy matching of four-byte sequences through
+ * a small hash table, without entropy coding. It trades ratio for speed, typically compressing and
+ * decompressing at hundreds of megabytes per second, which makes it cheap enough for cache values.
+ */
+final class Lz4Compressor {
+
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int MAX_HASH_LOG = 12;
+    private static final int SKIP_TRIGGER = 6;
+
+    private Lz4Compressor() {
+    }
+
+    /**
+     * Compresses {@code src} into a new array, leaving the first {@code headerLength} bytes free for the
+     * caller. Returns {@code null} when the compressed form would not be smaller than {@code src}.
+     */
+    static byte[] compress(byte[] src, int headerLength) {
+        int length = src.length;
+        byte[] dst = new byte[headerLength + length + length / 255 + 16];
+        int op = headerLength;
+        int anchor = 0;
+        if (length > MATCH_FIND_LIMIT) {
+            int hashLog = Math.min(MAX_HASH_LOG, 32 - Integer.numberOfLeadingZeros(length));
+            int[] table = new int[1 << hashLog];
+            int matchLimit = length - LAST_LITERALS;
+            int limit = length - MATCH_FIND_LIMIT;
+            int ip = 0;
+            while (ip < limit) {
+                int sequence = (int) INTS.get(src, ip);
+                int hash = (sequence * -1640531535) >>> (32 - hashLog);
+                int ref = table[hash] - 1;
+                table[hash] = ip + 1;
+                if (ref < 0 || ip - ref > MAX_OFFSET || (int) INTS.get(src, ref) != sequence) {
+                    ip += 1 + ((ip - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+                while (ip > anchor && ref > 0 && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                int literals = ip - anchor;
+                int extraMatch = matchLength - MIN_MATCH;
+                dst[op++] = (byte) ((Math.min(literals, 15) << 4) | Math.min(extraMatch, 15));
+                op = writeLength(dst, op, literals);
+                System.arraycopy(src, anchor, dst, op, literals);
+                op += literals;
+                int offset = ip - ref;
+                dst[op++] = (byte) offset;
+                dst[op++] = (byte) (offset >>> 8);
+                op = writeLength(dst, op, extraMatch);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        int literals = length - anchor;
+        dst[op++] = (byte) (Math.min(literals, 15) << 4);
+        op = writeLength(dst, op, literals);
+        System.arraycopy(src, anchor, dst, op, literals);
+        op += literals;
+        return op - headerLength < length ? Arrays.copyOf(dst, op) : null;
+    }
+
+    /**
+     * Decompresses the LZ4 block in {@code src[offset, offset + length)} that expands to exactly
+     * {@code originalLength} bytes.
+     *
+     * @throws IllegalArgumentException if the block is corrupt
+     */
+    static byte[] decompress(byte[] src, int offset, int length, int originalLength) {
+        if (originalLength < 0 || originalLength > (long) length * 255 + 16) {
+            throw new IllegalArgumentException("Invalid original length " + originalLength);
+        }
+        byte[] dst = new byte[originalLength];
+        int ip = offset;
+        int end = offset + length;
+        int op = 0;
+        try {
+            while (true) {
+                int token = src[ip++] & 0xFF;
+                int literals = token >>> 4;
+                if (literals == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                System.arraycopy(src, ip, dst, op, literals);
+                ip += literals;
+                op += literals;
+                if (ip >= end) {
+                    break;
+                }
+                int matchOffset = (src[ip++] & 0xFF) | (src[ip++] & 0xFF) << 8;
+                int matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - matchOffset;
+                if (matchOffset == 0 || ref < 0 || op + matchLength > originalLength) {
+                    throw new IllegalArgumentException("Corrupt LZ4 block at " + (ip - offset));
+                }
+                if (matchOffset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, op, matchLength);
+                } else {
+                    for (int i = 0; i < matchLength; i++) {
+                        dst[op + i] = dst[ref + i];
+                    }
+                }
+                op += matchLength;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated LZ4 block", e);
+        }
+        if (op != originalLength || ip != end) {
+            throw new IllegalArgumentException("LZ4 block does not match its original length");
+        }
+        return dst;
+    }
+
+    private static int writeLength(byte[] dst, int op, int length) {
+        if (length < 15) {
+            return op;
+        }
+        int remaining = length - 15;
+        while (remaining >= 255) {
+            dst[op++] = (byte) 255;
+            remaining -= 255;
+        }
+        dst[op++] = (byte) remaining;
+        return op;
+    }
+}
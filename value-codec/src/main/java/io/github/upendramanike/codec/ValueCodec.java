@@ -0,0 +1,13 @@
+package io.github.upendramanike.codec;
+
+/**
+ * Converts cached values to and from bytes, for cache tiers that keep data outside the Java heap, on
+ * disk or in a shared store. Implementations throw {@link IllegalArgumentException} for values they
+ * cannot encode or bytes they cannot decode; callers leave such values uncached.
+ */
+public interface ValueCodec {
+
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes);
+}
@@ -0,0 +1,121 @@
+package io.github.upendramanike.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BinaryCodecTest {
+
+    private final BinaryCodec codec = new BinaryCodec();
+
+    enum Status { ACTIVE, BLOCKED }
+
+    record Line(String sku, int quantity, BigDecimal price) implements Serializable {
+    }
+
+    record Order(UUID id, Status status, List<Line> lines, Map<String, Object> attributes, Instant createdAt,
+            double discount, boolean express) implements Serializable {
+    }
+
+    static class Customer implements Serializable {
+        String name;
+        long loyaltyPoints;
+        transient String session;
+        LocalDate since;
+
+        Customer() {
+        }
+    }
+
+    static class Node implements Serializable {
+        Node next;
+    }
+
+    record Unserializable(String value) {
+    }
+
+    @Test
+    void roundTripsRecordsAndJdkTypes() {
+        Order order = new Order(UUID.randomUUID(), Status.BLOCKED,
+                List.of(new Line("a", 2, new BigDecimal("9.99")), new Line("b", -1, BigDecimal.TEN)),
+                Map.of("gift", true, "note", "leave at door", "tags", Set.of("x")),
+                Instant.parse("2024-05-01T10:15:30.123456Z"), 0.15, true);
+        Object decoded = codec.decode(codec.encode(order));
+        assertThat(decoded).isEqualTo(order);
+        assertThat(codec.decode(codec.encode(new byte[] {1, 2, 3}))).isEqualTo(new byte[] {1, 2, 3});
+        assertThat(codec.decode(codec.encode(null))).isNull();
+        assertThat(codec.decode(codec.encode(Long.MIN_VALUE))).isEqualTo(Long.MIN_VALUE);
+        assertThat(codec.decode(codec.encode('é'))).isEqualTo('é');
+    }
+
+    @Test
+    void roundTripsPlainClassesFieldByField() {
+        Customer customer = new Customer();
+        customer.name = "Ada";
+        customer.loyaltyPoints = 42;
+        customer.session = "secret";
+        customer.since = LocalDate.of(2020, 1, 31);
+        Customer decoded = (Customer) codec.decode(codec.encode(customer));
+        assertThat(decoded.name).isEqualTo("Ada");
+        assertThat(decoded.loyaltyPoints).isEqualTo(42);
+        assertThat(decoded.session).isNull();
+        assertThat(decoded.since).isEqualTo(customer.since);
+    }
+
+    @Test
+    void isMoreCompactThanJavaSerialization() {
+        List<Line> lines = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lines.add(new Line("sku-" + i, i, BigDecimal.valueOf(i, 2)));
+        }
+        assertThat(codec.encode(lines).length).isLessThan(new JavaSerializationCodec().encode(lines).length / 2);
+    }
+
+    @Test
+    void keepsCollectionTypesItCannotRebuild() {
+        TreeMap<String, Integer> sorted = new TreeMap<>(Map.of("b", 2, "a", 1));
+        LinkedList<String> linked = new LinkedList<>(List.of("x", "y"));
+        assertThat(codec.decode(codec.encode(sorted))).isInstanceOf(TreeMap.class).isEqualTo(sorted);
+        assertThat(codec.decode(codec.encode(linked))).isInstanceOf(LinkedList.class).isEqualTo(linked);
+        assertThat(codec.decode(codec.encode(new int[] {1, 2}))).isEqualTo(new int[] {1, 2});
+    }
+
+    @Test
+    void fallsBackToJavaSerializationForDeepGraphs() {
+        Node head = new Node();
+        Node node = head;
+        for (int i = 0; i < 300; i++) {
+            node.next = new Node();
+            node = node.next;
+        }
+        Node decoded = (Node) codec.decode(codec.encode(head));
+        int length = 0;
+        for (Node n = decoded; n.next != null; n = n.next) {
+            length++;
+        }
+        assertThat(length).isEqualTo(300);
+    }
+
+    @Test
+    void rejectsUnserializableAndForeignInput() {
+        assertThatThrownBy(() -> codec.encode(new Unserializable("x"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(new JavaSerializationCodec().encode("x")))
+                .isInstanceOf(IllegalArgumentException.class);
+        byte[] encoded = codec.encode(new Line("a", 1, BigDecimal.ONE));
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length - 3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
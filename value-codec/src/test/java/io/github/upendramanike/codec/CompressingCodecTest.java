@@ -0,0 +1,56 @@
+package io.github.upendramanike.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompressingCodecTest {
+
+    private final CompressingCodec codec = new CompressingCodec(new BinaryCodec(), 64);
+
+    @Test
+    void compressesRepetitiveValuesAboveTheThreshold() {
+        String text = "{\"sku\":\"A-1\",\"price\":9.99,\"currency\":\"EUR\"},".repeat(200);
+        byte[] encoded = codec.encode(text);
+        assertThat(encoded.length).isLessThan(text.length() / 5);
+        assertThat(codec.decode(encoded)).isEqualTo(text);
+        assertThat(codec.encode("short")[0]).isZero();
+        assertThat(codec.decode(codec.encode("short"))).isEqualTo("short");
+    }
+
+    @Test
+    void storesIncompressibleValuesAsTheyAre() {
+        byte[] noise = new byte[4096];
+        new Random(7).nextBytes(noise);
+        byte[] encoded = codec.encode(noise);
+        assertThat(encoded[0]).isZero();
+        assertThat(codec.decode(encoded)).isEqualTo(noise);
+    }
+
+    @Test
+    void roundTripsArbitraryInputs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            byte[] input = new byte[random.nextInt(5000)];
+            int alphabet = 1 + random.nextInt(8);
+            for (int j = 0; j < input.length; j++) {
+                input[j] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : 'a' + random.nextInt(alphabet));
+            }
+            byte[] compressed = Lz4Compressor.compress(input, 0);
+            if (compressed != null) {
+                assertThat(Lz4Compressor.decompress(compressed, 0, compressed.length, input.length)).isEqualTo(input);
+            }
+        }
+    }
+
+    @Test
+    void rejectsCorruptBlocks() {
+        byte[] encoded = codec.encode("abc".repeat(100));
+        assertThat(encoded[0]).isEqualTo((byte) 1);
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length - 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}